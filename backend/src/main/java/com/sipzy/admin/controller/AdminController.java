@@ -8,9 +8,15 @@ import com.sipzy.admin.dto.request.ModerateReportRequest;
 import com.sipzy.admin.dto.response.ReportResponse;
 import com.sipzy.admin.service.AdminService;
 import com.sipzy.coffee.dto.response.CoffeeResponse;
+import com.sipzy.coffee.dto.response.PopularityRebuildResponse;
+import com.sipzy.coffee.dto.response.RatingDriftResponse;
+import com.sipzy.coffee.service.CoffeePopularityService;
+import com.sipzy.coffee.service.CoffeeRatingVerifier;
 import com.sipzy.common.dto.ApiResponse;
 import com.sipzy.common.dto.PageResponse;
 import com.sipzy.common.util.JwtUtil;
+import com.sipzy.review.dto.response.VoteDriftResponse;
+import com.sipzy.review.service.ReviewVoteVerifier;
 import com.sipzy.user.dto.response.UserResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -34,6 +40,9 @@ import java.util.List;
 public class AdminController {
 
     private final AdminService adminService;
+    private final CoffeePopularityService coffeePopularityService;
+    private final CoffeeRatingVerifier coffeeRatingVerifier;
+    private final ReviewVoteVerifier reviewVoteVerifier;
     private final JwtUtil jwtUtil;
 
     @GetMapping("/stats")
@@ -104,6 +113,38 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/coffees/popularity/rebuild")
+    @Operation(summary = "Recalculer la popularité", description = "Recalcule la note moyenne globale (prior) puis le score bayésien de tous les cafés")
+    public ResponseEntity<ApiResponse<PopularityRebuildResponse>> rebuildPopularity(
+            @RequestParam(required = false) Integer priorWeight
+    ) {
+        log.info("Rebuild coffee popularity, prior weight: {}", priorWeight);
+
+        PopularityRebuildResponse response = coffeePopularityService.rebuild(priorWeight);
+
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @PostMapping("/coffees/ratings/verify")
+    @Operation(summary = "Vérifier les notes", description = "Compare la somme et le nombre de notes stockés de chaque café avec ses avis, et corrige les écarts")
+    public ResponseEntity<ApiResponse<RatingDriftResponse>> verifyRatings() {
+        log.info("Verify coffee rating aggregates");
+
+        RatingDriftResponse response = coffeeRatingVerifier.verify();
+
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @PostMapping("/reviews/votes/verify")
+    @Operation(summary = "Vérifier les votes", description = "Compare les compteurs utile/pas utile de chaque avis avec ses votes, et recompte les écarts stables")
+    public ResponseEntity<ApiResponse<VoteDriftResponse>> verifyReviewVotes() {
+        log.info("Verify review vote counters");
+
+        VoteDriftResponse response = reviewVoteVerifier.verify();
+
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     // ==================== User Management ====================
 
     @GetMapping("/users")
@@ -9,6 +9,8 @@ import com.sipzy.admin.repository.ReportRepository;
 import com.sipzy.coffee.domain.Coffee;
 import com.sipzy.coffee.domain.Note;
 import com.sipzy.coffee.domain.Roaster;
+import com.sipzy.coffee.event.CoffeeChangedEvent;
+import com.sipzy.coffee.event.ReferenceDataChangedEvent;
 import com.sipzy.coffee.repository.CoffeeRepository;
 import com.sipzy.coffee.repository.NoteRepository;
 import com.sipzy.coffee.repository.RoasterRepository;
@@ -18,6 +20,7 @@ import com.sipzy.user.domain.User;
 import com.sipzy.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -45,6 +48,7 @@ public class AdminDataService {
     private final ReviewRepository reviewRepository;
     private final ReportRepository reportRepository;
     private final ActivityRepository activityRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get metadata for all available entities
@@ -119,10 +123,19 @@ public class AdminDataService {
     public void deleteEntity(String entityType, Long id) {
         switch (entityType.toLowerCase()) {
             case "users" -> userRepository.deleteById(id);
-            case "coffees" -> coffeeRepository.deleteById(id);
-            case "roasters" -> roasterRepository.deleteById(id);
-            case "notes" -> noteRepository.deleteById(id);
-            case "reviews" -> reviewRepository.deleteById(id);
+            case "coffees" -> {
+                coffeeRepository.deleteById(id);
+                eventPublisher.publishEvent(CoffeeChangedEvent.deleted(id));
+            }
+            case "roasters" -> {
+                roasterRepository.deleteById(id);
+                eventPublisher.publishEvent(ReferenceDataChangedEvent.roaster(id));
+            }
+            case "notes" -> {
+                noteRepository.deleteById(id);
+                eventPublisher.publishEvent(ReferenceDataChangedEvent.note(id));
+            }
+            case "reviews" -> deleteReview(id);
             case "reports" -> reportRepository.deleteById(id);
             case "activities" -> activityRepository.deleteById(id);
             default -> throw new IllegalArgumentException("Unknown entity type: " + entityType);
@@ -259,10 +272,14 @@ public class AdminDataService {
         if (updates.containsKey("variety")) coffee.setVariety((String) updates.get("variety"));
         if (updates.containsKey("priceRange")) coffee.setPriceRange((String) updates.get("priceRange"));
         if (updates.containsKey("description")) coffee.setDescription((String) updates.get("description"));
+        Coffee.CoffeeStatus previousStatus = coffee.getStatus();
         if (updates.containsKey("status")) coffee.setStatus(Coffee.CoffeeStatus.valueOf((String) updates.get("status")));
 
         coffee = coffeeRepository.save(coffee);
         log.info("Coffee updated: {}", coffee.getId());
+        eventPublisher.publishEvent(coffee.getStatus() != previousStatus
+            ? CoffeeChangedEvent.statusChanged(coffee.getId())
+            : CoffeeChangedEvent.updated(coffee.getId()));
         return mapCoffeeToDto(coffee);
     }
 
@@ -345,6 +362,7 @@ public class AdminDataService {
         if (updates.containsKey("isVerified")) roaster.setIsVerified((Boolean) updates.get("isVerified"));
 
         roaster = roasterRepository.save(roaster);
+        eventPublisher.publishEvent(ReferenceDataChangedEvent.roaster(roaster.getId()));
         log.info("Roaster updated: {}", roaster.getId());
         return mapRoasterToDto(roaster);
     }
@@ -403,6 +421,7 @@ public class AdminDataService {
         if (updates.containsKey("category")) note.setCategory((String) updates.get("category"));
 
         note = noteRepository.save(note);
+        eventPublisher.publishEvent(ReferenceDataChangedEvent.note(note.getId()));
         log.info("Note updated: {}", note.getId());
         return mapNoteToDto(note);
     }
@@ -469,9 +488,24 @@ public class AdminDataService {
 
         review = reviewRepository.save(review);
         log.info("Review updated: {}", review.getId());
+        if (review.getCoffee() != null) {
+            eventPublisher.publishEvent(CoffeeChangedEvent.ratingChanged(review.getCoffee().getId()));
+        }
         return mapReviewToDto(review);
     }
 
+    private void deleteReview(Long id) {
+        Review review = reviewRepository.findById(id)
+            .orElseThrow(() -> new NoSuchElementException("Review not found: " + id));
+        Long coffeeId = review.getCoffee() != null ? review.getCoffee().getId() : null;
+
+        reviewRepository.delete(review);
+        log.info("Review deleted: {}", id);
+        if (coffeeId != null) {
+            eventPublisher.publishEvent(CoffeeChangedEvent.ratingChanged(coffeeId));
+        }
+    }
+
     private AdminReviewDto mapReviewToDto(Review review) {
         return AdminReviewDto.builder()
             .id(review.getId())
@@ -87,9 +87,7 @@ public class AdminService {
         Pageable pageable = PageRequest.of(page - 1, limit);
         Page<Coffee> coffeePage = coffeeRepository.findByStatus(Coffee.CoffeeStatus.PENDING, pageable);
 
-        List<CoffeeResponse> coffees = coffeePage.getContent().stream()
-            .map(coffeeMapper::toCoffeeResponse)
-            .collect(Collectors.toList());
+        List<CoffeeResponse> coffees = toCoffeeResponses(coffeePage);
 
         return PageResponse.of(coffees, page, limit, coffeePage.getTotalElements());
     }
@@ -126,13 +124,24 @@ public class AdminService {
             coffeePage = coffeeRepository.findAll(pageable);
         }
 
-        List<CoffeeResponse> coffees = coffeePage.getContent().stream()
-            .map(coffeeMapper::toCoffeeResponse)
-            .collect(Collectors.toList());
+        List<CoffeeResponse> coffees = toCoffeeResponses(coffeePage);
 
         return PageResponse.of(coffees, page, limit, coffeePage.getTotalElements());
     }
 
+    /**
+     * Second phase of a coffee page: roasters and notes for the whole page in one query
+     */
+    private List<CoffeeResponse> toCoffeeResponses(Page<Coffee> coffeePage) {
+        List<Long> ids = coffeePage.getContent().stream()
+            .map(Coffee::getId)
+            .collect(Collectors.toList());
+
+        return coffeeRepository.findWithDetailsInOrder(ids).stream()
+            .map(coffeeMapper::toCoffeeResponse)
+            .collect(Collectors.toList());
+    }
+
     // ==================== User Management ====================
 
     /**
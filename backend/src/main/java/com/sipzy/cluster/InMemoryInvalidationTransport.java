@@ -0,0 +1,34 @@
+package com.sipzy.cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Transport within one JVM: single-node runs, and tests wiring several buses to one instance.
+ * Messages are delivered synchronously to every started receiver.
+ */
+@Component
+@ConditionalOnProperty(name = "app.invalidation.transport", havingValue = "in-memory")
+public class InMemoryInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<String>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void start(Consumer<String> receiver, Runnable onGap) {
+        receivers.add(receiver);
+    }
+
+    @Override
+    public void send(String payload) {
+        receivers.forEach(receiver -> receiver.accept(payload));
+    }
+
+    @Override
+    public void stop() {
+        receivers.clear();
+    }
+}
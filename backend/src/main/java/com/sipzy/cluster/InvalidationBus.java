@@ -0,0 +1,233 @@
+package com.sipzy.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sipzy.coffee.event.CoffeeActivityEvent;
+import com.sipzy.coffee.event.CoffeeChangedEvent;
+import com.sipzy.coffee.event.PopularityRebuiltEvent;
+import com.sipzy.coffee.event.ReferenceDataChangedEvent;
+import com.sipzy.user.event.UserCreatedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the in-process caches and indexes of several backend nodes in step.
+ *
+ * Committed {@link CoffeeChangedEvent}s, {@link ReferenceDataChangedEvent}s,
+ * {@link CoffeeActivityEvent}s, {@link PopularityRebuiltEvent}s and {@link UserCreatedEvent}s
+ * are queued, deduplicated, and sent every flush interval as sequence-numbered
+ * {@link InvalidationMessage}s. Activities add up (trending scores) rather than invalidate,
+ * so repeats are counted instead of deduplicated. Other nodes replay them as local events in one transaction,
+ * so every existing listener evicts or refreshes exactly as for a local write (the card projector skips replays: cards live in the shared database). A node seeing
+ * a sequence gap, or whose transport lost messages, publishes a {@link LocalFlushEvent}.
+ */
+@Slf4j
+@Component
+public class InvalidationBus {
+
+    private final InvalidationTransport transport;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final String node = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<String> outbox = new LinkedHashSet<>();
+    // "A:{coffeeId}:{activity}" -> occurrences since the last flush; guarded by outbox
+    private final Map<String, Integer> activityOutbox = new LinkedHashMap<>();
+    private final Map<String, Long> lastSeqByNode = new ConcurrentHashMap<>();
+
+    // pg_notify payloads must stay under 8000 bytes
+    private static final int MAX_CHANGES_PER_MESSAGE = 150;
+    private static final ThreadLocal<Boolean> REPLAYING = ThreadLocal.withInitial(() -> false);
+
+    public InvalidationBus(
+            Optional<InvalidationTransport> transport,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper
+    ) {
+        this.transport = transport.orElse(null);
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * True while this thread replays another node's changes (listeners writing shared state skip them)
+     */
+    public static boolean isReplaying() {
+        return REPLAYING.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (transport == null) {
+            log.info("No invalidation transport, caches stay node-local");
+            return;
+        }
+        transport.start(this::receive, () -> flushLocal("transport reconnected"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+        if (transport != null) {
+            transport.stop();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCoffeeChanged(CoffeeChangedEvent event) {
+        if (event.coffeeId() != null) {
+            enqueue("C:" + event.coffeeId() + ":" + event.change());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        if (event.id() != null) {
+            enqueue((event.kind() == ReferenceDataChangedEvent.Kind.ROASTER ? "R:" : "N:") + event.id());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivity(CoffeeActivityEvent event) {
+        if (event.coffeeId() == null || transport == null || isReplaying()) {
+            return;
+        }
+        synchronized (outbox) {
+            activityOutbox.merge("A:" + event.coffeeId() + ":" + event.kind(), 1, Integer::sum);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPopularityRebuilt(PopularityRebuiltEvent event) {
+        enqueue("P");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserCreated(UserCreatedEvent event) {
+        if (event.userId() != null) {
+            enqueue("U:" + event.userId());
+        }
+    }
+
+    private void enqueue(String change) {
+        if (transport == null || isReplaying()) {
+            return;
+        }
+        synchronized (outbox) {
+            outbox.add(change);
+        }
+    }
+
+    /**
+     * Send the changes queued since the last flush
+     */
+    @Scheduled(fixedDelayString = "${app.invalidation.flush-interval:PT0.2S}")
+    public void flush() {
+        List<String> changes;
+        synchronized (outbox) {
+            if (outbox.isEmpty() && activityOutbox.isEmpty()) {
+                return;
+            }
+            changes = new ArrayList<>(outbox);
+            for (Map.Entry<String, Integer> activity : activityOutbox.entrySet()) {
+                changes.add(activity.getKey() + ":" + activity.getValue());
+            }
+            outbox.clear();
+            activityOutbox.clear();
+        }
+
+        for (int from = 0; from < changes.size(); from += MAX_CHANGES_PER_MESSAGE) {
+            List<String> chunk = changes.subList(from, Math.min(from + MAX_CHANGES_PER_MESSAGE, changes.size()));
+            // Numbered even if sending fails: receivers then see the gap and flush
+            InvalidationMessage message = new InvalidationMessage(node, sequence.incrementAndGet(), List.copyOf(chunk));
+            try {
+                transport.send(objectMapper.writeValueAsString(message));
+            } catch (JsonProcessingException | RuntimeException e) {
+                log.error("Invalidation message {} not sent ({} changes)", message.seq(), chunk.size(), e);
+            }
+        }
+    }
+
+    void receive(String payload) {
+        InvalidationMessage message;
+        try {
+            message = objectMapper.readValue(payload, InvalidationMessage.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable invalidation message ignored: {}", payload);
+            return;
+        }
+        if (node.equals(message.node())) {
+            return;
+        }
+
+        Long last = lastSeqByNode.put(message.node(), message.seq());
+        if (last != null && message.seq() != last + 1) {
+            flushLocal("missed messages " + (last + 1) + ".." + (message.seq() - 1) + " from node " + message.node());
+            return;
+        }
+
+        REPLAYING.set(true);
+        try {
+            transactionTemplate.executeWithoutResult(status -> message.changes().forEach(this::replay));
+            log.debug("Replayed {} changes from node {} (#{})", message.changes().size(), message.node(), message.seq());
+        } catch (RuntimeException e) {
+            flushLocal("replay failed: " + e.getMessage());
+        } finally {
+            REPLAYING.remove();
+        }
+    }
+
+    private void replay(String change) {
+        String[] parts = change.split(":");
+        Object event = switch (parts[0]) {
+            case "C" -> new CoffeeChangedEvent(Long.valueOf(parts[1]), CoffeeChangedEvent.Change.valueOf(parts[2]));
+            case "R" -> ReferenceDataChangedEvent.roaster(Long.valueOf(parts[1]));
+            case "N" -> ReferenceDataChangedEvent.note(Long.valueOf(parts[1]));
+            case "A" -> {
+                CoffeeActivityEvent activity = new CoffeeActivityEvent(Long.valueOf(parts[1]),
+                        CoffeeActivityEvent.Kind.valueOf(parts[2]));
+                // Without a count (older nodes), one occurrence
+                int count = parts.length > 3 ? Integer.parseInt(parts[3]) : 1;
+                for (int i = 1; i < count; i++) {
+                    eventPublisher.publishEvent(activity);
+                }
+                yield activity;
+            }
+            case "P" -> new PopularityRebuiltEvent();
+            case "U" -> new UserCreatedEvent(Long.valueOf(parts[1]));
+            default -> null;
+        };
+        if (event != null) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    private void flushLocal(String reason) {
+        log.warn("Flushing local caches: {}", reason);
+        eventPublisher.publishEvent(new LocalFlushEvent(reason));
+    }
+}
@@ -0,0 +1,19 @@
+package com.sipzy.cluster;
+
+import java.util.List;
+
+/**
+ * One broadcast of the {@link InvalidationBus}: the changes a node committed during a flush
+ * interval, deduplicated. {@code seq} counts the messages of {@code node} from 1, so a
+ * receiver can tell when it missed one.
+ *
+ * Changes are compact strings: "C:{coffeeId}:{change}", "R:{roasterId}", "N:{noteId}",
+ * "A:{coffeeId}:{activity}:{count}" (activities are counted, not deduplicated), "P" (popularity
+ * rebuilt), "U:{userId}".
+ */
+public record InvalidationMessage(
+        String node,
+        long seq,
+        List<String> changes
+) {
+}
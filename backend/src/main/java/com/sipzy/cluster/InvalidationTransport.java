@@ -0,0 +1,19 @@
+package com.sipzy.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcast channel of the {@link InvalidationBus} between the backend nodes
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Start delivering messages of every node (this one included) to the receiver.
+     * {@code onGap} runs when messages may have been lost (e.g. after a reconnect).
+     */
+    void start(Consumer<String> receiver, Runnable onGap);
+
+    void send(String payload);
+
+    void stop();
+}
@@ -0,0 +1,10 @@
+package com.sipzy.cluster;
+
+/**
+ * Published locally when this node may have missed invalidations from other nodes:
+ * in-process caches and indexes drop or rebuild everything they hold.
+ */
+public record LocalFlushEvent(
+        String reason
+) {
+}
@@ -0,0 +1,114 @@
+package com.sipzy.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+
+/**
+ * Transport over Postgres LISTEN/NOTIFY on the application database.
+ *
+ * Sending is a pg_notify() on any pooled connection. Receiving holds one connection out of
+ * the pool for LISTEN and polls it from a daemon thread; when that connection fails it is
+ * re-opened, and since notifications sent meanwhile are lost, the gap is reported.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.invalidation.transport", havingValue = "postgres", matchIfMissing = true)
+public class PostgresInvalidationTransport implements InvalidationTransport {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    private static final String CHANNEL = "sipzy_invalidation";
+    private static final int POLL_MILLIS = 500;
+    private static final long RETRY_MILLIS = 5_000;
+
+    public PostgresInvalidationTransport(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public synchronized void start(Consumer<String> receiver, Runnable onGap) {
+        if (running) {
+            return;
+        }
+        running = true;
+        listener = new Thread(() -> listen(receiver, onGap), "invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void send(String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (RowCallbackHandler) rs -> { }, CHANNEL, payload);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen(Consumer<String> receiver, Runnable onGap) {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                if (reconnecting) {
+                    onGap.run();
+                }
+                log.info("Listening for cache invalidations on {}", CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        deliver(receiver, notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Invalidation listener connection lost, retrying in {} ms: {}", RETRY_MILLIS, e.getMessage());
+                reconnecting = true;
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void deliver(Consumer<String> receiver, String payload) {
+        try {
+            receiver.accept(payload);
+        } catch (RuntimeException e) {
+            log.error("Invalidation message handling failed", e);
+        }
+    }
+}
@@ -2,12 +2,16 @@ package com.sipzy.coffee.controller;
 
 import com.sipzy.coffee.dto.request.CoffeeFiltersRequest;
 import com.sipzy.coffee.dto.request.CreateCoffeeRequest;
+import com.sipzy.coffee.dto.response.CoffeeFacetsResponse;
 import com.sipzy.coffee.dto.response.CoffeeResponse;
 import com.sipzy.coffee.service.CoffeeCommandService;
+import com.sipzy.coffee.service.CoffeeFacetService;
 import com.sipzy.coffee.service.CoffeeQueryService;
 import com.sipzy.common.dto.ApiResponse;
 import com.sipzy.common.dto.PageResponse;
 import com.sipzy.common.util.JwtUtil;
+import com.sipzy.common.web.ConditionalGet;
+import com.sipzy.common.web.SerializedResponseCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -16,6 +20,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -32,26 +37,32 @@ public class CoffeeController {
 
     private final CoffeeQueryService coffeeQueryService;
     private final CoffeeCommandService coffeeCommandService;
+    private final CoffeeFacetService coffeeFacetService;
+    private final SerializedResponseCache responseCache;
     private final JwtUtil jwtUtil;
 
     @GetMapping
     @Operation(summary = "Liste des cafés", description = "Récupérer tous les cafés avec filtres et pagination")
     public ResponseEntity<PageResponse<CoffeeResponse>> getCoffees(
             @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
             @RequestParam(required = false) List<String> origin,
             @RequestParam(required = false) List<Long> roasterId,
             @RequestParam(required = false) List<Long> noteIds,
             @RequestParam(required = false) List<String> priceRange,
             @RequestParam(required = false) Double minRating,
-            @RequestParam(defaultValue = "rating") String sortBy,
+            @RequestParam(required = false) String sortBy,
             @RequestParam(defaultValue = "desc") String sortOrder,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "12") int limit
+            @RequestParam(defaultValue = "12") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean withTotal
     ) {
-        log.info("Get coffees - page: {}, limit: {}", page, limit);
+        log.info("Get coffees - page: {}, limit: {}, cursor: {}", page, limit, cursor);
 
         CoffeeFiltersRequest filters = CoffeeFiltersRequest.builder()
                 .search(search)
+                .fuzzy(fuzzy)
                 .origin(origin)
                 .roasterId(roasterId)
                 .noteIds(noteIds)
@@ -61,6 +72,8 @@ public class CoffeeController {
                 .sortOrder(sortOrder)
                 .page(page)
                 .limit(limit)
+                .cursor(cursor)
+                .withTotal(withTotal)
                 .build();
 
         PageResponse<CoffeeResponse> response = coffeeQueryService.getAllCoffees(filters, page, limit);
@@ -68,14 +81,43 @@ public class CoffeeController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/facets")
+    @Operation(summary = "Facettes cafés", description = "Nombre de cafés par origine, torréfacteur, note et gamme de prix pour les filtres courants")
+    public ResponseEntity<ApiResponse<CoffeeFacetsResponse>> getFacets(
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(required = false) List<String> origin,
+            @RequestParam(required = false) List<Long> roasterId,
+            @RequestParam(required = false) List<Long> noteIds,
+            @RequestParam(required = false) List<String> priceRange,
+            @RequestParam(required = false) Double minRating
+    ) {
+        log.info("Get coffee facets");
+
+        CoffeeFiltersRequest filters = CoffeeFiltersRequest.builder()
+                .search(search)
+                .fuzzy(fuzzy)
+                .origin(origin)
+                .roasterId(roasterId)
+                .noteIds(noteIds)
+                .priceRange(priceRange)
+                .minRating(minRating)
+                .build();
+
+        CoffeeFacetsResponse response = coffeeFacetService.getFacets(filters);
+
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Détail café", description = "Récupérer un café par son ID")
-    public ResponseEntity<ApiResponse<CoffeeResponse>> getCoffeeById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<CoffeeResponse>> getCoffeeById(@PathVariable Long id, WebRequest request) {
         log.info("Get coffee by id: {}", id);
 
-        CoffeeResponse response = coffeeQueryService.getCoffeeById(id);
-
-        return ResponseEntity.ok(ApiResponse.success(response));
+        // Cached detail: its tag is taken from the very content sent (404 for unknown ids)
+        CoffeeResponse coffee = coffeeQueryService.getCoffeeById(id);
+        return ConditionalGet.respond(request, coffeeQueryService.getCoffeeVersion(coffee),
+                () -> ApiResponse.success(coffee));
     }
 
     @PostMapping
@@ -124,30 +166,46 @@ public class CoffeeController {
 
     @GetMapping("/popular")
     @Operation(summary = "Cafés populaires", description = "Top cafés par note")
-    public ResponseEntity<ApiResponse<List<CoffeeResponse>>> getPopularCoffees(
-            @RequestParam(defaultValue = "8") int limit
+    public ResponseEntity<byte[]> getPopularCoffees(
+            @RequestParam(defaultValue = "8") int limit,
+            WebRequest request
     ) {
         log.info("Get popular coffees, limit: {}", limit);
 
-        List<CoffeeResponse> response = coffeeQueryService.getPopularCoffees(limit);
-
-        return ResponseEntity.ok(ApiResponse.success(response));
+        // Cached list: its tag is taken from the very content sent, never from a newer version
+        List<CoffeeResponse> coffees = coffeeQueryService.getPopularCoffees(limit);
+        return responseCache.respond(request, "popular:" + limit, coffeeQueryService.getCoffeeListVersion("popular", limit, coffees),
+                () -> ApiResponse.success(coffees));
     }
 
     @GetMapping("/recent")
     @Operation(summary = "Cafés récents", description = "Cafés récemment ajoutés")
-    public ResponseEntity<ApiResponse<List<CoffeeResponse>>> getRecentCoffees(
-            @RequestParam(defaultValue = "8") int limit
+    public ResponseEntity<byte[]> getRecentCoffees(
+            @RequestParam(defaultValue = "8") int limit,
+            WebRequest request
     ) {
         log.info("Get recent coffees, limit: {}", limit);
 
-        List<CoffeeResponse> response = coffeeQueryService.getRecentCoffees(limit);
+        // Cached list: its tag is taken from the very content sent, never from a newer version
+        List<CoffeeResponse> coffees = coffeeQueryService.getRecentCoffees(limit);
+        return responseCache.respond(request, "recent:" + limit, coffeeQueryService.getCoffeeListVersion("recent", limit, coffees),
+                () -> ApiResponse.success(coffees));
+    }
+
+    @GetMapping("/trending")
+    @Operation(summary = "Cafés tendance", description = "Cafés les plus actifs récemment (avis, favoris, votes utiles), avec décroissance exponentielle")
+    public ResponseEntity<ApiResponse<List<CoffeeResponse>>> getTrendingCoffees(
+            @RequestParam(defaultValue = "8") int limit
+    ) {
+        log.info("Get trending coffees, limit: {}", limit);
+
+        List<CoffeeResponse> response = coffeeQueryService.getTrendingCoffees(limit);
 
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
     @GetMapping("/{id}/similar")
-    @Operation(summary = "Cafés similaires", description = "Cafés similaires par origine et notes")
+    @Operation(summary = "Cafés similaires", description = "Cafés les plus proches (notes, origine, process, torréfacteur), précalculés")
     public ResponseEntity<ApiResponse<List<CoffeeResponse>>> getSimilarCoffees(
             @PathVariable Long id,
             @RequestParam(defaultValue = "4") int limit
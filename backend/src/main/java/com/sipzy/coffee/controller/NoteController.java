@@ -1,15 +1,19 @@
 package com.sipzy.coffee.controller;
 
-import com.sipzy.coffee.dto.response.NoteByCategoryResponse;
 import com.sipzy.coffee.dto.response.NoteResponse;
-import com.sipzy.coffee.service.NoteService;
+import com.sipzy.coffee.index.ReferenceDataCache;
+import com.sipzy.coffee.index.ReferenceDataSnapshot;
 import com.sipzy.common.dto.ApiResponse;
+import com.sipzy.common.web.ConditionalGet;
+import com.sipzy.common.web.SerializedResponseCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -23,21 +27,34 @@ import java.util.List;
 @Tag(name = "Notes", description = "Endpoints pour gérer les notes aromatiques")
 public class NoteController {
 
-    private final NoteService noteService;
+    private final ReferenceDataCache referenceDataCache;
+    private final SerializedResponseCache responseCache;
 
     @GetMapping
     @Operation(summary = "Liste des notes", description = "Récupérer toutes les notes aromatiques")
-    public ResponseEntity<ApiResponse<List<NoteResponse>>> getAllNotes() {
+    public ResponseEntity<ApiResponse<List<NoteResponse>>> getAllNotes(
+            @RequestParam(required = false) String v,
+            WebRequest request,
+            HttpServletResponse response
+    ) {
         log.info("Get all notes");
-        List<NoteResponse> response = noteService.getAllNotes();
-        return ResponseEntity.ok(ApiResponse.success(response));
+        ReferenceDataSnapshot snapshot = referenceDataCache.current();
+        response.setHeader(ReferenceDataSnapshot.VERSION_HEADER, snapshot.version());
+        return ConditionalGet.respond(request, snapshot.stamp("notes"), snapshot.cacheControl(v),
+                () -> ApiResponse.success(snapshot.notes()));
     }
 
     @GetMapping("/categories")
     @Operation(summary = "Notes par catégorie", description = "Récupérer les notes groupées par catégorie")
-    public ResponseEntity<ApiResponse<List<NoteByCategoryResponse>>> getNotesByCategory() {
+    public ResponseEntity<byte[]> getNotesByCategory(
+            @RequestParam(required = false) String v,
+            WebRequest request,
+            HttpServletResponse response
+    ) {
         log.info("Get notes by category");
-        List<NoteByCategoryResponse> response = noteService.getNotesByCategory();
-        return ResponseEntity.ok(ApiResponse.success(response));
+        ReferenceDataSnapshot snapshot = referenceDataCache.current();
+        response.setHeader(ReferenceDataSnapshot.VERSION_HEADER, snapshot.version());
+        return responseCache.respond(request, "notes:categories", snapshot.stamp("categories"), snapshot.cacheControl(v),
+                () -> ApiResponse.success(snapshot.notesByCategory()));
     }
 }
@@ -1,14 +1,19 @@
 package com.sipzy.coffee.controller;
 
 import com.sipzy.coffee.dto.response.RoasterResponse;
+import com.sipzy.coffee.index.ReferenceDataCache;
+import com.sipzy.coffee.index.ReferenceDataSnapshot;
 import com.sipzy.coffee.service.RoasterService;
 import com.sipzy.common.dto.ApiResponse;
+import com.sipzy.common.web.ConditionalGet;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -23,20 +28,27 @@ import java.util.List;
 public class RoasterController {
 
     private final RoasterService roasterService;
+    private final ReferenceDataCache referenceDataCache;
 
     @GetMapping
     @Operation(summary = "Liste des torréfacteurs", description = "Récupérer tous les torréfacteurs")
-    public ResponseEntity<ApiResponse<List<RoasterResponse>>> getAllRoasters() {
+    public ResponseEntity<ApiResponse<List<RoasterResponse>>> getAllRoasters(
+            @RequestParam(required = false) String v,
+            WebRequest request,
+            HttpServletResponse response
+    ) {
         log.info("Get all roasters");
-        List<RoasterResponse> response = roasterService.getAllRoasters();
-        return ResponseEntity.ok(ApiResponse.success(response));
+        ReferenceDataSnapshot snapshot = referenceDataCache.current();
+        response.setHeader(ReferenceDataSnapshot.VERSION_HEADER, snapshot.version());
+        return ConditionalGet.respond(request, snapshot.stamp("roasters"), snapshot.cacheControl(v),
+                () -> ApiResponse.success(snapshot.roasters()));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Détail torréfacteur", description = "Récupérer un torréfacteur par son ID")
-    public ResponseEntity<ApiResponse<RoasterResponse>> getRoasterById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<RoasterResponse>> getRoasterById(@PathVariable Long id, WebRequest request) {
         log.info("Get roaster by id: {}", id);
-        RoasterResponse response = roasterService.getRoasterById(id);
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return ConditionalGet.respond(request, roasterService.getRoasterVersion(id).orElse(null),
+                () -> ApiResponse.success(roasterService.getRoasterById(id)));
     }
 }
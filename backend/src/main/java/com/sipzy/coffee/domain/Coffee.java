@@ -64,10 +64,11 @@ public class Coffee {
     @Column(name = "image_url", length = 500)
     private String imageUrl;
 
-    @Column(name = "avg_rating", precision = 3, scale = 2)
+    // Derived from rating_sum / rating_count by the review triggers (V21), never written here
+    @Column(name = "avg_rating", precision = 3, scale = 2, updatable = false)
     private BigDecimal averageRating;
 
-    @Column(name = "review_count")
+    @Column(name = "review_count", updatable = false)
     @Builder.Default
     private Integer reviewCount = 0;
 
@@ -139,11 +140,6 @@ public class Coffee {
         this.moderatedAt = Instant.now();
     }
 
-    public void updateRating(BigDecimal newAverageRating, int newReviewCount) {
-        this.averageRating = newAverageRating;
-        this.reviewCount = newReviewCount;
-    }
-
     public boolean canBeEditedBy(User user) {
         if (user == null) {
             return false;
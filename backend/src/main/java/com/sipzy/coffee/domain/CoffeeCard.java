@@ -0,0 +1,106 @@
+package com.sipzy.coffee.domain;
+
+import com.sipzy.coffee.dto.response.NoteSummary;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * CoffeeCard - Flat read model of an approved coffee, roaster and notes inlined
+ * Written only by CoffeeCardProjector (SQL upserts), read by the listing endpoints
+ */
+@Entity
+@Table(name = "coffee_cards")
+@Immutable
+@Getter
+@NoArgsConstructor
+public class CoffeeCard {
+
+    @Id
+    @Column(name = "coffee_id")
+    private Long coffeeId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(length = 100)
+    private String origin;
+
+    @Column(length = 50)
+    private String process;
+
+    @Column(length = 100)
+    private String variety;
+
+    @Column(name = "altitude_min")
+    private Integer altitudeMin;
+
+    @Column(name = "altitude_max")
+    private Integer altitudeMax;
+
+    @Column(name = "harvest_year")
+    private Integer harvestYear;
+
+    @Column(name = "price_range", length = 20)
+    private String priceRange;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(name = "image_url", length = 500)
+    private String imageUrl;
+
+    @Column(name = "roaster_id")
+    private Long roasterId;
+
+    @Column(name = "roaster_name")
+    private String roasterName;
+
+    @Column(name = "roaster_location", length = 100)
+    private String roasterLocation;
+
+    @Column(name = "roaster_website", length = 500)
+    private String roasterWebsite;
+
+    @Column(name = "roaster_logo_url", length = 500)
+    private String roasterLogoUrl;
+
+    @Column(name = "roaster_verified")
+    private Boolean roasterVerified;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private List<NoteSummary> notes;
+
+    @Column(name = "avg_rating", precision = 3, scale = 2)
+    private BigDecimal averageRating;
+
+    @Column(name = "review_count")
+    private Integer reviewCount;
+
+    // Bayesian average against popularity_prior (V19), null without reviews
+    @Column(name = "popularity_score")
+    private Double popularityScore;
+
+    @Column(name = "submitted_by")
+    private Long submittedBy;
+
+    @Column(name = "moderated_by")
+    private Long moderatedBy;
+
+    @Column(name = "moderated_at")
+    private Instant moderatedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.sipzy.coffee.domain;
 
+import com.sipzy.coffee.index.ReferenceDataListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -10,6 +11,7 @@ import java.time.Instant;
  * Note entity - Tasting notes/flavor profiles
  */
 @Entity
+@EntityListeners(ReferenceDataListener.class)
 @Table(name = "notes")
 @Getter
 @Setter
@@ -1,5 +1,6 @@
 package com.sipzy.coffee.domain;
 
+import com.sipzy.coffee.index.ReferenceDataListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -11,6 +12,7 @@ import java.time.Instant;
  * Roaster entity - Represents coffee roasting companies
  */
 @Entity
+@EntityListeners(ReferenceDataListener.class)
 @Table(name = "roasters", indexes = {
         @Index(name = "idx_roasters_name", columnList = "name")
 })
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Query DTO pour filtrer les cafés (CQRS - Query)
@@ -17,6 +18,7 @@ import java.util.List;
 public class CoffeeFiltersRequest {
 
     private String search;
+    private Boolean fuzzy; // true = typo-tolerant trigram matching instead of full-text
     private List<String> origin;
     private List<Long> roasterId;
     private List<Long> noteIds;
@@ -24,7 +26,7 @@ public class CoffeeFiltersRequest {
     private Double minRating;
 
     @Builder.Default
-    private String sortBy = "rating"; // name, rating, reviews, created
+    private String sortBy = "rating"; // relevance (search only), name, rating, reviews, created, price
 
     @Builder.Default
     private String sortOrder = "desc"; // asc, desc
@@ -34,4 +36,46 @@ public class CoffeeFiltersRequest {
 
     @Builder.Default
     private Integer limit = 12;
+
+    private String cursor; // keyset mode: empty = first page, null = page/limit mode
+
+    @Builder.Default
+    private Boolean withTotal = true; // false = no COUNT, only hasNext
+
+    /**
+     * Normalized key of the filters alone (sorted, de-duplicated values, trimmed lowercase search).
+     * Paging and sort parameters are left out: they do not change counts.
+     */
+    public String filterKey() {
+        String normalizedSearch = search != null ? search.trim().toLowerCase() : "";
+        return "s=" + normalizedSearch +
+                "|f=" + Boolean.TRUE.equals(fuzzy) +
+                "|o=" + normalize(origin) +
+                "|r=" + normalize(roasterId) +
+                "|n=" + normalize(noteIds) +
+                "|p=" + normalize(priceRange) +
+                "|m=" + (minRating != null ? minRating : "");
+    }
+
+    /**
+     * Normalized key of the whole listing request: filters, sort, paging mode and cursor
+     */
+    public String requestKey() {
+        return filterKey() +
+                "|sb=" + sortBy +
+                "|so=" + sortOrder +
+                "|c=" + (cursor != null ? cursor : "-") +
+                "|t=" + !Boolean.FALSE.equals(withTotal);
+    }
+
+    private static String normalize(List<?> values) {
+        if (values == null) {
+            return "";
+        }
+        return values.stream()
+                .map(String::valueOf)
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
 }
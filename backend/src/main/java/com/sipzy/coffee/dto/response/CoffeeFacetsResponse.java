@@ -0,0 +1,22 @@
+package com.sipzy.coffee.dto.response;
+
+import java.util.List;
+
+/**
+ * Facet counts for the coffee browser sidebar.
+ * Each facet is counted against every active filter except its own.
+ */
+public record CoffeeFacetsResponse(
+        long total,
+        List<FacetCount<String>> origins,
+        List<FacetCount<Long>> roasters,
+        List<FacetCount<Long>> notes,
+        List<FacetCount<String>> priceRanges
+) {
+
+    public record FacetCount<T>(
+            T value,
+            long count
+    ) {
+    }
+}
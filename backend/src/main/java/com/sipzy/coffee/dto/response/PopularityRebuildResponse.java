@@ -0,0 +1,13 @@
+package com.sipzy.coffee.dto.response;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of an admin popularity rebuild
+ */
+public record PopularityRebuildResponse(
+    BigDecimal priorMean,
+    Integer priorWeight,
+    Integer rescoredCoffees,
+    Long durationMs
+) {}
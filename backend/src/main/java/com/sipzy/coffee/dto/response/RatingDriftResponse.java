@@ -0,0 +1,13 @@
+package com.sipzy.coffee.dto.response;
+
+import java.util.List;
+
+/**
+ * Outcome of a rating aggregates verification
+ */
+public record RatingDriftResponse(
+    Integer driftedCoffees,
+    List<Long> coffeeIds,
+    Boolean repaired,
+    Long durationMs
+) {}
@@ -0,0 +1,29 @@
+package com.sipzy.coffee.event;
+
+/**
+ * Domain event published when users engage with a coffee: a new review, a new favorite,
+ * or a "helpful" vote on one of its reviews. Feeds the trending scores after commit.
+ */
+public record CoffeeActivityEvent(
+        Long coffeeId,
+        Kind kind
+) {
+
+    public enum Kind {
+        REVIEW,
+        FAVORITE,
+        HELPFUL_VOTE
+    }
+
+    public static CoffeeActivityEvent review(Long coffeeId) {
+        return new CoffeeActivityEvent(coffeeId, Kind.REVIEW);
+    }
+
+    public static CoffeeActivityEvent favorite(Long coffeeId) {
+        return new CoffeeActivityEvent(coffeeId, Kind.FAVORITE);
+    }
+
+    public static CoffeeActivityEvent helpfulVote(Long coffeeId) {
+        return new CoffeeActivityEvent(coffeeId, Kind.HELPFUL_VOTE);
+    }
+}
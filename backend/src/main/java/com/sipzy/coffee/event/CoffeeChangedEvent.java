@@ -0,0 +1,40 @@
+package com.sipzy.coffee.event;
+
+/**
+ * Domain event published whenever a coffee is created, edited, moderated, re-rated or deleted.
+ * Read-side structures (catalog index, caches) listen to it after the transaction commits;
+ * the coffee_cards projection is rewritten before, inside the publishing transaction.
+ */
+public record CoffeeChangedEvent(
+        Long coffeeId,
+        Change change
+) {
+
+    public enum Change {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        RATING_CHANGED,
+        DELETED
+    }
+
+    public static CoffeeChangedEvent created(Long coffeeId) {
+        return new CoffeeChangedEvent(coffeeId, Change.CREATED);
+    }
+
+    public static CoffeeChangedEvent updated(Long coffeeId) {
+        return new CoffeeChangedEvent(coffeeId, Change.UPDATED);
+    }
+
+    public static CoffeeChangedEvent statusChanged(Long coffeeId) {
+        return new CoffeeChangedEvent(coffeeId, Change.STATUS_CHANGED);
+    }
+
+    public static CoffeeChangedEvent ratingChanged(Long coffeeId) {
+        return new CoffeeChangedEvent(coffeeId, Change.RATING_CHANGED);
+    }
+
+    public static CoffeeChangedEvent deleted(Long coffeeId) {
+        return new CoffeeChangedEvent(coffeeId, Change.DELETED);
+    }
+}
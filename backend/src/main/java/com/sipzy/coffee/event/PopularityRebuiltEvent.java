@@ -0,0 +1,8 @@
+package com.sipzy.coffee.event;
+
+/**
+ * Published after an admin popularity rebuild replaced the prior and re-scored the coffee cards:
+ * every cached popular list may be out of order. Replayed on the other nodes by the invalidation bus.
+ */
+public record PopularityRebuiltEvent() {
+}
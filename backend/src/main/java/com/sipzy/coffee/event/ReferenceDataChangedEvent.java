@@ -0,0 +1,25 @@
+package com.sipzy.coffee.event;
+
+/**
+ * Domain event published whenever a roaster or a note is created, edited or deleted.
+ * Read-side structures built from their names listen to it after the transaction commits;
+ * the coffee cards that inline them are re-projected inside the publishing transaction.
+ */
+public record ReferenceDataChangedEvent(
+        Kind kind,
+        Long id
+) {
+
+    public enum Kind {
+        ROASTER,
+        NOTE
+    }
+
+    public static ReferenceDataChangedEvent roaster(Long roasterId) {
+        return new ReferenceDataChangedEvent(Kind.ROASTER, roasterId);
+    }
+
+    public static ReferenceDataChangedEvent note(Long noteId) {
+        return new ReferenceDataChangedEvent(Kind.NOTE, noteId);
+    }
+}
@@ -0,0 +1,293 @@
+package com.sipzy.coffee.index;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Bitmap storage behind {@link CoffeeCatalogIndex}.
+ *
+ * One bitmap per origin, roaster, note, process and price range, where bit n is set
+ * when coffee id n carries that value. Coffee ids are dense BIGSERIAL values, so plain
+ * {@link BitSet}s stay small (100k coffees = 12.5 KB per bitmap).
+ * Sorted id arrays are built lazily per {@link CatalogSort} and dropped on every write.
+ *
+ * Writes are not thread-safe: the owning index guards them with a read/write lock.
+ * Concurrent readers may build the same sorted array at once, which is harmless.
+ */
+class CatalogBitmaps {
+
+    private final Map<Long, CatalogEntry> entries = new HashMap<>();
+    private final BitSet all = new BitSet();
+    private final Map<String, BitSet> byOrigin = new HashMap<>();
+    private final Map<Long, BitSet> byRoaster = new HashMap<>();
+    private final Map<Long, BitSet> byNote = new HashMap<>();
+    private final Map<String, BitSet> byProcess = new HashMap<>();
+    private final Map<String, BitSet> byPriceRange = new HashMap<>();
+    private final Map<CatalogSort, long[]> sorted = new ConcurrentHashMap<>();
+
+    void put(CatalogEntry entry) {
+        remove(entry.id());
+
+        int bit = bit(entry.id());
+        entries.put(entry.id(), entry);
+        all.set(bit);
+        set(byOrigin, entry.origin(), bit);
+        set(byRoaster, entry.roasterId(), bit);
+        set(byProcess, entry.process(), bit);
+        set(byPriceRange, entry.priceRange(), bit);
+        for (long noteId : entry.noteIds()) {
+            set(byNote, noteId, bit);
+        }
+        touch();
+    }
+
+    void remove(long id) {
+        CatalogEntry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+
+        int bit = bit(id);
+        all.clear(bit);
+        clear(byOrigin, entry.origin(), bit);
+        clear(byRoaster, entry.roasterId(), bit);
+        clear(byProcess, entry.process(), bit);
+        clear(byPriceRange, entry.priceRange(), bit);
+        for (long noteId : entry.noteIds()) {
+            clear(byNote, noteId, bit);
+        }
+        touch();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    CatalogEntry get(long id) {
+        return entries.get(id);
+    }
+
+    /**
+     * Evaluate the filters of a query: OR inside a facet, AND across facets
+     */
+    BitSet match(CatalogQuery query) {
+        BitSet matches = (BitSet) all.clone();
+        andAnyOf(matches, byOrigin, query.origins());
+        andAnyOf(matches, byRoaster, query.roasterIds());
+        andAnyOf(matches, byNote, query.noteIds());
+        andAnyOf(matches, byPriceRange, query.priceRanges());
+        andAnyOf(matches, byProcess, query.processes());
+        applyMinRating(matches, query.minRating());
+        return matches;
+    }
+
+    /**
+     * Count matches per origin, roaster, note and price range in one pass.
+     *
+     * Counts are disjunctive: a facet is counted against every filter except its own,
+     * so selecting one origin still shows how many coffees the other origins would add.
+     * {@code restrictTo} optionally narrows the base set (e.g. full-text search hits).
+     */
+    CatalogFacets facets(CatalogQuery query, BitSet restrictTo) {
+        BitSet base = (BitSet) all.clone();
+        if (restrictTo != null) {
+            base.and(restrictTo);
+        }
+        applyMinRating(base, query.minRating());
+        andAnyOf(base, byProcess, query.processes());
+
+        BitSet origins = unionOf(byOrigin, query.origins());
+        BitSet roasters = unionOf(byRoaster, query.roasterIds());
+        BitSet notes = unionOf(byNote, query.noteIds());
+        BitSet priceRanges = unionOf(byPriceRange, query.priceRanges());
+
+        BitSet matches = intersect(base, origins, roasters, notes, priceRanges);
+        BitSet scratch = new BitSet();
+
+        return new CatalogFacets(
+                matches.cardinality(),
+                count(byOrigin, intersect(base, roasters, notes, priceRanges), scratch),
+                count(byRoaster, intersect(base, origins, notes, priceRanges), scratch),
+                count(byNote, intersect(base, origins, roasters, priceRanges), scratch),
+                count(byPriceRange, intersect(base, origins, roasters, notes), scratch)
+        );
+    }
+
+    /**
+     * Walk the sorted id array and collect one page of matching ids
+     */
+    List<Long> page(BitSet matches, CatalogSort sort, boolean ascending, int offset, int limit) {
+        long[] ids = sortedIds(sort);
+        int from = ascending ? 0 : ids.length - 1;
+        return collect(ids, matches, from, ascending, offset, limit);
+    }
+
+    /**
+     * Keyset variant of {@link #page}: collect matching ids strictly after {@code after}
+     * in walk order. {@code after} only needs the sort fields, so the seek still works
+     * when that coffee has since left the index.
+     */
+    List<Long> pageAfter(BitSet matches, CatalogSort sort, boolean ascending, CatalogEntry after, int limit) {
+        long[] ids = sortedIds(sort);
+        Comparator<CatalogEntry> comparator = sort.comparator();
+        int from = ascending
+                ? firstIndex(ids, entry -> comparator.compare(entry, after) > 0)
+                : firstIndex(ids, entry -> comparator.compare(entry, after) >= 0) - 1;
+        return collect(ids, matches, from, ascending, 0, limit);
+    }
+
+    private List<Long> collect(long[] ids, BitSet matches, int from, boolean ascending, int offset, int limit) {
+        List<Long> page = new ArrayList<>(Math.min(limit, matches.cardinality()));
+        int step = ascending ? 1 : -1;
+        int skipped = 0;
+
+        for (int i = from; i >= 0 && i < ids.length && page.size() < limit; i += step) {
+            long id = ids[i];
+            if (!matches.get(bit(id))) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            page.add(id);
+        }
+        return page;
+    }
+
+    /**
+     * Binary search: first position whose entry satisfies a predicate that is monotonic over the sorted array
+     */
+    private int firstIndex(long[] ids, Predicate<CatalogEntry> predicate) {
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (predicate.test(entries.get(ids[mid]))) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    Map<String, BitSet> originBitmaps() {
+        return byOrigin;
+    }
+
+    Map<Long, BitSet> roasterBitmaps() {
+        return byRoaster;
+    }
+
+    Map<Long, BitSet> noteBitmaps() {
+        return byNote;
+    }
+
+    Map<String, BitSet> processBitmaps() {
+        return byProcess;
+    }
+
+    Map<String, BitSet> priceRangeBitmaps() {
+        return byPriceRange;
+    }
+
+    long[] sortedIds(CatalogSort sort) {
+        return sorted.computeIfAbsent(sort, key -> entries.values().stream()
+                .sorted(key.comparator())
+                .mapToLong(CatalogEntry::id)
+                .toArray());
+    }
+
+    private void touch() {
+        sorted.clear();
+    }
+
+    private void applyMinRating(BitSet matches, Double minRating) {
+        if (minRating == null) {
+            return;
+        }
+        for (int bit = matches.nextSetBit(0); bit >= 0; bit = matches.nextSetBit(bit + 1)) {
+            // Unrated coffees never pass a rating floor, as in SQL
+            Double rating = entries.get((long) bit).rating();
+            if (rating == null || rating < minRating) {
+                matches.clear(bit);
+            }
+        }
+    }
+
+    private static <K> void andAnyOf(BitSet matches, Map<K, BitSet> bitmaps, Collection<K> values) {
+        BitSet union = unionOf(bitmaps, values);
+        if (union != null) {
+            matches.and(union);
+        }
+    }
+
+    /**
+     * OR of the bitmaps of the selected values, or null when the facet is not filtered
+     */
+    private static <K> BitSet unionOf(Map<K, BitSet> bitmaps, Collection<K> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        BitSet union = new BitSet();
+        for (K value : values) {
+            BitSet bitmap = bitmaps.get(value);
+            if (bitmap != null) {
+                union.or(bitmap);
+            }
+        }
+        return union;
+    }
+
+    private static BitSet intersect(BitSet base, BitSet... filters) {
+        BitSet result = (BitSet) base.clone();
+        for (BitSet filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static <K> Map<K, Long> count(Map<K, BitSet> bitmaps, BitSet base, BitSet scratch) {
+        Map<K, Long> counts = new HashMap<>(bitmaps.size() * 2);
+        for (Map.Entry<K, BitSet> entry : bitmaps.entrySet()) {
+            scratch.clear();
+            scratch.or(base);
+            scratch.and(entry.getValue());
+            counts.put(entry.getKey(), (long) scratch.cardinality());
+        }
+        return counts;
+    }
+
+    private static <K> void set(Map<K, BitSet> bitmaps, K key, int bit) {
+        if (key != null) {
+            bitmaps.computeIfAbsent(key, k -> new BitSet()).set(bit);
+        }
+    }
+
+    private static <K> void clear(Map<K, BitSet> bitmaps, K key, int bit) {
+        if (key == null) {
+            return;
+        }
+        BitSet bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.clear(bit);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private static int bit(long id) {
+        return Math.toIntExact(id);
+    }
+}
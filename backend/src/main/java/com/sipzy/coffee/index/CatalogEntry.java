@@ -0,0 +1,44 @@
+package com.sipzy.coffee.index;
+
+import java.util.Collection;
+
+/**
+ * Immutable view of one coffee inside the catalog index.
+ * The rating is null while the coffee has no review, like avg_rating in the database;
+ * createdAt is in epoch microseconds.
+ */
+record CatalogEntry(
+        long id,
+        String name,
+        String origin,
+        Long roasterId,
+        String process,
+        String priceRange,
+        long[] noteIds,
+        Double rating,
+        int reviewCount,
+        long createdAt
+) {
+
+    static CatalogEntry of(CoffeeIndexRow row, Collection<Long> noteIds) {
+        return new CatalogEntry(
+                row.id(),
+                row.name(),
+                row.origin(),
+                row.roasterId(),
+                row.process(),
+                row.priceRange(),
+                noteIds.stream().mapToLong(Long::longValue).toArray(),
+                row.averageRating() != null ? row.averageRating().doubleValue() : null,
+                row.reviewCount() != null ? row.reviewCount() : 0,
+                CatalogPosition.epochMicros(row.createdAt())
+        );
+    }
+
+    /**
+     * Price level = number of € symbols, 0 when unknown
+     */
+    int priceLevel() {
+        return priceRange != null ? priceRange.length() : 0;
+    }
+}
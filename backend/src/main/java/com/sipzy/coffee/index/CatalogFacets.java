@@ -0,0 +1,16 @@
+package com.sipzy.coffee.index;
+
+import java.util.Map;
+
+/**
+ * Facet counts computed by the catalog index for one filter set.
+ * {@code total} is the number of coffees matching every filter.
+ */
+public record CatalogFacets(
+        long total,
+        Map<String, Long> origins,
+        Map<Long, Long> roasters,
+        Map<Long, Long> notes,
+        Map<String, Long> priceRanges
+) {
+}
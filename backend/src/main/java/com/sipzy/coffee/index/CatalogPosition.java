@@ -0,0 +1,81 @@
+package com.sipzy.coffee.index;
+
+import com.sipzy.common.exception.BadRequestException;
+import com.sipzy.common.util.CursorCodec;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Keyset position in a catalog sort: the sort keys and id of the last coffee of a page.
+ *
+ * The index and its SQL fallback issue and accept the same cursors, so a client keeps paging
+ * when the index becomes ready (or is rebuilt) between two pages. Every sort field is carried
+ * so that one cursor layout serves all sorts; the name goes last as it may contain '|'.
+ * createdAt is in epoch microseconds, the precision of the database timestamps.
+ */
+public record CatalogPosition(
+        long id,
+        Double rating,
+        int reviewCount,
+        long createdAt,
+        String priceRange,
+        String name
+) {
+
+    public static CatalogPosition of(long id, Double rating, int reviewCount, Instant createdAt,
+                                     String priceRange, String name) {
+        return new CatalogPosition(id, rating, reviewCount, epochMicros(createdAt), priceRange, name);
+    }
+
+    static CatalogPosition of(CatalogEntry entry) {
+        return new CatalogPosition(entry.id(), entry.rating(), entry.reviewCount(), entry.createdAt(),
+                entry.priceRange(), entry.name());
+    }
+
+    public static String cursorTag(CatalogSort sort, boolean ascending) {
+        return "catalog-" + sort.name().toLowerCase() + (ascending ? "-asc" : "-desc");
+    }
+
+    public String encode(String sortTag) {
+        return CursorCodec.encode(sortTag, id, rating, reviewCount, createdAt, priceRange, name);
+    }
+
+    public static CatalogPosition decode(String cursor, String sortTag) {
+        String[] parts = CursorCodec.decode(cursor, sortTag, 7);
+        try {
+            return new CatalogPosition(
+                    Long.parseLong(parts[1]),
+                    parts[2].isEmpty() ? null : Double.parseDouble(parts[2]),
+                    Integer.parseInt(parts[3]),
+                    Long.parseLong(parts[4]),
+                    parts[5].isEmpty() ? null : parts[5],
+                    parts[6]
+            );
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+
+    public Instant createdAtInstant() {
+        return Instant.EPOCH.plus(createdAt, ChronoUnit.MICROS);
+    }
+
+    /**
+     * Price level = number of € symbols, 0 when unknown
+     */
+    public int priceLevel() {
+        return priceRange != null ? priceRange.length() : 0;
+    }
+
+    /**
+     * Sort fields only: enough for the index to seek, even when that coffee has left it
+     */
+    CatalogEntry toEntry() {
+        return new CatalogEntry(id, name, null, null, null, priceRange, new long[0], rating, reviewCount, createdAt);
+    }
+
+    static long epochMicros(Instant instant) {
+        return instant != null ? ChronoUnit.MICROS.between(Instant.EPOCH, instant) : 0L;
+    }
+}
@@ -0,0 +1,19 @@
+package com.sipzy.coffee.index;
+
+import java.util.List;
+
+/**
+ * Filter set evaluated against the catalog index.
+ * Values inside one facet are OR-ed, facets are AND-ed together.
+ */
+public record CatalogQuery(
+        List<String> origins,
+        List<Long> roasterIds,
+        List<Long> noteIds,
+        List<String> priceRanges,
+        List<String> processes,
+        Double minRating,
+        CatalogSort sort,
+        boolean ascending
+) {
+}
@@ -0,0 +1,79 @@
+package com.sipzy.coffee.index;
+
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Sort orders supported by the catalog index.
+ * Each comparator is ascending and ends with the id so that the order is total.
+ * Unrated coffees come first, so walked backwards they come last: the NULLS FIRST / NULLS LAST
+ * order of the SQL path. Names compare lower-cased by code point, as
+ * {@code LOWER(name) COLLATE "C"} does in SQL.
+ */
+public enum CatalogSort {
+
+    RATING(Comparator.comparing(CatalogEntry::rating, Comparator.nullsFirst(Comparator.<Double>naturalOrder()))
+            .thenComparingInt(CatalogEntry::reviewCount)
+            .thenComparingLong(CatalogEntry::id)),
+
+    REVIEWS(Comparator.comparingInt(CatalogEntry::reviewCount)
+            .thenComparingLong(CatalogEntry::id)),
+
+    CREATED(Comparator.comparingLong(CatalogEntry::createdAt)
+            .thenComparingLong(CatalogEntry::id)),
+
+    NAME(Comparator.comparing((CatalogEntry e) -> nameKey(e.name()), CatalogSort::compareCodePoints)
+            .thenComparingLong(CatalogEntry::id)),
+
+    PRICE(Comparator.comparingInt(CatalogEntry::priceLevel)
+            .thenComparingLong(CatalogEntry::id));
+
+    private final Comparator<CatalogEntry> comparator;
+
+    CatalogSort(Comparator<CatalogEntry> comparator) {
+        this.comparator = comparator;
+    }
+
+    Comparator<CatalogEntry> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Name as the name sort compares it; the SQL seek binds the same key
+     */
+    public static String nameKey(String name) {
+        return name != null ? name.toLowerCase(Locale.ROOT) : "";
+    }
+
+    // String.compareTo orders UTF-16 units, which puts supplementary characters before U+E000..U+FFFF
+    static int compareCodePoints(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return Integer.compare(ca, cb);
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Boolean.compare(i < a.length(), j < b.length());
+    }
+
+    /**
+     * Map the public sortBy parameter (name, rating, reviews, created, price) to a sort
+     */
+    public static CatalogSort fromParam(String sortBy) {
+        if (sortBy == null) {
+            return RATING;
+        }
+        return switch (sortBy.toLowerCase()) {
+            case "reviews" -> REVIEWS;
+            case "created", "createdat", "recent" -> CREATED;
+            case "name" -> NAME;
+            case "price" -> PRICE;
+            default -> RATING;
+        };
+    }
+}
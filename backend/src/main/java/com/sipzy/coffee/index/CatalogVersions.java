@@ -0,0 +1,36 @@
+package com.sipzy.coffee.index;
+
+import com.sipzy.coffee.dto.response.CoffeeResponse;
+import com.sipzy.common.web.VersionStamp;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * HTTP validators of catalog responses without a single row timestamp behind them.
+ *
+ * Coffee lists and details inline their roaster and notes, so they are tagged by a digest of
+ * the very response served (taken from the cache that serves it): the tag is the same on
+ * every node and across restarts for the same content, and can never name older or newer
+ * content than the bytes it goes with. They carry no Last-Modified, only the ETag.
+ */
+@Component
+public class CatalogVersions {
+
+    /**
+     * Validators of a coffee listing, from the coffees it contains; the key tells the listing
+     * and its parameters apart. No Last-Modified: a coffee leaving the list moves no date.
+     */
+    public VersionStamp coffeeList(List<CoffeeResponse> coffees, Object... key) {
+        return VersionStamp.of(null, "coffees", Arrays.toString(key), coffees);
+    }
+
+    /**
+     * Validators of one coffee, from its response (own fields, roaster and notes). No Last-Modified:
+     * a roaster or note rename changes the response without moving the coffee's updated_at.
+     */
+    public VersionStamp coffee(CoffeeResponse coffee) {
+        return VersionStamp.of(null, "coffee", coffee);
+    }
+}
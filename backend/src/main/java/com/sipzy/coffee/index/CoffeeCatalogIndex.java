@@ -0,0 +1,247 @@
+package com.sipzy.coffee.index;
+
+import com.sipzy.cluster.LocalFlushEvent;
+import com.sipzy.coffee.dto.request.CoffeeFiltersRequest;
+import com.sipzy.coffee.event.CoffeeChangedEvent;
+import com.sipzy.coffee.repository.CoffeeRepository;
+import com.sipzy.common.constants.SortConstants;
+import com.sipzy.common.util.CursorCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory faceted index over APPROVED coffees.
+ *
+ * Built once at startup, then kept current incrementally from {@link CoffeeChangedEvent}s
+ * published by the write side. Answers catalog filter queries with bitmap AND/OR so that
+ * the database only hydrates the ids of the requested page.
+ * Free-text search is not indexed here and stays on the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CoffeeCatalogIndex {
+
+    private final CoffeeRepository coffeeRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<Long> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private final AtomicLong version = new AtomicLong();
+    private CatalogBitmaps bitmaps = new CatalogBitmaps();
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+
+    /**
+     * One page of matching ids in display order, plus the total match count
+     */
+    public record IndexPage(List<Long> ids, long total) {
+    }
+
+    /**
+     * One keyset page of ids in display order, plus the cursor of the next page (null on the last page)
+     */
+    public record IndexCursorPage(List<Long> ids, String nextCursor) {
+    }
+
+    @EventListener({ApplicationReadyEvent.class, LocalFlushEvent.class})
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reload every approved coffee and atomically swap the bitmaps
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        rebuilding = true;
+        touchedDuringRebuild.clear();
+
+        try {
+            Map<Long, List<Long>> notesByCoffee = new HashMap<>();
+            for (Object[] pair : coffeeRepository.findApprovedCoffeeNotePairs()) {
+                notesByCoffee.computeIfAbsent((Long) pair[0], id -> new ArrayList<>()).add((Long) pair[1]);
+            }
+
+            CatalogBitmaps fresh = new CatalogBitmaps();
+            for (CoffeeIndexRow row : coffeeRepository.findApprovedIndexRows()) {
+                fresh.put(CatalogEntry.of(row, notesByCoffee.getOrDefault(row.id(), List.of())));
+            }
+
+            lock.writeLock().lock();
+            try {
+                bitmaps = fresh;
+                ready = true;
+                version.incrementAndGet();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Coffee catalog index built: {} coffees in {} ms", fresh.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Coffee catalog index rebuild failed, catalog queries stay on the database", e);
+        } finally {
+            rebuilding = false;
+        }
+
+        // Writes committed while we were loading may be missing from the fresh bitmaps
+        for (Long coffeeId : Set.copyOf(touchedDuringRebuild)) {
+            refresh(coffeeId);
+        }
+        touchedDuringRebuild.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCoffeeChanged(CoffeeChangedEvent event) {
+        refresh(event.coffeeId());
+    }
+
+    /**
+     * Re-read one coffee and upsert it, or drop it when it is no longer approved
+     */
+    public void refresh(Long coffeeId) {
+        if (coffeeId == null) {
+            return;
+        }
+        if (rebuilding) {
+            touchedDuringRebuild.add(coffeeId);
+        }
+
+        Optional<CatalogEntry> entry = coffeeRepository.findApprovedIndexRowById(coffeeId)
+                .map(row -> CatalogEntry.of(row, coffeeRepository.findNoteIdsByCoffeeId(coffeeId)));
+
+        lock.writeLock().lock();
+        try {
+            if (entry.isPresent()) {
+                bitmaps.put(entry.get());
+            } else {
+                bitmaps.remove(coffeeId);
+            }
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the index can answer these filters (built, and no free-text search)
+     */
+    public boolean supports(CoffeeFiltersRequest filters) {
+        return ready && (filters.getSearch() == null || filters.getSearch().isBlank());
+    }
+
+    public IndexPage query(CoffeeFiltersRequest filters, int offset, int limit) {
+        CatalogQuery query = toQuery(filters);
+
+        lock.readLock().lock();
+        try {
+            BitSet matches = bitmaps.match(query);
+            List<Long> ids = bitmaps.page(matches, query.sort(), query.ascending(), offset, limit);
+            return new IndexPage(ids, matches.cardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keyset variant of {@link #query}: resume after the coffee encoded in the cursor
+     * (empty cursor = first page). Seeks by binary search in the sorted ids, no offset walk.
+     */
+    public IndexCursorPage queryAfter(CoffeeFiltersRequest filters, String cursor, int limit) {
+        CatalogQuery query = toQuery(filters);
+        String sortTag = CatalogPosition.cursorTag(query.sort(), query.ascending());
+        CatalogEntry after = CursorCodec.isFirstPage(cursor) ? null : CatalogPosition.decode(cursor, sortTag).toEntry();
+
+        lock.readLock().lock();
+        try {
+            BitSet matches = bitmaps.match(query);
+            List<Long> ids = after == null
+                    ? bitmaps.page(matches, query.sort(), query.ascending(), 0, limit + 1)
+                    : bitmaps.pageAfter(matches, query.sort(), query.ascending(), after, limit + 1);
+
+            if (ids.size() <= limit) {
+                return new IndexCursorPage(ids, null);
+            }
+            List<Long> page = ids.subList(0, limit);
+            return new IndexCursorPage(List.copyOf(page),
+                    CatalogPosition.of(bitmaps.get(page.get(limit - 1))).encode(sortTag));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts for the filters, optionally restricted to a set of coffee ids
+     * (the full-text search hits computed by the database)
+     */
+    public CatalogFacets facets(CoffeeFiltersRequest filters, Collection<Long> restrictTo) {
+        CatalogQuery query = toQuery(filters);
+        BitSet restriction = null;
+        if (restrictTo != null) {
+            restriction = new BitSet();
+            for (Long id : restrictTo) {
+                restriction.set(Math.toIntExact(id));
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            return bitmaps.facets(query, restriction);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retry a failed build off the request threads; catalog queries stay on the database meanwhile
+     */
+    @Scheduled(fixedDelayString = "${app.search.index-retry-interval:PT1M}",
+            initialDelayString = "${app.search.index-retry-interval:PT1M}")
+    public void retryBuild() {
+        if (!ready) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Monotonic counter bumped on every index write and rebuild
+     */
+    public long version() {
+        return version.get();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    static CatalogQuery toQuery(CoffeeFiltersRequest filters) {
+        return new CatalogQuery(
+                filters.getOrigin(),
+                filters.getRoasterId(),
+                filters.getNoteIds(),
+                filters.getPriceRange(),
+                null,
+                filters.getMinRating(),
+                CatalogSort.fromParam(filters.getSortBy()),
+                SortConstants.SORT_ASC.equalsIgnoreCase(filters.getSortOrder())
+        );
+    }
+}
@@ -0,0 +1,21 @@
+package com.sipzy.coffee.index;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Flat projection of an approved coffee, loaded by JPQL constructor expression
+ * to feed the in-memory catalog index without hydrating entities.
+ */
+public record CoffeeIndexRow(
+        Long id,
+        String name,
+        String origin,
+        Long roasterId,
+        String process,
+        String priceRange,
+        BigDecimal averageRating,
+        Integer reviewCount,
+        Instant createdAt
+) {
+}
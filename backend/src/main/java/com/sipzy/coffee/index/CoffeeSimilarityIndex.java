@@ -0,0 +1,257 @@
+package com.sipzy.coffee.index;
+
+import com.sipzy.cluster.LocalFlushEvent;
+import com.sipzy.coffee.event.CoffeeChangedEvent;
+import com.sipzy.coffee.repository.CoffeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Precomputed "similar coffees" of every APPROVED coffee.
+ *
+ * A full build scores every coffee against the coffees sharing a feature with it
+ * (weighted Jaccard over notes, origin, process and roaster, see {@link SimilarityModel}),
+ * fanned out over a fork/join pool. Afterwards each {@link CoffeeChangedEvent} only re-scores
+ * the changed coffee against the coffees it shares (or shared) a feature with.
+ * Lookups are a single map read.
+ */
+@Slf4j
+@Component
+public class CoffeeSimilarityIndex {
+
+    private final CoffeeRepository coffeeRepository;
+    private final int topK;
+    private final int parallelism;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Set<Long> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private SimilarityModel model = new SimilarityModel();
+    private volatile Map<Long, Neighbours> neighbours = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+
+    private static final int TASK_THRESHOLD = 64;
+
+    public CoffeeSimilarityIndex(
+            CoffeeRepository coffeeRepository,
+            @Value("${app.similarity.top-k:12}") int topK,
+            @Value("${app.similarity.parallelism:0}") int parallelism
+    ) {
+        this.coffeeRepository = coffeeRepository;
+        this.topK = topK;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    @EventListener({ApplicationReadyEvent.class, LocalFlushEvent.class})
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reload every approved coffee, recompute all neighbour lists in parallel and swap them in
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        rebuilding = true;
+        touchedDuringRebuild.clear();
+
+        try {
+            Map<Long, List<Long>> notesByCoffee = new HashMap<>();
+            for (Object[] pair : coffeeRepository.findApprovedCoffeeNotePairs()) {
+                notesByCoffee.computeIfAbsent((Long) pair[0], id -> new ArrayList<>()).add((Long) pair[1]);
+            }
+
+            SimilarityModel fresh = new SimilarityModel();
+            for (CoffeeIndexRow row : coffeeRepository.findApprovedIndexRows()) {
+                fresh.put(CatalogEntry.of(row, notesByCoffee.getOrDefault(row.id(), List.of())));
+            }
+
+            CatalogEntry[] entries = fresh.entries().toArray(new CatalogEntry[0]);
+            Map<Long, Neighbours> computed = new ConcurrentHashMap<>(entries.length * 2);
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new NeighbourTask(fresh, entries, 0, entries.length, topK, computed));
+            } finally {
+                pool.shutdown();
+            }
+
+            writeLock.lock();
+            try {
+                model = fresh;
+                neighbours = computed;
+                ready = true;
+            } finally {
+                writeLock.unlock();
+            }
+            log.info("Coffee similarity index built: {} coffees in {} ms", entries.length,
+                    System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Coffee similarity index rebuild failed, similar coffees stay on the database", e);
+        } finally {
+            rebuilding = false;
+        }
+
+        // Writes committed while we were loading may be missing from the fresh model
+        for (Long coffeeId : Set.copyOf(touchedDuringRebuild)) {
+            refresh(coffeeId);
+        }
+        touchedDuringRebuild.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCoffeeChanged(CoffeeChangedEvent event) {
+        // Ratings are not a similarity feature
+        if (event.change() != CoffeeChangedEvent.Change.RATING_CHANGED) {
+            refresh(event.coffeeId());
+        }
+    }
+
+    /**
+     * Re-read one coffee, then re-score it against every coffee sharing a feature
+     * with its previous or current version
+     */
+    public void refresh(Long coffeeId) {
+        if (coffeeId == null) {
+            return;
+        }
+        if (rebuilding) {
+            touchedDuringRebuild.add(coffeeId);
+        }
+
+        Optional<CatalogEntry> entry = coffeeRepository.findApprovedIndexRowById(coffeeId)
+                .map(row -> CatalogEntry.of(row, coffeeRepository.findNoteIdsByCoffeeId(coffeeId)));
+
+        writeLock.lock();
+        try {
+            BitSet affected = new BitSet();
+            CatalogEntry previous = model.get(coffeeId);
+            if (previous != null) {
+                affected.or(model.candidates(previous));
+            }
+
+            CatalogEntry current = null;
+            if (entry.isPresent()) {
+                model.put(entry.get());
+                current = model.get(coffeeId);
+                affected.or(model.candidates(current));
+                neighbours.put(coffeeId, model.topK(current, topK));
+            } else {
+                model.remove(coffeeId);
+                neighbours.remove(coffeeId);
+            }
+
+            for (int bit = affected.nextSetBit(0); bit >= 0; bit = affected.nextSetBit(bit + 1)) {
+                CatalogEntry other = model.get(bit);
+                if (other != null) {
+                    double score = current != null ? SimilarityModel.similarity(other, current) : 0.0;
+                    neighbours.put(other.id(), rescore(other, coffeeId, score));
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Ids of the most similar approved coffees, best first (at most the configured top-K),
+     * or empty when the coffee is not indexed (not approved, or index not built)
+     */
+    public Optional<List<Long>> similarIds(Long coffeeId, int limit) {
+        if (!ready || coffeeId == null) {
+            return Optional.empty();
+        }
+        Neighbours list = neighbours.get(coffeeId);
+        if (list == null) {
+            return Optional.empty();
+        }
+        List<Long> ids = new ArrayList<>();
+        for (long id : list.firstIds(limit)) {
+            ids.add(id);
+        }
+        return Optional.of(ids);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Update one neighbour list after the score of a single coffee in it changed
+     */
+    private Neighbours rescore(CatalogEntry owner, long changedId, double score) {
+        Neighbours list = neighbours.getOrDefault(owner.id(), Neighbours.EMPTY);
+
+        if (list.contains(changedId)) {
+            // A listed coffee that scores higher, or a list that already held every candidate, stays exact
+            if (score > 0 && score >= list.scoreOf(changedId)) {
+                return list.with(changedId, score, topK);
+            }
+            if (list.size() < topK) {
+                return score > 0 ? list.with(changedId, score, topK) : list.without(changedId);
+            }
+            // It dropped out of a full list: an unlisted coffee may now belong there
+            return model.topK(owner, topK);
+        }
+        if (score > 0 && list.accepts(score, changedId, topK)) {
+            return list.with(changedId, score, topK);
+        }
+        return list;
+    }
+
+    /**
+     * Computes the neighbour lists of a slice of coffees, splitting until the slice is small
+     */
+    private static final class NeighbourTask extends RecursiveAction {
+
+        private final SimilarityModel model;
+        private final CatalogEntry[] entries;
+        private final int from;
+        private final int to;
+        private final int topK;
+        private final Map<Long, Neighbours> result;
+
+        private NeighbourTask(SimilarityModel model, CatalogEntry[] entries, int from, int to, int topK,
+                              Map<Long, Neighbours> result) {
+            this.model = model;
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+            this.topK = topK;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TASK_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    result.put(entries[i].id(), model.topK(entries[i], topK));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new NeighbourTask(model, entries, from, middle, topK, result),
+                    new NeighbourTask(model, entries, middle, to, topK, result)
+            );
+        }
+    }
+}
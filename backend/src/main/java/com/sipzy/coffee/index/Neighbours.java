@@ -0,0 +1,98 @@
+package com.sipzy.coffee.index;
+
+import java.util.Arrays;
+
+/**
+ * Immutable top-K neighbour list of one coffee, best score first (ties broken by lower id)
+ */
+record Neighbours(long[] ids, double[] scores) {
+
+    static final Neighbours EMPTY = new Neighbours(new long[0], new double[0]);
+
+    int size() {
+        return ids.length;
+    }
+
+    boolean contains(long id) {
+        return indexOf(id) >= 0;
+    }
+
+    /**
+     * Listed score of the coffee, 0 when it is not listed
+     */
+    double scoreOf(long id) {
+        int index = indexOf(id);
+        return index >= 0 ? scores[index] : 0.0;
+    }
+
+    /**
+     * Lowest listed score, 0 when the list is empty
+     */
+    double minScore() {
+        return scores.length > 0 ? scores[scores.length - 1] : 0.0;
+    }
+
+    /**
+     * Whether a new coffee with this score would make it into a list capped at k
+     */
+    boolean accepts(double score, long id, int k) {
+        return size() < k || ranksBefore(score, id, scores[size() - 1], ids[size() - 1]);
+    }
+
+    /**
+     * Copy with the coffee inserted (or its score replaced), truncated to k
+     */
+    Neighbours with(long id, double score, int k) {
+        Neighbours base = without(id);
+        int n = base.size();
+        int at = 0;
+        while (at < n && !ranksBefore(score, id, base.scores[at], base.ids[at])) {
+            at++;
+        }
+        if (at >= k) {
+            return base;
+        }
+
+        int size = Math.min(n + 1, k);
+        long[] newIds = new long[size];
+        double[] newScores = new double[size];
+        System.arraycopy(base.ids, 0, newIds, 0, at);
+        System.arraycopy(base.scores, 0, newScores, 0, at);
+        newIds[at] = id;
+        newScores[at] = score;
+        System.arraycopy(base.ids, at, newIds, at + 1, size - at - 1);
+        System.arraycopy(base.scores, at, newScores, at + 1, size - at - 1);
+        return new Neighbours(newIds, newScores);
+    }
+
+    Neighbours without(long id) {
+        int index = indexOf(id);
+        if (index < 0) {
+            return this;
+        }
+        long[] newIds = new long[ids.length - 1];
+        double[] newScores = new double[scores.length - 1];
+        System.arraycopy(ids, 0, newIds, 0, index);
+        System.arraycopy(scores, 0, newScores, 0, index);
+        System.arraycopy(ids, index + 1, newIds, index, ids.length - index - 1);
+        System.arraycopy(scores, index + 1, newScores, index, scores.length - index - 1);
+        return new Neighbours(newIds, newScores);
+    }
+
+    long[] firstIds(int limit) {
+        return Arrays.copyOf(ids, Math.min(limit, ids.length));
+    }
+
+    private int indexOf(long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean ranksBefore(double score, long id, double otherScore, long otherId) {
+        return score > otherScore || (score == otherScore && id < otherId);
+    }
+}
@@ -0,0 +1,88 @@
+package com.sipzy.coffee.index;
+
+import com.sipzy.cluster.LocalFlushEvent;
+import com.sipzy.coffee.event.ReferenceDataChangedEvent;
+import com.sipzy.coffee.service.NoteService;
+import com.sipzy.coffee.service.RoasterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory snapshot of notes and roasters behind GET /api/notes, /api/notes/categories and
+ * /api/roasters: reads never reach the database while the snapshot is current.
+ *
+ * Any write to a note or roaster moves the generation ({@link ReferenceDataListener} on the
+ * entities, {@link ReferenceDataChangedEvent} after commit); the next read rebuilds the
+ * snapshot with NoteService / RoasterService and swaps it in atomically. A write racing a
+ * rebuild leaves the new snapshot one generation behind, so the following read rebuilds again.
+ * The generation is local; the version clients see is the content's (see {@link ReferenceDataSnapshot}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataCache {
+
+    private final NoteService noteService;
+    private final RoasterService roasterService;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<ReferenceDataSnapshot> snapshot = new AtomicReference<>();
+    private final Object rebuildLock = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            current();
+        } catch (RuntimeException e) {
+            log.error("Reference data warm-up failed, first read will retry", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        invalidate();
+    }
+
+    @EventListener
+    public void onLocalFlush(LocalFlushEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Mark the snapshot stale; the next read rebuilds it
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    public ReferenceDataSnapshot current() {
+        ReferenceDataSnapshot current = snapshot.get();
+        if (current != null && current.generation() == generation.get()) {
+            return current;
+        }
+        synchronized (rebuildLock) {
+            current = snapshot.get();
+            long target = generation.get();
+            if (current != null && current.generation() == target) {
+                return current;
+            }
+            // Generation read before loading: a write during the load leaves this snapshot stale
+            ReferenceDataSnapshot rebuilt = ReferenceDataSnapshot.of(
+                    target,
+                    noteService.getAllNotes(),
+                    noteService.getNotesByCategory(),
+                    roasterService.getAllRoasters());
+            snapshot.set(rebuilt);
+            log.debug("Reference data snapshot {} built: {} notes, {} roasters",
+                    rebuilt.version(), rebuilt.notes().size(), rebuilt.roasters().size());
+            return rebuilt;
+        }
+    }
+}
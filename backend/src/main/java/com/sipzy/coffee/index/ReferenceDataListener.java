@@ -0,0 +1,45 @@
+package com.sipzy.coffee.index;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreRemove;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener of Note and Roaster: invalidates the {@link ReferenceDataCache} on every
+ * entity write, including writes that publish no event (imports, repositories used directly).
+ *
+ * The cache is invalidated at once, so reads in the writing transaction see the change, and
+ * again when the transaction completes, dropping any snapshot built from uncommitted or
+ * rolled-back rows meanwhile. The cache is resolved lazily: Hibernate instantiates this
+ * listener while the EntityManagerFactory that the cache's repositories need is being built.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataListener {
+
+    private final ObjectProvider<ReferenceDataCache> cache;
+
+    @PostPersist
+    @PostUpdate
+    @PreRemove
+    public void onWrite(Object entity) {
+        ReferenceDataCache referenceData = cache.getIfAvailable();
+        if (referenceData == null) {
+            return;
+        }
+        referenceData.invalidate();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    referenceData.invalidate();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.sipzy.coffee.index;
+
+import com.sipzy.coffee.dto.response.NoteByCategoryResponse;
+import com.sipzy.coffee.dto.response.NoteResponse;
+import com.sipzy.coffee.dto.response.RoasterResponse;
+import com.sipzy.common.web.VersionStamp;
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable copy of the reference data (notes and roasters) as served to clients.
+ *
+ * {@code version} is a digest of the content itself (lists in id order), so every node and
+ * every restart serving the same notes and roasters advertises the same version, and a
+ * response fetched with {@code ?v=<version>} can be cached for good. No Last-Modified is sent:
+ * a deleted or renamed note moves no timestamp of the content.
+ */
+public record ReferenceDataSnapshot(
+        long generation,
+        String version,
+        List<NoteResponse> notes,
+        List<NoteByCategoryResponse> notesByCategory,
+        List<RoasterResponse> roasters
+) {
+
+    public static final String VERSION_HEADER = "X-Reference-Version";
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    public ReferenceDataSnapshot {
+        notes = List.copyOf(notes);
+        notesByCategory = List.copyOf(notesByCategory);
+        roasters = List.copyOf(roasters);
+    }
+
+    /**
+     * Snapshot of the given generation, ordered by id and versioned by its content
+     */
+    public static ReferenceDataSnapshot of(long generation, List<NoteResponse> notes,
+                                           List<NoteByCategoryResponse> notesByCategory,
+                                           List<RoasterResponse> roasters) {
+        List<NoteResponse> sortedNotes = notes.stream().sorted(Comparator.comparing(NoteResponse::id)).toList();
+        List<NoteByCategoryResponse> sortedCategories = notesByCategory.stream()
+                .map(category -> new NoteByCategoryResponse(category.category(),
+                        category.notes().stream().sorted(Comparator.comparing(NoteResponse::id)).toList()))
+                .toList();
+        List<RoasterResponse> sortedRoasters = roasters.stream().sorted(Comparator.comparing(RoasterResponse::id)).toList();
+
+        String version = VersionStamp.digest(sortedNotes, sortedCategories, sortedRoasters);
+        return new ReferenceDataSnapshot(generation, version, sortedNotes, sortedCategories, sortedRoasters);
+    }
+
+    /**
+     * Validators of one view of the snapshot ("notes", "categories", "roasters")
+     */
+    public VersionStamp stamp(String view) {
+        return VersionStamp.of(null, "reference", version, view);
+    }
+
+    /**
+     * Long-lived caching when the client asked for this very version (?v=), revalidation otherwise
+     */
+    public CacheControl cacheControl(String requestedVersion) {
+        return version.equals(requestedVersion) ? IMMUTABLE : REVALIDATE;
+    }
+}
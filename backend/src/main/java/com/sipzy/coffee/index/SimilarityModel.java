@@ -0,0 +1,192 @@
+package com.sipzy.coffee.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Feature sets of approved coffees for similarity scoring.
+ *
+ * Each coffee is a weighted set of features (its notes, origin, process and roaster).
+ * Similarity is the weighted Jaccard index of two such sets: the weight of the shared
+ * features over the weight of their union. Inverted bitsets per feature value restrict
+ * the scoring of a coffee to the coffees sharing at least one feature with it.
+ *
+ * Not thread-safe: the owner serializes writes and only reads concurrently between them.
+ */
+class SimilarityModel {
+
+    static final double NOTE_WEIGHT = 1.0;
+    static final double ORIGIN_WEIGHT = 2.0;
+    static final double PROCESS_WEIGHT = 1.0;
+    static final double ROASTER_WEIGHT = 1.5;
+
+    private final Map<Long, CatalogEntry> entries = new HashMap<>();
+    private final Map<Long, BitSet> byNote = new HashMap<>();
+    private final Map<String, BitSet> byOrigin = new HashMap<>();
+    private final Map<String, BitSet> byProcess = new HashMap<>();
+    private final Map<Long, BitSet> byRoaster = new HashMap<>();
+
+    /**
+     * Insert or replace a coffee (note ids are stored sorted and distinct)
+     */
+    void put(CatalogEntry entry) {
+        remove(entry.id());
+        long[] notes = Arrays.stream(entry.noteIds()).distinct().sorted().toArray();
+        CatalogEntry normalized = new CatalogEntry(entry.id(), entry.name(), entry.origin(), entry.roasterId(),
+                entry.process(), entry.priceRange(), notes, entry.rating(), entry.reviewCount(), entry.createdAt());
+        int bit = bit(entry.id());
+
+        entries.put(entry.id(), normalized);
+        for (long noteId : notes) {
+            byNote.computeIfAbsent(noteId, k -> new BitSet()).set(bit);
+        }
+        setIfPresent(byOrigin, normalized.origin(), bit);
+        setIfPresent(byProcess, normalized.process(), bit);
+        setIfPresent(byRoaster, normalized.roasterId(), bit);
+    }
+
+    void remove(long id) {
+        CatalogEntry previous = entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        int bit = bit(id);
+        for (long noteId : previous.noteIds()) {
+            clear(byNote, noteId, bit);
+        }
+        clear(byOrigin, previous.origin(), bit);
+        clear(byProcess, previous.process(), bit);
+        clear(byRoaster, previous.roasterId(), bit);
+    }
+
+    CatalogEntry get(long id) {
+        return entries.get(id);
+    }
+
+    Collection<CatalogEntry> entries() {
+        return entries.values();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Ids of the coffees sharing at least one feature with the given one, excluding itself
+     */
+    BitSet candidates(CatalogEntry entry) {
+        BitSet candidates = new BitSet();
+        for (long noteId : entry.noteIds()) {
+            orIfPresent(candidates, byNote, noteId);
+        }
+        orIfPresent(candidates, byOrigin, entry.origin());
+        orIfPresent(candidates, byProcess, entry.process());
+        orIfPresent(candidates, byRoaster, entry.roasterId());
+        candidates.clear(bit(entry.id()));
+        return candidates;
+    }
+
+    /**
+     * The K most similar coffees to the given one, best first; coffees sharing nothing are never listed
+     */
+    Neighbours topK(CatalogEntry entry, int k) {
+        Neighbours neighbours = Neighbours.EMPTY;
+        BitSet candidates = candidates(entry);
+        for (int bit = candidates.nextSetBit(0); bit >= 0; bit = candidates.nextSetBit(bit + 1)) {
+            CatalogEntry other = entries.get((long) bit);
+            double score = similarity(entry, other);
+            if (score > 0 && neighbours.accepts(score, other.id(), k)) {
+                neighbours = neighbours.with(other.id(), score, k);
+            }
+        }
+        return neighbours;
+    }
+
+    /**
+     * Weighted Jaccard similarity of two coffees, in [0, 1]
+     */
+    static double similarity(CatalogEntry a, CatalogEntry b) {
+        double shared = NOTE_WEIGHT * sharedNotes(a.noteIds(), b.noteIds());
+        if (a.origin() != null && a.origin().equals(b.origin())) {
+            shared += ORIGIN_WEIGHT;
+        }
+        if (a.process() != null && a.process().equals(b.process())) {
+            shared += PROCESS_WEIGHT;
+        }
+        if (a.roasterId() != null && a.roasterId().equals(b.roasterId())) {
+            shared += ROASTER_WEIGHT;
+        }
+
+        double union = weight(a) + weight(b) - shared;
+        return union > 0 ? shared / union : 0.0;
+    }
+
+    private static double weight(CatalogEntry entry) {
+        double weight = NOTE_WEIGHT * entry.noteIds().length;
+        if (entry.origin() != null) {
+            weight += ORIGIN_WEIGHT;
+        }
+        if (entry.process() != null) {
+            weight += PROCESS_WEIGHT;
+        }
+        if (entry.roasterId() != null) {
+            weight += ROASTER_WEIGHT;
+        }
+        return weight;
+    }
+
+    // Both arrays are sorted and distinct
+    private static int sharedNotes(long[] a, long[] b) {
+        int shared = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    private static <K> void setIfPresent(Map<K, BitSet> bitmaps, K key, int bit) {
+        if (key != null) {
+            bitmaps.computeIfAbsent(key, k -> new BitSet()).set(bit);
+        }
+    }
+
+    private static <K> void clear(Map<K, BitSet> bitmaps, K key, int bit) {
+        if (key == null) {
+            return;
+        }
+        BitSet bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.clear(bit);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private static <K> void orIfPresent(BitSet target, Map<K, BitSet> bitmaps, K key) {
+        if (key == null) {
+            return;
+        }
+        BitSet bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            target.or(bitmap);
+        }
+    }
+
+    private static int bit(long id) {
+        return Math.toIntExact(id);
+    }
+}
@@ -1,9 +1,11 @@
 package com.sipzy.coffee.mapper;
 
 import com.sipzy.coffee.domain.Coffee;
+import com.sipzy.coffee.domain.CoffeeCard;
 import com.sipzy.coffee.domain.Note;
 import com.sipzy.coffee.dto.response.CoffeeResponse;
 import com.sipzy.coffee.dto.response.NoteSummary;
+import com.sipzy.coffee.dto.response.RoasterSummary;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -31,6 +33,49 @@ public interface CoffeeMapper {
     @Mapping(target = "notes", expression = "java(toNoteSummaries(coffee.getNotes()))")
     CoffeeResponse toCoffeeResponse(Coffee coffee);
 
+    /**
+     * Same response from the flat coffee_cards read model (approved coffees only)
+     */
+    default CoffeeResponse toCoffeeResponse(CoffeeCard card) {
+        if (card == null) {
+            return null;
+        }
+        RoasterSummary roaster = card.getRoasterId() == null ? null : new RoasterSummary(
+            card.getRoasterId(),
+            card.getRoasterName(),
+            card.getRoasterLocation(),
+            card.getRoasterWebsite(),
+            card.getRoasterLogoUrl(),
+            card.getRoasterVerified()
+        );
+        return new CoffeeResponse(
+            card.getCoffeeId(),
+            card.getName(),
+            card.getRoasterId(),
+            roaster,
+            card.getOrigin(),
+            card.getProcess(),
+            card.getVariety(),
+            card.getAltitudeMin(),
+            card.getAltitudeMax(),
+            card.getHarvestYear(),
+            card.getPriceRange(),
+            card.getDescription(),
+            card.getImageUrl(),
+            card.getAverageRating(),
+            card.getReviewCount(),
+            Coffee.CoffeeStatus.APPROVED.name(),
+            card.getSubmittedBy(),
+            null,
+            card.getModeratedBy(),
+            null,
+            card.getModeratedAt(),
+            card.getCreatedAt(),
+            card.getUpdatedAt(),
+            card.getNotes()
+        );
+    }
+
     default NoteSummary toNoteSummary(Note note) {
         if (note == null) {
             return null;
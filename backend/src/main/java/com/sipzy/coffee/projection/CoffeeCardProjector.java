@@ -0,0 +1,114 @@
+package com.sipzy.coffee.projection;
+
+import com.sipzy.cluster.InvalidationBus;
+import com.sipzy.coffee.event.CoffeeChangedEvent;
+import com.sipzy.coffee.event.ReferenceDataChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains the coffee_cards read model (V18).
+ *
+ * Unlike the in-memory indexes, which catch up after commit, the cards are rewritten inside
+ * the transaction that publishes the event: pending entity changes are flushed, then the
+ * affected cards are re-projected from coffees, roasters and notes with one SQL upsert. A
+ * rolled-back write therefore never leaves a card behind, and a committed one is visible
+ * to the listings as soon as it commits. Coffees leaving APPROVED lose their card; deleted
+ * coffees lose it through ON DELETE CASCADE.
+ */
+@Slf4j
+@Component
+public class CoffeeCardProjector {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String UPSERT = """
+            INSERT INTO coffee_cards (coffee_id, name, origin, process, variety, altitude_min, altitude_max,
+                                      harvest_year, price_range, description, image_url, roaster_id, roaster_name,
+                                      roaster_location, roaster_website, roaster_logo_url, roaster_verified, notes,
+                                      avg_rating, review_count, popularity_score, submitted_by, moderated_by,
+                                      moderated_at, created_at, updated_at)
+            SELECT c.id, c.name, c.origin, c.process, c.variety, c.altitude_min, c.altitude_max,
+                   c.harvest_year, c.price_range, c.description, c.image_url, r.id, r.name,
+                   r.location, r.website, r.logo_url, r.is_verified,
+                   COALESCE((SELECT jsonb_agg(jsonb_build_object('id', n.id, 'name', n.name, 'category', n.category)
+                                              ORDER BY n.id)
+                             FROM coffee_notes cn JOIN notes n ON n.id = cn.note_id
+                             WHERE cn.coffee_id = c.id), CAST('[]' AS JSONB)),
+                   c.avg_rating, c.review_count,
+                   coffee_popularity(c.rating_sum, c.rating_count, p.mean, p.weight),
+                   c.submitted_by, c.moderated_by, c.moderated_at, c.created_at, c.updated_at
+            FROM coffees c
+            CROSS JOIN popularity_prior p
+            LEFT JOIN roasters r ON r.id = c.roaster_id
+            WHERE c.status = 'APPROVED' AND %s
+            ON CONFLICT (coffee_id) DO UPDATE SET
+                name = EXCLUDED.name, origin = EXCLUDED.origin, process = EXCLUDED.process,
+                variety = EXCLUDED.variety, altitude_min = EXCLUDED.altitude_min,
+                altitude_max = EXCLUDED.altitude_max, harvest_year = EXCLUDED.harvest_year,
+                price_range = EXCLUDED.price_range, description = EXCLUDED.description,
+                image_url = EXCLUDED.image_url, roaster_id = EXCLUDED.roaster_id,
+                roaster_name = EXCLUDED.roaster_name, roaster_location = EXCLUDED.roaster_location,
+                roaster_website = EXCLUDED.roaster_website, roaster_logo_url = EXCLUDED.roaster_logo_url,
+                roaster_verified = EXCLUDED.roaster_verified, notes = EXCLUDED.notes,
+                avg_rating = EXCLUDED.avg_rating, review_count = EXCLUDED.review_count,
+                popularity_score = EXCLUDED.popularity_score,
+                submitted_by = EXCLUDED.submitted_by, moderated_by = EXCLUDED.moderated_by,
+                moderated_at = EXCLUDED.moderated_at, created_at = EXCLUDED.created_at,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String DELETE_UNAPPROVED = """
+            DELETE FROM coffee_cards
+            WHERE coffee_id IN (SELECT c.id FROM coffees c WHERE c.status <> 'APPROVED' AND %s)
+            """;
+
+    private static final String COFFEE_SCOPE = "c.id = :id";
+    // Current coffees of the roaster, plus the cards still naming it once it is deleted (roaster_id SET NULL)
+    private static final String ROASTER_SCOPE = "(c.roaster_id = :id "
+            + "OR c.id IN (SELECT coffee_id FROM coffee_cards WHERE roaster_id = :id))";
+    // Same for notes: a deleted note has already lost its coffee_notes rows (ON DELETE CASCADE)
+    private static final String NOTE_SCOPE = "(c.id IN (SELECT coffee_id FROM coffee_notes WHERE note_id = :id) "
+            + "OR c.id IN (SELECT coffee_id FROM coffee_cards "
+            + "WHERE notes @> jsonb_build_array(jsonb_build_object('id', :id))))";
+
+    @EventListener
+    @Transactional
+    public void onCoffeeChanged(CoffeeChangedEvent event) {
+        // Replayed changes of another node: its cards are already in the shared table
+        if (event.coffeeId() != null && !InvalidationBus.isReplaying()) {
+            project(COFFEE_SCOPE, event.coffeeId());
+        }
+    }
+
+    @EventListener
+    @Transactional
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        if (event.id() == null || InvalidationBus.isReplaying()) {
+            return;
+        }
+        int cards = project(event.kind() == ReferenceDataChangedEvent.Kind.ROASTER ? ROASTER_SCOPE : NOTE_SCOPE,
+                event.id());
+        log.debug("Re-projected {} coffee cards for {} {}", cards, event.kind(), event.id());
+    }
+
+    /**
+     * Re-project the cards of the coffees in scope; returns the number of cards written
+     */
+    private int project(String scope, Long id) {
+        // Native statements do not see pending entity changes (and the V21 rating trigger runs at flush)
+        entityManager.flush();
+
+        entityManager.createNativeQuery(DELETE_UNAPPROVED.formatted(scope))
+                .setParameter("id", id)
+                .executeUpdate();
+        return entityManager.createNativeQuery(UPSERT.formatted(scope))
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,54 @@
+package com.sipzy.coffee.repository;
+
+import com.sipzy.coffee.domain.CoffeeCard;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * CoffeeCard Repository - read side only, rows are written by CoffeeCardProjector
+ */
+@Repository
+public interface CoffeeCardRepository extends JpaRepository<CoffeeCard, Long> {
+
+    // Popular coffees: Bayesian score, so a single 5-star review does not beat hundreds at 4.8
+    @Query("SELECT cc FROM CoffeeCard cc ORDER BY cc.popularityScore DESC NULLS LAST, cc.coffeeId DESC")
+    List<CoffeeCard> findPopular(Pageable pageable);
+
+    // Recent coffees
+    @Query("SELECT cc FROM CoffeeCard cc ORDER BY cc.createdAt DESC")
+    List<CoffeeCard> findRecent(Pageable pageable);
+
+    // Most reviewed coffees first (cache warm-up)
+    @Query("SELECT cc.coffeeId FROM CoffeeCard cc ORDER BY cc.reviewCount DESC NULLS LAST, cc.coffeeId DESC")
+    List<Long> findMostReviewedIds(Pageable pageable);
+
+    // Which of the given coffees are approved, i.e. listed
+    @Query("SELECT cc.coffeeId FROM CoffeeCard cc WHERE cc.coffeeId IN :coffeeIds")
+    List<Long> findExistingIds(@Param("coffeeIds") Collection<Long> coffeeIds);
+
+    /**
+     * Cards in the order of the given coffee ids; ids without a card (not approved) are skipped
+     */
+    default List<CoffeeCard> findAllInOrder(List<Long> coffeeIds) {
+        if (coffeeIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, CoffeeCard> cardsById = findAllById(coffeeIds).stream()
+                .collect(Collectors.toMap(CoffeeCard::getCoffeeId, Function.identity()));
+
+        return coffeeIds.stream()
+                .map(cardsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -1,18 +1,20 @@
 package com.sipzy.coffee.repository;
 
 import com.sipzy.coffee.domain.Coffee;
+import com.sipzy.coffee.index.CoffeeIndexRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface CoffeeRepository extends JpaRepository<Coffee, Long> {
+public interface CoffeeRepository extends JpaRepository<Coffee, Long>, CoffeeRepositoryCustom {
 
     Page<Coffee> findByStatus(Coffee.CoffeeStatus status, Pageable pageable);
 
@@ -22,40 +24,37 @@ public interface CoffeeRepository extends JpaRepository<Coffee, Long> {
 
     Page<Coffee> findBySubmittedById(Long submittedById, Pageable pageable);
 
-    // Popular coffees (highest rating)
-    @Query("SELECT c FROM Coffee c WHERE c.status = 'APPROVED' ORDER BY c.averageRating DESC, c.reviewCount DESC")
-    List<Coffee> findPopularCoffees(Pageable pageable);
+    // Coffee with its roaster and notes in one query
+    @EntityGraph(attributePaths = {"roaster", "notes"})
+    Optional<Coffee> findWithDetailsById(Long id);
 
-    // Recent coffees
-    @Query("SELECT c FROM Coffee c WHERE c.status = 'APPROVED' ORDER BY c.createdAt DESC")
-    List<Coffee> findRecentCoffees(Pageable pageable);
+    // Flat rows feeding the in-memory catalog index
+    @Query("SELECT new com.sipzy.coffee.index.CoffeeIndexRow(" +
+           "c.id, c.name, c.origin, r.id, c.process, c.priceRange, c.averageRating, c.reviewCount, c.createdAt) " +
+           "FROM Coffee c LEFT JOIN c.roaster r " +
+           "WHERE c.status = 'APPROVED'")
+    List<CoffeeIndexRow> findApprovedIndexRows();
 
-    // Search with filters
-    @Query("SELECT DISTINCT c FROM Coffee c " +
-           "LEFT JOIN c.notes n " +
-           "WHERE c.status = 'APPROVED' " +
-           "AND (:search = '' OR LOWER(c.name) LIKE LOWER(CONCAT('%', :search, '%'))) " +
-           "AND (:origin = '' OR c.origin = :origin) " +
-           "AND (:roasterId IS NULL OR c.roaster.id = :roasterId) " +
-           "AND (:minRating IS NULL OR c.averageRating >= :minRating) " +
-           "AND (:noteIds IS NULL OR n.id IN :noteIds)")
-    Page<Coffee> searchWithFilters(
-        @Param("search") String search,
-        @Param("origin") String origin,
-        @Param("roasterId") Long roasterId,
-        @Param("minRating") BigDecimal minRating,
-        @Param("noteIds") List<Long> noteIds,
-        Pageable pageable
-    );
+    @Query("SELECT new com.sipzy.coffee.index.CoffeeIndexRow(" +
+           "c.id, c.name, c.origin, r.id, c.process, c.priceRange, c.averageRating, c.reviewCount, c.createdAt) " +
+           "FROM Coffee c LEFT JOIN c.roaster r " +
+           "WHERE c.id = :id AND c.status = 'APPROVED'")
+    Optional<CoffeeIndexRow> findApprovedIndexRowById(@Param("id") Long id);
+
+    // (coffeeId, noteId) pairs of every approved coffee
+    @Query("SELECT c.id, n.id FROM Coffee c JOIN c.notes n WHERE c.status = 'APPROVED'")
+    List<Object[]> findApprovedCoffeeNotePairs();
+
+    @Query("SELECT n.id FROM Coffee c JOIN c.notes n WHERE c.id = :coffeeId")
+    List<Long> findNoteIdsByCoffeeId(@Param("coffeeId") Long coffeeId);
 
     // Similar coffees by origin and notes
-    @Query("SELECT DISTINCT c FROM Coffee c " +
-           "LEFT JOIN c.notes n " +
+    @Query("SELECT c.id FROM Coffee c " +
            "WHERE c.status = 'APPROVED' " +
            "AND c.id != :coffeeId " +
-           "AND (c.origin = :origin OR n.id IN :noteIds) " +
-           "ORDER BY c.averageRating DESC")
-    List<Coffee> findSimilarCoffees(
+           "AND (c.origin = :origin OR EXISTS (SELECT 1 FROM c.notes n WHERE n.id IN :noteIds)) " +
+           "ORDER BY c.averageRating DESC, c.id")
+    List<Long> findSimilarCoffeeIds(
         @Param("coffeeId") Long coffeeId,
         @Param("origin") String origin,
         @Param("noteIds") List<Long> noteIds,
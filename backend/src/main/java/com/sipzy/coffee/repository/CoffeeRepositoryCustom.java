@@ -0,0 +1,55 @@
+package com.sipzy.coffee.repository;
+
+import com.sipzy.coffee.domain.Coffee;
+import com.sipzy.coffee.dto.request.CoffeeFiltersRequest;
+import com.sipzy.coffee.index.CatalogFacets;
+import com.sipzy.coffee.index.CatalogPosition;
+
+import java.util.List;
+
+/**
+ * Dynamic coffee search, compiled from the full filter set by {@link CoffeeSearchCompiler}
+ */
+public interface CoffeeRepositoryCustom {
+
+    /**
+     * Coffees with their roaster and notes fetched in one query, in the order of the given ids
+     * (missing ids are skipped). Second phase of the paged listings that need entities (admin,
+     * profiles, favorites): page the ids, then load the page here, so mapping never lazy-loads.
+     */
+    List<Coffee> findWithDetailsInOrder(List<Long> ids);
+
+    /**
+     * Ids of the approved coffees matching the filters, in the requested (whitelisted) order
+     */
+    List<Long> findIdsByFilters(CoffeeFiltersRequest filters, int offset, int limit);
+
+    /**
+     * Keyset variant for searches in relevance order: ids strictly after (afterRank, afterId)
+     */
+    List<Long> findIdsByFiltersAfterRank(CoffeeFiltersRequest filters, float afterRank, long afterId, int limit);
+
+    /**
+     * Keyset variant for filter-only listings in their catalog sort: positions strictly after
+     * {@code after} (null = first page), the fallback of the catalog index cursors
+     */
+    List<CatalogPosition> findPositionsByFiltersAfter(CoffeeFiltersRequest filters, CatalogPosition after, int limit);
+
+    long countByFilters(CoffeeFiltersRequest filters);
+
+    /**
+     * Relevance of one coffee for the search (full-text or fuzzy), to build the next keyset cursor
+     */
+    Float findRank(CoffeeFiltersRequest filters, long coffeeId);
+
+    /**
+     * Ids of every approved coffee matching the search alone, other filters ignored
+     */
+    List<Long> findIdsMatchingSearch(CoffeeFiltersRequest filters);
+
+    /**
+     * Facet counts computed by the database, for when the catalog index is not built
+     * (values with no matching coffee are left out)
+     */
+    CatalogFacets findFacets(CoffeeFiltersRequest filters);
+}
@@ -0,0 +1,164 @@
+package com.sipzy.coffee.repository;
+
+import com.sipzy.coffee.domain.Coffee;
+import com.sipzy.coffee.dto.request.CoffeeFiltersRequest;
+import com.sipzy.coffee.index.CatalogFacets;
+import com.sipzy.coffee.index.CatalogPosition;
+import com.sipzy.coffee.repository.CoffeeSearchCompiler.CompiledQuery;
+import com.sipzy.coffee.repository.CoffeeSearchCompiler.Facet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Spring Data fragment behind {@link CoffeeRepositoryCustom}
+ */
+class CoffeeRepositoryImpl implements CoffeeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.search.fuzzy-threshold:0.3}")
+    private double fuzzyThreshold;
+
+    @Override
+    public List<Coffee> findWithDetailsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Coffee> coffeesById = entityManager.createQuery(
+                        "SELECT DISTINCT c FROM Coffee c LEFT JOIN FETCH c.roaster LEFT JOIN FETCH c.notes "
+                                + "WHERE c.id IN :ids", Coffee.class)
+                .setParameter("ids", ids)
+                .getResultList().stream()
+                .collect(Collectors.toMap(Coffee::getId, Function.identity()));
+
+        return ids.stream()
+                .map(coffeesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public List<Long> findIdsByFilters(CoffeeFiltersRequest filters, int offset, int limit) {
+        return select(filters, CoffeeSearchCompiler.select(filters, null), offset, limit);
+    }
+
+    @Override
+    public List<Long> findIdsByFiltersAfterRank(CoffeeFiltersRequest filters, float afterRank, long afterId, int limit) {
+        CoffeeSearchCompiler.RankSeek after = new CoffeeSearchCompiler.RankSeek(afterRank, afterId);
+        return select(filters, CoffeeSearchCompiler.select(filters, after), 0, limit);
+    }
+
+    @Override
+    public List<CatalogPosition> findPositionsByFiltersAfter(CoffeeFiltersRequest filters, CatalogPosition after, int limit) {
+        List<?> rows = prepare(filters, CoffeeSearchCompiler.seek(filters, after))
+                .setMaxResults(limit)
+                .getResultList();
+        return rows.stream()
+                .map(row -> toPosition((Object[]) row))
+                .toList();
+    }
+
+    @Override
+    public long countByFilters(CoffeeFiltersRequest filters) {
+        return ((Number) prepare(filters, CoffeeSearchCompiler.count(filters)).getSingleResult()).longValue();
+    }
+
+    @Override
+    public Float findRank(CoffeeFiltersRequest filters, long coffeeId) {
+        List<?> rows = prepare(filters, CoffeeSearchCompiler.rank(filters, coffeeId)).getResultList();
+        return rows.isEmpty() || rows.get(0) == null ? 0f : ((Number) rows.get(0)).floatValue();
+    }
+
+    @Override
+    public List<Long> findIdsMatchingSearch(CoffeeFiltersRequest filters) {
+        return toIds(prepare(filters, CoffeeSearchCompiler.searchIds(filters)).getResultList());
+    }
+
+    @Override
+    public CatalogFacets findFacets(CoffeeFiltersRequest filters) {
+        return new CatalogFacets(
+                countByFilters(filters),
+                facetCounts(filters, Facet.ORIGIN, String.class::cast),
+                facetCounts(filters, Facet.ROASTER, value -> ((Number) value).longValue()),
+                facetCounts(filters, Facet.NOTE, value -> ((Number) value).longValue()),
+                facetCounts(filters, Facet.PRICE_RANGE, String.class::cast));
+    }
+
+    private <K> Map<K, Long> facetCounts(CoffeeFiltersRequest filters, Facet facet, Function<Object, K> key) {
+        List<?> rows = prepare(filters, CoffeeSearchCompiler.facet(filters, facet)).getResultList();
+        Map<K, Long> counts = new HashMap<>(rows.size() * 2);
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            counts.put(key.apply(columns[0]), ((Number) columns[1]).longValue());
+        }
+        return counts;
+    }
+
+    private List<Long> select(CoffeeFiltersRequest filters, CompiledQuery compiled, int offset, int limit) {
+        return toIds(prepare(filters, compiled)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    // Native queries return a raw List: read it as List<?> so that no unchecked conversion is needed
+    private static List<Long> toIds(List<?> rows) {
+        return rows.stream()
+                .map(id -> ((Number) id).longValue())
+                .toList();
+    }
+
+    private Query prepare(CoffeeFiltersRequest filters, CompiledQuery compiled) {
+        applyFuzzyThreshold(filters);
+        Query query = entityManager.createNativeQuery(compiled.sql());
+        compiled.params().forEach(query::setParameter);
+        return query;
+    }
+
+    private static CatalogPosition toPosition(Object[] row) {
+        return CatalogPosition.of(
+                ((Number) row[0]).longValue(),
+                row[1] != null ? ((Number) row[1]).doubleValue() : null,
+                row[2] != null ? ((Number) row[2]).intValue() : 0,
+                toInstant(row[3]),
+                (String) row[4],
+                (String) row[5]);
+    }
+
+    // created_at is a TIMESTAMP: read in the JVM zone, like the Instant of the entity mapping
+    private static Instant toInstant(Object value) {
+        return switch (value) {
+            case null -> null;
+            case Timestamp timestamp -> timestamp.toInstant();
+            case LocalDateTime dateTime -> dateTime.atZone(ZoneId.systemDefault()).toInstant();
+            case Instant instant -> instant;
+            default -> throw new IllegalStateException("Unexpected created_at type: " + value.getClass());
+        };
+    }
+
+    // pg_trgm reads its thresholds from the session; is_local = true scopes them to the current transaction
+    private void applyFuzzyThreshold(CoffeeFiltersRequest filters) {
+        if (!CoffeeSearchCompiler.isFuzzy(filters)) {
+            return;
+        }
+        String threshold = String.valueOf(fuzzyThreshold);
+        entityManager.createNativeQuery("SELECT set_config('pg_trgm.similarity_threshold', :threshold, true), "
+                        + "set_config('pg_trgm.word_similarity_threshold', :threshold, true)")
+                .setParameter("threshold", threshold)
+                .getSingleResult();
+    }
+}
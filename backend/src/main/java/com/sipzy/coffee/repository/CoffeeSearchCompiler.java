@@ -0,0 +1,302 @@
+package com.sipzy.coffee.repository;
+
+import com.sipzy.coffee.dto.request.CoffeeFiltersRequest;
+import com.sipzy.coffee.index.CatalogPosition;
+import com.sipzy.coffee.index.CatalogSort;
+import com.sipzy.common.constants.SortConstants;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles a {@link CoffeeFiltersRequest} into one native SQL statement over approved coffees.
+ *
+ * Only the filters that are actually set become predicates, so the planner never sees
+ * catch-all "(:x IS NULL OR ...)" branches: multi-value filters become IN-lists, notes an
+ * EXISTS, the rating floor a plain comparison. Sorts come from a whitelist and each one
+ * matches a partial index from V16 (id is always the last key, NULLS LAST on descending
+ * order so the same index serves both directions). With a search term the default sort is
+ * relevance (ts_rank_cd), which can additionally seek after a (rank, id) keyset position.
+ * Filter-only listings can seek after a {@link CatalogPosition}, the cursor of the catalog index.
+ * Listing statements select ids only; the page itself is read from the coffee_cards read model.
+ *
+ * Fuzzy mode swaps the full-text match for pg_trgm: one UNION branch per trigram index
+ * (coffee name, origin, description words, roaster name) collects the candidate ids, and
+ * relevance becomes the best trigram similarity blended with the rating. The similarity
+ * threshold behind {@code %} / {@code <%} is a session setting applied by the caller.
+ */
+public final class CoffeeSearchCompiler {
+
+    static final String RELEVANCE = "relevance";
+
+    private static final String TS_QUERY = "websearch_to_tsquery('french_unaccent', :search)";
+    private static final String TS_RANK = "ts_rank_cd(c.search_vector, " + TS_QUERY + ")";
+
+    // Each branch is answered by its own GIN trigram index (V7, V17)
+    private static final String FUZZY_MATCH = "c.id IN ("
+            + "SELECT id FROM coffees WHERE name % :search"
+            + " UNION SELECT id FROM coffees WHERE origin % :search"
+            + " UNION SELECT id FROM coffees WHERE :search <% description"
+            + " UNION SELECT co.id FROM coffees co JOIN roasters ro ON ro.id = co.roaster_id WHERE ro.name % :search)";
+    // Description words count half: a long text matches loosely; REAL so that seeks compare exactly
+    private static final String FUZZY_RANK = "CAST(0.8 * GREATEST(similarity(c.name, :search), "
+            + "similarity(c.origin, :search), similarity(r.name, :search), "
+            + "0.5 * word_similarity(:search, c.description)) "
+            + "+ 0.2 * COALESCE(c.avg_rating, 0) / 5 AS REAL)";
+
+    // Code point order, like CatalogSort.NAME: the catalog index and this path share name cursors (V27)
+    private static final String NAME_KEY = "LOWER(c.name) COLLATE \"C\"";
+
+    private CoffeeSearchCompiler() {
+        // Prevent instantiation
+    }
+
+    /**
+     * SQL plus named parameters, ready for a native query
+     */
+    public record CompiledQuery(String sql, Map<String, Object> params) {
+    }
+
+    /**
+     * Keyset position in relevance order: rows strictly after (rank, id)
+     */
+    public record RankSeek(float rank, long id) {
+    }
+
+    /**
+     * Facets of the coffee browser, each counted against every filter but its own
+     */
+    public enum Facet {
+        ORIGIN, ROASTER, NOTE, PRICE_RANGE
+    }
+
+    public static CompiledQuery select(CoffeeFiltersRequest filters, RankSeek after) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT c.id FROM ").append(from(filters)).append(" WHERE ");
+        sql.append(where(filters, params));
+
+        boolean relevance = isRelevance(filters);
+        String rank = rankExpression(filters);
+        if (after != null) {
+            if (!relevance) {
+                throw new IllegalArgumentException("Rank seek requires a search sorted by relevance");
+            }
+            sql.append(" AND (").append(rank).append(" < CAST(:afterRank AS REAL)")
+                    .append(" OR (").append(rank).append(" = CAST(:afterRank AS REAL) AND c.id < :afterId))");
+            params.put("afterRank", after.rank());
+            params.put("afterId", after.id());
+        }
+
+        sql.append(" ORDER BY ").append(relevance ? rank + " DESC, c.id DESC" : orderBy(filters));
+        return new CompiledQuery(sql.toString(), params);
+    }
+
+    /**
+     * Keyset page of a filter-only listing in its catalog sort: the rows strictly after {@code after}
+     * (null = first page), each with its sort keys (id, avg_rating, review_count, created_at,
+     * price_range, name) to build the next cursor. Serves cursors while the catalog index is not built.
+     */
+    public static CompiledQuery seek(CoffeeFiltersRequest filters, CatalogPosition after) {
+        if (hasSearch(filters)) {
+            throw new IllegalArgumentException("Catalog seek does not apply to a search");
+        }
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringBuilder sql = new StringBuilder(
+                "SELECT c.id, c.avg_rating, c.review_count, c.created_at, c.price_range, c.name FROM coffees c WHERE ");
+        sql.append(where(filters, params));
+        if (after != null) {
+            sql.append(" AND ").append(seekPredicate(filters, after, params));
+        }
+        sql.append(" ORDER BY ").append(orderBy(filters));
+        return new CompiledQuery(sql.toString(), params);
+    }
+
+    public static CompiledQuery count(CoffeeFiltersRequest filters) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        String sql = "SELECT COUNT(*) FROM coffees c WHERE " + where(filters, params);
+        return new CompiledQuery(sql, params);
+    }
+
+    /**
+     * (value, count) rows of one facet: OR inside a facet, AND across facets, so the facet's own
+     * filter is left out. Counts the catalog index would report for the same filters, minus the
+     * zero counts; serves facets while the index is not built.
+     */
+    public static CompiledQuery facet(CoffeeFiltersRequest filters, Facet facet) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        String where = where(filters, params, facet);
+        String sql = switch (facet) {
+            case ORIGIN -> "SELECT c.origin, COUNT(*) FROM coffees c WHERE " + where
+                    + " AND c.origin IS NOT NULL GROUP BY c.origin";
+            case ROASTER -> "SELECT c.roaster_id, COUNT(*) FROM coffees c WHERE " + where
+                    + " AND c.roaster_id IS NOT NULL GROUP BY c.roaster_id";
+            case NOTE -> "SELECT cn.note_id, COUNT(*) FROM coffees c JOIN coffee_notes cn ON cn.coffee_id = c.id WHERE "
+                    + where + " GROUP BY cn.note_id";
+            case PRICE_RANGE -> "SELECT c.price_range, COUNT(*) FROM coffees c WHERE " + where
+                    + " AND c.price_range IS NOT NULL GROUP BY c.price_range";
+        };
+        return new CompiledQuery(sql, params);
+    }
+
+    /**
+     * Relevance of one coffee for the search, used to build the next keyset cursor
+     */
+    public static CompiledQuery rank(CoffeeFiltersRequest filters, long coffeeId) {
+        if (!hasSearch(filters)) {
+            throw new IllegalArgumentException("Rank requires a search");
+        }
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("search", filters.getSearch().trim());
+        params.put("id", coffeeId);
+        String sql = "SELECT " + rankExpression(filters) + " FROM " + from(filters) + " WHERE c.id = :id";
+        return new CompiledQuery(sql, params);
+    }
+
+    /**
+     * Ids of every approved coffee matching the search alone (facet counts under search)
+     */
+    public static CompiledQuery searchIds(CoffeeFiltersRequest filters) {
+        if (!hasSearch(filters)) {
+            throw new IllegalArgumentException("Search ids require a search");
+        }
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("search", filters.getSearch().trim());
+        String sql = "SELECT c.id FROM coffees c WHERE c.status = 'APPROVED' AND "
+                + (isFuzzy(filters) ? FUZZY_MATCH : "c.search_vector @@ " + TS_QUERY);
+        return new CompiledQuery(sql, params);
+    }
+
+    /**
+     * Relevance applies to searches, unless another whitelisted sort is asked for explicitly
+     */
+    public static boolean isRelevance(CoffeeFiltersRequest filters) {
+        if (!hasSearch(filters)) {
+            return false;
+        }
+        return filters.getSortBy() == null || filters.getSortBy().isBlank()
+                || RELEVANCE.equalsIgnoreCase(filters.getSortBy());
+    }
+
+    /**
+     * Trigram matching instead of full-text, only meaningful with a search term
+     */
+    public static boolean isFuzzy(CoffeeFiltersRequest filters) {
+        return hasSearch(filters) && Boolean.TRUE.equals(filters.getFuzzy());
+    }
+
+    // The roaster join only feeds the fuzzy rank; filtering never needs it
+    private static String from(CoffeeFiltersRequest filters) {
+        return isFuzzy(filters) ? "coffees c LEFT JOIN roasters r ON r.id = c.roaster_id" : "coffees c";
+    }
+
+    private static String rankExpression(CoffeeFiltersRequest filters) {
+        return isFuzzy(filters) ? FUZZY_RANK : TS_RANK;
+    }
+
+    private static String where(CoffeeFiltersRequest filters, Map<String, Object> params) {
+        return where(filters, params, null);
+    }
+
+    // omit: the facet whose own filter is left out of a facet count (null = every filter)
+    private static String where(CoffeeFiltersRequest filters, Map<String, Object> params, Facet omit) {
+        List<String> predicates = new ArrayList<>();
+        predicates.add("c.status = 'APPROVED'");
+
+        if (hasSearch(filters)) {
+            predicates.add(isFuzzy(filters) ? FUZZY_MATCH : "c.search_vector @@ " + TS_QUERY);
+            params.put("search", filters.getSearch().trim());
+        }
+        if (omit != Facet.ORIGIN && isSet(filters.getOrigin())) {
+            predicates.add("c.origin IN (:origins)");
+            params.put("origins", distinct(filters.getOrigin()));
+        }
+        if (omit != Facet.ROASTER && isSet(filters.getRoasterId())) {
+            predicates.add("c.roaster_id IN (:roasterIds)");
+            params.put("roasterIds", distinct(filters.getRoasterId()));
+        }
+        if (omit != Facet.PRICE_RANGE && isSet(filters.getPriceRange())) {
+            predicates.add("c.price_range IN (:priceRanges)");
+            params.put("priceRanges", distinct(filters.getPriceRange()));
+        }
+        if (filters.getMinRating() != null) {
+            predicates.add("c.avg_rating >= :minRating");
+            params.put("minRating", BigDecimal.valueOf(filters.getMinRating()));
+        }
+        if (omit != Facet.NOTE && isSet(filters.getNoteIds())) {
+            predicates.add("EXISTS (SELECT 1 FROM coffee_notes cn WHERE cn.coffee_id = c.id AND cn.note_id IN (:noteIds))");
+            params.put("noteIds", distinct(filters.getNoteIds()));
+        }
+        return String.join(" AND ", predicates);
+    }
+
+    // Row comparisons follow the sort keys of orderBy; a null rating sorts last descending and first ascending
+    private static String seekPredicate(CoffeeFiltersRequest filters, CatalogPosition after, Map<String, Object> params) {
+        boolean ascending = SortConstants.SORT_ASC.equalsIgnoreCase(filters.getSortOrder());
+        String op = ascending ? " > " : " < ";
+        params.put("afterId", after.id());
+
+        CatalogSort sort = CatalogSort.fromParam(filters.getSortBy());
+        String rest = switch (sort) {
+            case RATING, REVIEWS -> {
+                params.put("afterReviewCount", after.reviewCount());
+                yield "(c.review_count, c.id)" + op + "(:afterReviewCount, :afterId)";
+            }
+            case CREATED -> {
+                params.put("afterCreatedAt", after.createdAtInstant());
+                yield "(c.created_at, c.id)" + op + "(:afterCreatedAt, :afterId)";
+            }
+            case NAME -> {
+                params.put("afterName", CatalogSort.nameKey(after.name()));
+                yield "(" + NAME_KEY + ", c.id)" + op + "(:afterName, :afterId)";
+            }
+            case PRICE -> {
+                params.put("afterPriceLevel", after.priceLevel());
+                yield "(COALESCE(LENGTH(c.price_range), 0), c.id)" + op + "(:afterPriceLevel, :afterId)";
+            }
+        };
+        if (sort != CatalogSort.RATING) {
+            return rest;
+        }
+
+        if (after.rating() == null) {
+            return ascending
+                    ? "(c.avg_rating IS NOT NULL OR (c.avg_rating IS NULL AND " + rest + "))"
+                    : "(c.avg_rating IS NULL AND " + rest + ")";
+        }
+        params.put("afterRating", BigDecimal.valueOf(after.rating()));
+        return "(c.avg_rating" + op + ":afterRating"
+                + (ascending ? "" : " OR c.avg_rating IS NULL")
+                + " OR (c.avg_rating = :afterRating AND " + rest + "))";
+    }
+
+    private static String orderBy(CoffeeFiltersRequest filters) {
+        // Descending = index order, ascending = backward scan of the same index
+        String direction = SortConstants.SORT_ASC.equalsIgnoreCase(filters.getSortOrder())
+                ? " ASC NULLS FIRST"
+                : " DESC NULLS LAST";
+
+        List<String> keys = switch (CatalogSort.fromParam(filters.getSortBy())) {
+            case RATING -> List.of("c.avg_rating", "c.review_count", "c.id");
+            case REVIEWS -> List.of("c.review_count", "c.id");
+            case CREATED -> List.of("c.created_at", "c.id");
+            case NAME -> List.of(NAME_KEY, "c.id");
+            case PRICE -> List.of("COALESCE(LENGTH(c.price_range), 0)", "c.id");
+        };
+        return String.join(direction + ", ", keys) + direction;
+    }
+
+    private static boolean hasSearch(CoffeeFiltersRequest filters) {
+        return filters.getSearch() != null && !filters.getSearch().isBlank();
+    }
+
+    private static boolean isSet(List<?> values) {
+        return values != null && !values.isEmpty();
+    }
+
+    private static <T> List<T> distinct(List<T> values) {
+        return values.stream().distinct().toList();
+    }
+}
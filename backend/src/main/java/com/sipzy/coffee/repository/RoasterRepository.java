@@ -2,8 +2,11 @@ package com.sipzy.coffee.repository;
 
 import com.sipzy.coffee.domain.Roaster;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +15,7 @@ public interface RoasterRepository extends JpaRepository<Roaster, Long> {
     Optional<Roaster> findByName(String name);
 
     boolean existsByName(String name);
+
+    @Query("SELECT r.updatedAt FROM Roaster r WHERE r.id = :id")
+    Optional<Instant> findUpdatedAtById(@Param("id") Long id);
 }
@@ -0,0 +1,238 @@
+package com.sipzy.coffee.service;
+
+import com.sipzy.cluster.LocalFlushEvent;
+import com.sipzy.coffee.dto.response.CoffeeResponse;
+import com.sipzy.coffee.event.CoffeeChangedEvent;
+import com.sipzy.coffee.event.PopularityRebuiltEvent;
+import com.sipzy.coffee.event.ReferenceDataChangedEvent;
+import com.sipzy.coffee.repository.CoffeeCardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Targeted invalidation of the coffees, popularCoffees and recentCoffees caches.
+ *
+ * Changes are collected from {@link CoffeeChangedEvent}s and {@link ReferenceDataChangedEvent}s
+ * for the whole transaction, deduplicated, and applied once after commit (a batch import of
+ * 500 coffees evicts once); rolled-back changes evict nothing. Then:
+ * - coffees: the changed ids, plus the cached coffees inlining a changed roaster or note
+ * - popular/recent lists: the cached lists containing a changed coffee, and every list of a
+ *   kind whose membership can move: a coffee entering the catalog (created or moderated into
+ *   APPROVED) for both, a rating change for popular
+ * A popularity rebuild re-orders every popular list: they are all dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CoffeeCacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final CoffeeCardRepository coffeeCardRepository;
+
+    static final String COFFEES = "coffees";
+    static final String POPULAR = "popularCoffees";
+    static final String RECENT = "recentCoffees";
+
+    /**
+     * Changes of one transaction, keyed by coffee id (or roaster/note id)
+     */
+    static final class PendingEvictions {
+        final Map<Long, Set<CoffeeChangedEvent.Change>> coffees = new HashMap<>();
+        final Set<Long> roasters = new HashSet<>();
+        final Set<Long> notes = new HashSet<>();
+        // Changed coffees that are now listed, resolved before commit
+        Set<Long> entering;
+    }
+
+    @EventListener
+    public void onCoffeeChanged(CoffeeChangedEvent event) {
+        if (event.coffeeId() == null) {
+            return;
+        }
+        PendingEvictions pending = pending();
+        pending.coffees.computeIfAbsent(event.coffeeId(), id -> EnumSet.noneOf(CoffeeChangedEvent.Change.class))
+                .add(event.change());
+        applyUnlessTransactional(pending);
+    }
+
+    @EventListener
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        if (event.id() == null) {
+            return;
+        }
+        PendingEvictions pending = pending();
+        (event.kind() == ReferenceDataChangedEvent.Kind.ROASTER ? pending.roasters : pending.notes).add(event.id());
+        applyUnlessTransactional(pending);
+    }
+
+    /**
+     * Published once the rebuild has committed, and replayed on the other nodes
+     */
+    @EventListener
+    public void onPopularityRebuilt(PopularityRebuiltEvent event) {
+        clear(POPULAR);
+    }
+
+    /**
+     * Changes this node may have missed: nothing cached can be trusted
+     */
+    @EventListener
+    public void onLocalFlush(LocalFlushEvent event) {
+        cacheManager.getCacheNames().forEach(this::clear);
+    }
+
+    /**
+     * Evictions of the current transaction, applied after it commits (a new set outside one)
+     */
+    private PendingEvictions pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new PendingEvictions();
+        }
+        PendingEvictions pending = (PendingEvictions) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            PendingEvictions created = new PendingEvictions();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Cards are projected inside the transaction, so they already tell which coffees are listed
+                    created.entering = entering(created.coffees);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CoffeeCacheInvalidator.this);
+                    if (status == STATUS_COMMITTED) {
+                        apply(created);
+                    }
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private void applyUnlessTransactional(PendingEvictions pending) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(pending);
+        }
+    }
+
+    void apply(PendingEvictions pending) {
+        try {
+            Set<Long> changed = new HashSet<>(pending.coffees.keySet());
+            Predicate<CoffeeResponse> dependsOnChange = coffee -> changed.contains(coffee.id())
+                    || pending.roasters.contains(coffee.roasterId())
+                    || (coffee.notes() != null && coffee.notes().stream().anyMatch(note -> pending.notes.contains(note.id())));
+
+            int coffees = evictCoffees(changed, dependsOnChange);
+
+            Set<Long> entering = pending.entering != null ? pending.entering : entering(pending.coffees);
+            boolean ratingChanged = pending.coffees.values().stream()
+                    .anyMatch(changes -> changes.contains(CoffeeChangedEvent.Change.RATING_CHANGED));
+            int popular = evictLists(POPULAR, !entering.isEmpty() || ratingChanged, dependsOnChange);
+            int recent = evictLists(RECENT, !entering.isEmpty(), dependsOnChange);
+
+            log.debug("Cache evictions: {} coffees, {} popular lists, {} recent lists ({} changed coffees)",
+                    coffees, popular, recent, changed.size());
+        } catch (RuntimeException e) {
+            // Never leave stale entries behind a failed lookup
+            log.error("Targeted cache eviction failed, clearing coffee caches", e);
+            clear(COFFEES);
+            clear(POPULAR);
+            clear(RECENT);
+        }
+    }
+
+    /**
+     * Coffees created or moderated in this transaction that are now listed (approved)
+     */
+    private Set<Long> entering(Map<Long, Set<CoffeeChangedEvent.Change>> changes) {
+        List<Long> candidates = changes.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(CoffeeChangedEvent.Change.CREATED)
+                        || entry.getValue().contains(CoffeeChangedEvent.Change.STATUS_CHANGED))
+                .map(Map.Entry::getKey)
+                .toList();
+        return candidates.isEmpty() ? Set.of() : new HashSet<>(coffeeCardRepository.findExistingIds(candidates));
+    }
+
+    private int evictCoffees(Set<Long> changed, Predicate<CoffeeResponse> dependsOnChange) {
+        Cache cache = cacheManager.getCache(COFFEES);
+        if (cache == null) {
+            return 0;
+        }
+        Set<Object> keys = new HashSet<>(changed);
+        Map<Object, Object> entries = entries(cache);
+        if (entries == null) {
+            cache.clear();
+            return 0;
+        }
+        entries.forEach((key, value) -> {
+            if (value instanceof CoffeeResponse coffee && dependsOnChange.test(coffee)) {
+                keys.add(key);
+            }
+        });
+        keys.forEach(cache::evict);
+        return keys.size();
+    }
+
+    private int evictLists(String name, boolean membershipChanged, Predicate<CoffeeResponse> dependsOnChange) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            return 0;
+        }
+        Map<Object, Object> entries = entries(cache);
+        if (membershipChanged || entries == null) {
+            int cleared = entries != null ? entries.size() : 0;
+            cache.clear();
+            return cleared;
+        }
+        List<Object> keys = new ArrayList<>();
+        entries.forEach((key, value) -> {
+            if (value instanceof Collection<?> list
+                    && list.stream().anyMatch(item -> item instanceof CoffeeResponse coffee && dependsOnChange.test(coffee))) {
+                keys.add(key);
+            }
+        });
+        keys.forEach(cache::evict);
+        return keys.size();
+    }
+
+    private void clear(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Live view of a cache's entries, or null when the cache implementation does not expose one
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Object> entries(Cache cache) {
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            return (Map<Object, Object>) caffeine.asMap();
+        }
+        if (nativeCache instanceof Map<?, ?> map) {
+            return (Map<Object, Object>) map;
+        }
+        return null;
+    }
+}
@@ -5,6 +5,7 @@ import com.sipzy.coffee.domain.Note;
 import com.sipzy.coffee.domain.Roaster;
 import com.sipzy.coffee.dto.request.CreateCoffeeRequest;
 import com.sipzy.coffee.dto.response.CoffeeResponse;
+import com.sipzy.coffee.event.CoffeeChangedEvent;
 import com.sipzy.coffee.mapper.CoffeeMapper;
 import com.sipzy.coffee.repository.CoffeeRepository;
 import com.sipzy.coffee.repository.NoteRepository;
@@ -16,7 +17,7 @@ import com.sipzy.user.domain.User;
 import com.sipzy.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -37,8 +38,8 @@ public class CoffeeCommandService {
     private final UserRepository userRepository;
     private final CoffeeMapper coffeeMapper;
     private final UploadService uploadService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @CacheEvict(value = {"popularCoffees", "recentCoffees"}, allEntries = true)
     public CoffeeResponse createCoffee(CreateCoffeeRequest request, Long userId) {
         log.info("Creating coffee: {} by user: {}", request.getName(), userId);
 
@@ -72,11 +73,11 @@ public class CoffeeCommandService {
 
         coffee = coffeeRepository.save(coffee);
         log.info("Coffee created with id: {} and status: {}", coffee.getId(), coffee.getStatus());
+        eventPublisher.publishEvent(CoffeeChangedEvent.created(coffee.getId()));
 
         return coffeeMapper.toCoffeeResponse(coffee);
     }
 
-    @CacheEvict(value = {"coffees", "popularCoffees", "recentCoffees"}, allEntries = true)
     public CoffeeResponse updateCoffee(Long coffeeId, CreateCoffeeRequest request, Long userId) {
         log.info("Updating coffee: {} by user: {}", coffeeId, userId);
 
@@ -122,11 +123,11 @@ public class CoffeeCommandService {
 
         coffee = coffeeRepository.save(coffee);
         log.info("Coffee updated: {}", coffee.getId());
+        eventPublisher.publishEvent(CoffeeChangedEvent.updated(coffee.getId()));
 
         return coffeeMapper.toCoffeeResponse(coffee);
     }
 
-    @CacheEvict(value = {"coffees", "popularCoffees", "recentCoffees"}, allEntries = true)
     public void deleteCoffee(Long coffeeId, Long userId) {
         log.info("Deleting coffee: {} by user: {}", coffeeId, userId);
 
@@ -147,9 +148,9 @@ public class CoffeeCommandService {
 
         coffeeRepository.delete(coffee);
         log.info("Coffee deleted: {}", coffeeId);
+        eventPublisher.publishEvent(CoffeeChangedEvent.deleted(coffeeId));
     }
 
-    @CacheEvict(value = {"coffees", "popularCoffees", "recentCoffees"}, allEntries = true)
     public CoffeeResponse approveCoffee(Long coffeeId, Long moderatorId) {
         log.info("Approving coffee: {} by moderator: {}", coffeeId, moderatorId);
 
@@ -166,11 +167,11 @@ public class CoffeeCommandService {
         coffee.approve(moderator);
         coffee = coffeeRepository.save(coffee);
         log.info("Coffee approved: {}", coffeeId);
+        eventPublisher.publishEvent(CoffeeChangedEvent.statusChanged(coffeeId));
 
         return coffeeMapper.toCoffeeResponse(coffee);
     }
 
-    @CacheEvict(value = {"coffees", "popularCoffees", "recentCoffees"}, allEntries = true)
     public CoffeeResponse rejectCoffee(Long coffeeId, Long moderatorId, String reason) {
         log.info("Rejecting coffee: {} by moderator: {}", coffeeId, moderatorId);
 
@@ -187,6 +188,7 @@ public class CoffeeCommandService {
         coffee.reject(moderator, reason);
         coffee = coffeeRepository.save(coffee);
         log.info("Coffee rejected: {}", coffeeId);
+        eventPublisher.publishEvent(CoffeeChangedEvent.statusChanged(coffeeId));
 
         return coffeeMapper.toCoffeeResponse(coffee);
     }
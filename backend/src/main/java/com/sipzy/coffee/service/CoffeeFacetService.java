@@ -0,0 +1,85 @@
+package com.sipzy.coffee.service;
+
+import com.sipzy.coffee.dto.request.CoffeeFiltersRequest;
+import com.sipzy.coffee.dto.response.CoffeeFacetsResponse;
+import com.sipzy.coffee.dto.response.CoffeeFacetsResponse.FacetCount;
+import com.sipzy.coffee.event.CoffeeChangedEvent;
+import com.sipzy.coffee.index.CatalogFacets;
+import com.sipzy.coffee.index.CoffeeCatalogIndex;
+import com.sipzy.coffee.repository.CoffeeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Facet counts for the coffee browser (CQRS Read Side)
+ *
+ * Counts come from the in-memory catalog index in a single pass over the facet bitmaps.
+ * Results are cached per normalized filter set and catalog index version. Until the index is
+ * built, the database computes the counts; those results are not cached, so the first request
+ * after the build sees the index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class CoffeeFacetService {
+
+    private final CoffeeCatalogIndex catalogIndex;
+    private final CoffeeRepository coffeeRepository;
+
+    @Cacheable(value = "coffeeFacets",
+            key = "@coffeeCatalogIndex.version() + ':' + #filters.filterKey()",
+            condition = "@coffeeCatalogIndex.isReady()")
+    public CoffeeFacetsResponse getFacets(CoffeeFiltersRequest filters) {
+        if (!catalogIndex.isReady()) {
+            return toResponse(coffeeRepository.findFacets(filters));
+        }
+
+        Collection<Long> searchHits = null;
+        if (filters.getSearch() != null && !filters.getSearch().isBlank()) {
+            searchHits = coffeeRepository.findIdsMatchingSearch(filters);
+        }
+
+        return toResponse(catalogIndex.facets(filters, searchHits));
+    }
+
+    /**
+     * Cached counts are keyed by index version; drop the previous versions on every change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(value = "coffeeFacets", allEntries = true)
+    public void onCoffeeChanged(CoffeeChangedEvent event) {
+        log.debug("Coffee {} changed ({}), facet cache cleared", event.coffeeId(), event.change());
+    }
+
+    private static CoffeeFacetsResponse toResponse(CatalogFacets facets) {
+        return new CoffeeFacetsResponse(
+            facets.total(),
+            toCounts(facets.origins()),
+            toCounts(facets.roasters()),
+            toCounts(facets.notes()),
+            toCounts(facets.priceRanges())
+        );
+    }
+
+    private static <T extends Comparable<T>> List<FacetCount<T>> toCounts(Map<T, Long> counts) {
+        return counts.entrySet().stream()
+            .map(entry -> new FacetCount<>(entry.getKey(), entry.getValue()))
+            .sorted(Comparator.comparingLong((FacetCount<T> facet) -> facet.count()).reversed()
+                .thenComparing(FacetCount::value))
+            .collect(Collectors.toList());
+    }
+}
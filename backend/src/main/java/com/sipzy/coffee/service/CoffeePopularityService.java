@@ -0,0 +1,152 @@
+package com.sipzy.coffee.service;
+
+import com.sipzy.coffee.dto.response.PopularityRebuildResponse;
+import com.sipzy.coffee.event.PopularityRebuiltEvent;
+import com.sipzy.common.exception.BadRequestException;
+import com.sipzy.common.exception.ConflictException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bayesian popularity of approved coffees (coffee_cards.popularity_score, V19).
+ *
+ * Day to day the score moves with the reviews: every card projection recomputes it from the
+ * coffee's own rating stats and the stored prior, so a review only touches its coffee. The
+ * prior itself (global mean rating, weight in virtual reviews) is only replaced here, on
+ * admin request: the new prior is committed first, then every card is re-scored in id
+ * ranges, each range in its own transaction on a small worker pool. A {@link PopularityRebuiltEvent}
+ * then drops the cached popular lists, on every node through the invalidation bus.
+ */
+@Slf4j
+@Service
+public class CoffeePopularityService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int defaultPriorWeight;
+    private final int parallelism;
+    private final int chunkSize;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private static final String UPDATE_PRIOR = """
+            UPDATE popularity_prior
+            SET mean = COALESCE((SELECT SUM(c.rating_sum)::NUMERIC / NULLIF(SUM(c.rating_count), 0)
+                                 FROM coffees c JOIN coffee_cards cc ON cc.coffee_id = c.id), 3.0),
+                weight = :weight,
+                computed_at = CURRENT_TIMESTAMP
+            """;
+
+    private static final String SELECT_PRIOR_AND_RANGE = """
+            SELECT p.mean, (SELECT MIN(coffee_id) FROM coffee_cards), (SELECT MAX(coffee_id) FROM coffee_cards)
+            FROM popularity_prior p
+            """;
+
+    private static final String RESCORE_RANGE = """
+            UPDATE coffee_cards cc
+            SET popularity_score = coffee_popularity(c.rating_sum, c.rating_count, p.mean, p.weight)
+            FROM popularity_prior p, coffees c
+            WHERE c.id = cc.coffee_id AND cc.coffee_id BETWEEN :fromId AND :toId
+            """;
+
+    public CoffeePopularityService(
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.popularity.prior-weight:10}") int defaultPriorWeight,
+            @Value("${app.popularity.rebuild-parallelism:4}") int parallelism,
+            @Value("${app.popularity.rebuild-chunk-size:500}") int chunkSize
+    ) {
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultPriorWeight = defaultPriorWeight;
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Recompute the prior from the current reviews, then re-score every coffee card in parallel
+     */
+    public PopularityRebuildResponse rebuild(Integer priorWeight) {
+        int weight = priorWeight != null ? priorWeight : defaultPriorWeight;
+        if (weight <= 0) {
+            throw new BadRequestException("priorWeight must be positive");
+        }
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new ConflictException("A popularity rebuild is already running");
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            // Committed before re-scoring, so card projections running meanwhile already use it
+            Object[] prior = transactionTemplate.execute(status -> {
+                entityManager.createNativeQuery(UPDATE_PRIOR)
+                        .setParameter("weight", weight)
+                        .executeUpdate();
+                return (Object[]) entityManager.createNativeQuery(SELECT_PRIOR_AND_RANGE).getSingleResult();
+            });
+            BigDecimal mean = (BigDecimal) prior[0];
+
+            int rescored = 0;
+            try {
+                if (prior[1] != null) {
+                    rescored = rescore(((Number) prior[1]).longValue(), ((Number) prior[2]).longValue());
+                }
+            } finally {
+                // Even a failed re-scoring has committed the new prior and some ranges
+                eventPublisher.publishEvent(new PopularityRebuiltEvent());
+            }
+
+            long duration = System.currentTimeMillis() - start;
+            log.info("Popularity rebuilt: prior mean {} weight {}, {} coffees in {} ms", mean, weight, rescored, duration);
+            return new PopularityRebuildResponse(mean, weight, rescored, duration);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private int rescore(long minId, long maxId) {
+        int rescored = 0;
+        try (ExecutorService workers = Executors.newFixedThreadPool(parallelism)) {
+            List<Future<Integer>> ranges = new ArrayList<>();
+            for (long from = minId; from <= maxId; from += chunkSize) {
+                long fromId = from;
+                long toId = Math.min(maxId, from + chunkSize - 1);
+                ranges.add(workers.submit(() -> rescoreRange(fromId, toId)));
+            }
+            for (Future<Integer> range : ranges) {
+                rescored += range.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Popularity rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Popularity rebuild failed", e.getCause());
+        }
+        return rescored;
+    }
+
+    private int rescoreRange(long fromId, long toId) {
+        Integer updated = transactionTemplate.execute(status -> entityManager.createNativeQuery(RESCORE_RANGE)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .executeUpdate());
+        return updated != null ? updated : 0;
+    }
+}
@@ -1,28 +1,48 @@
 package com.sipzy.coffee.service;
 
 import com.sipzy.coffee.domain.Coffee;
+import com.sipzy.coffee.domain.CoffeeCard;
+import com.sipzy.coffee.domain.Note;
 import com.sipzy.coffee.dto.request.CoffeeFiltersRequest;
 import com.sipzy.coffee.dto.response.CoffeeResponse;
+import com.sipzy.coffee.event.CoffeeChangedEvent;
+import com.sipzy.coffee.index.CatalogPosition;
+import com.sipzy.coffee.index.CatalogSort;
+import com.sipzy.coffee.index.CatalogVersions;
+import com.sipzy.coffee.index.CoffeeCatalogIndex;
+import com.sipzy.coffee.index.CoffeeSimilarityIndex;
 import com.sipzy.coffee.mapper.CoffeeMapper;
+import com.sipzy.coffee.repository.CoffeeCardRepository;
 import com.sipzy.coffee.repository.CoffeeRepository;
+import com.sipzy.coffee.repository.CoffeeSearchCompiler;
+import com.sipzy.coffee.trending.TrendingTracker;
+import com.sipzy.common.cache.CountCache;
+import com.sipzy.common.cache.NegativeCache;
+import com.sipzy.common.cache.SingleFlight;
+import com.sipzy.common.constants.SortConstants;
 import com.sipzy.common.dto.PageResponse;
+import com.sipzy.common.exception.BadRequestException;
 import com.sipzy.common.exception.ResourceNotFoundException;
+import com.sipzy.common.util.CursorCodec;
+import com.sipzy.common.web.VersionStamp;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.math.BigDecimal;
-import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
  * Coffee Query Service (CQRS Read Side)
+ * Listings pick their ids from the indexes or the compiled SQL, then read the page from the
+ * coffee_cards read model; the detail page still loads the Coffee entity.
  */
 @Service
 @RequiredArgsConstructor
@@ -31,70 +51,231 @@ import java.util.stream.Collectors;
 public class CoffeeQueryService {
 
     private final CoffeeRepository coffeeRepository;
+    private final CoffeeCardRepository coffeeCardRepository;
     private final CoffeeMapper coffeeMapper;
+    private final CoffeeCatalogIndex catalogIndex;
+    private final CoffeeSimilarityIndex similarityIndex;
+    private final TrendingTracker trendingTracker;
+    private final CatalogVersions catalogVersions;
+    private final CountCache countCache;
+    private final SingleFlight singleFlight;
+    private final NegativeCache negativeCache;
+
+    private static final String SEARCH_CURSOR = "search";
+    private static final String FUZZY_CURSOR = "search-fuzzy";
+    private static final String COUNT_KEY_PREFIX = "coffees:";
 
     public PageResponse<CoffeeResponse> getAllCoffees(CoffeeFiltersRequest filters, int page, int limit) {
-        Pageable pageable = PageRequest.of(page - 1, limit);
-
-        // Convert null to empty string to avoid PostgreSQL bytea type inference issues
-        String search = filters.getSearch() != null ? filters.getSearch() : "";
-        String origin = (filters.getOrigin() != null && !filters.getOrigin().isEmpty())
-            ? filters.getOrigin().get(0) : "";
-        Long roasterId = (filters.getRoasterId() != null && !filters.getRoasterId().isEmpty())
-            ? filters.getRoasterId().get(0) : null;
-        BigDecimal minRating = filters.getMinRating() != null
-            ? BigDecimal.valueOf(filters.getMinRating()) : null;
-
-        Page<Coffee> coffeePage = coffeeRepository.searchWithFilters(
-            search,
-            origin,
-            roasterId,
-            minRating,
-            filters.getNoteIds(),
-            pageable
-        );
-
-        List<CoffeeResponse> coffees = coffeePage.getContent().stream()
+        if (catalogIndex.supports(filters)) {
+            return loadCoffees(filters, page, limit);
+        }
+        // Identical searches arriving together run their SQL once
+        return singleFlight.execute("coffeeSearch", filters.requestKey() + "|pg=" + page + "|l=" + limit,
+            () -> loadCoffees(filters, page, limit));
+    }
+
+    private PageResponse<CoffeeResponse> loadCoffees(CoffeeFiltersRequest filters, int page, int limit) {
+        if (filters.getCursor() != null) {
+            return getCoffeesAfter(filters, limit);
+        }
+
+        boolean withTotal = !Boolean.FALSE.equals(filters.getWithTotal());
+
+        // Filter-only browsing is answered by the in-memory bitmap index
+        if (catalogIndex.supports(filters)) {
+            int offset = (page - 1) * limit;
+            CoffeeCatalogIndex.IndexPage indexPage = catalogIndex.query(filters, offset, limit);
+            List<CoffeeResponse> coffees = hydrate(indexPage.ids());
+            return withTotal
+                ? PageResponse.of(coffees, page, limit, indexPage.total())
+                : PageResponse.ofSlice(coffees, page, limit, offset + coffees.size() < indexPage.total());
+        }
+
+        // Everything else (search, or index not built yet) runs as one SQL statement compiled
+        // from the full filter set; limit + 1 rows tell whether there is a next page without a COUNT
+        int offset = (page - 1) * limit;
+        List<Long> ids = coffeeRepository.findIdsByFilters(filters, offset, limit + 1);
+        boolean hasNext = ids.size() > limit;
+
+        List<CoffeeResponse> coffees = hydrate(hasNext ? ids.subList(0, limit) : ids);
+
+        if (!withTotal) {
+            return PageResponse.ofSlice(coffees, page, limit, hasNext);
+        }
+        long total = countCache.get(COUNT_KEY_PREFIX + filters.filterKey(),
+            () -> coffeeRepository.countByFilters(filters));
+        return PageResponse.of(coffees, page, limit, total);
+    }
+
+    /**
+     * Keyset pagination: seek after the cursor instead of OFFSET, and skip the COUNT
+     */
+    private PageResponse<CoffeeResponse> getCoffeesAfter(CoffeeFiltersRequest filters, int limit) {
+        String cursor = filters.getCursor();
+        String search = filters.getSearch() != null ? filters.getSearch().trim() : "";
+
+        if (catalogIndex.supports(filters)) {
+            CoffeeCatalogIndex.IndexCursorPage indexPage = catalogIndex.queryAfter(filters, cursor, limit);
+            return PageResponse.ofCursor(hydrate(indexPage.ids()), limit,
+                !CursorCodec.isFirstPage(cursor), indexPage.nextCursor());
+        }
+
+        // Index not built yet: the same seek compiled to SQL, with the same cursors
+        if (search.isEmpty()) {
+            return getCoffeesAfterPosition(filters, limit);
+        }
+
+        // Search mode (full-text or fuzzy): seek on (rank, id)
+        if (!CoffeeSearchCompiler.isRelevance(filters)) {
+            throw new BadRequestException("Cursor pagination of a search only supports relevance order");
+        }
+        String searchTag = CoffeeSearchCompiler.isFuzzy(filters) ? FUZZY_CURSOR : SEARCH_CURSOR;
+        float afterRank = Float.MAX_VALUE;
+        long afterId = Long.MAX_VALUE;
+        if (!CursorCodec.isFirstPage(cursor)) {
+            String[] parts = CursorCodec.decode(cursor, searchTag, 3);
+            try {
+                afterRank = Float.parseFloat(parts[1]);
+                afterId = Long.parseLong(parts[2]);
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor", e);
+            }
+        }
+
+        List<Long> ids = coffeeRepository.findIdsByFiltersAfterRank(filters, afterRank, afterId, limit + 1);
+
+        String nextCursor = null;
+        if (ids.size() > limit) {
+            ids = ids.subList(0, limit);
+            Long lastId = ids.get(limit - 1);
+            nextCursor = CursorCodec.encode(searchTag, coffeeRepository.findRank(filters, lastId), lastId);
+        }
+
+        return PageResponse.ofCursor(hydrate(ids), limit, !CursorCodec.isFirstPage(cursor), nextCursor);
+    }
+
+    private PageResponse<CoffeeResponse> getCoffeesAfterPosition(CoffeeFiltersRequest filters, int limit) {
+        String cursor = filters.getCursor();
+        String sortTag = CatalogPosition.cursorTag(CatalogSort.fromParam(filters.getSortBy()),
+            SortConstants.SORT_ASC.equalsIgnoreCase(filters.getSortOrder()));
+        CatalogPosition after = CursorCodec.isFirstPage(cursor) ? null : CatalogPosition.decode(cursor, sortTag);
+
+        List<CatalogPosition> positions = coffeeRepository.findPositionsByFiltersAfter(filters, after, limit + 1);
+
+        String nextCursor = null;
+        if (positions.size() > limit) {
+            positions = positions.subList(0, limit);
+            nextCursor = positions.get(limit - 1).encode(sortTag);
+        }
+
+        List<Long> ids = positions.stream().map(CatalogPosition::id).toList();
+        return PageResponse.ofCursor(hydrate(ids), limit, !CursorCodec.isFirstPage(cursor), nextCursor);
+    }
+
+    /**
+     * Any coffee change can move it in or out of a filtered listing: drop every cached coffee total.
+     * A created coffee may take an id that was probed before: drop its negative entry.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onCoffeeChanged(CoffeeChangedEvent event) {
+        countCache.invalidatePrefix(COUNT_KEY_PREFIX);
+        if (event.change() == CoffeeChangedEvent.Change.CREATED) {
+            negativeCache.forget(NegativeCache.COFFEE, event.coffeeId());
+        }
+    }
+
+    /**
+     * Read the coffee cards of the given ids, in that order (one primary-key lookup, no joins)
+     */
+    private List<CoffeeResponse> hydrate(List<Long> ids) {
+        return toCoffeeResponses(coffeeCardRepository.findAllInOrder(ids));
+    }
+
+    private List<CoffeeResponse> toCoffeeResponses(List<CoffeeCard> cards) {
+        return cards.stream()
             .map(coffeeMapper::toCoffeeResponse)
             .collect(Collectors.toList());
+    }
 
-        return PageResponse.of(coffees, page, limit, coffeePage.getTotalElements());
+    /**
+     * Validators of one coffee, from the (cached) response about to be served
+     */
+    public VersionStamp getCoffeeVersion(CoffeeResponse coffee) {
+        return catalogVersions.coffee(coffee);
+    }
+
+    /**
+     * Validators of a coffee listing (popular, recent), from the list about to be served
+     */
+    public VersionStamp getCoffeeListVersion(String list, int limit, List<CoffeeResponse> coffees) {
+        return catalogVersions.coffeeList(coffees, list, limit);
     }
 
     @Cacheable(value = "coffees", key = "#id")
     public CoffeeResponse getCoffeeById(Long id) {
-        Coffee coffee = coffeeRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Coffee not found with id: " + id));
+        // Concurrent misses of one key (expiry, eviction) share a single load
+        return singleFlight.execute("coffee", id, () -> {
+            Coffee coffee = negativeCache.require(NegativeCache.COFFEE, id, () -> coffeeRepository.findWithDetailsById(id));
 
-        return coffeeMapper.toCoffeeResponse(coffee);
+            return coffeeMapper.toCoffeeResponse(coffee);
+        });
     }
 
     @Cacheable(value = "popularCoffees", key = "#limit")
     public List<CoffeeResponse> getPopularCoffees(int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        return coffeeRepository.findPopularCoffees(pageable).stream()
-            .map(coffeeMapper::toCoffeeResponse)
-            .collect(Collectors.toList());
+        return loadPopularCoffees(limit);
     }
 
     @Cacheable(value = "recentCoffees", key = "#limit")
     public List<CoffeeResponse> getRecentCoffees(int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        return coffeeRepository.findRecentCoffees(pageable).stream()
-            .map(coffeeMapper::toCoffeeResponse)
+        return loadRecentCoffees(limit);
+    }
+
+    /**
+     * Uncached popular list, also used by the cache to refresh its entries in the background
+     */
+    public List<CoffeeResponse> loadPopularCoffees(int limit) {
+        return singleFlight.execute("popularCoffees", limit,
+            () -> toCoffeeResponses(coffeeCardRepository.findPopular(PageRequest.of(0, limit))));
+    }
+
+    /**
+     * Uncached recent list, also used by the cache to refresh its entries in the background
+     */
+    public List<CoffeeResponse> loadRecentCoffees(int limit) {
+        return singleFlight.execute("recentCoffees", limit,
+            () -> toCoffeeResponses(coffeeCardRepository.findRecent(PageRequest.of(0, limit))));
+    }
+
+    /**
+     * Ranking precomputed by the trending tracker; extra candidates cover coffees that are
+     * no longer approved (they have no card)
+     */
+    public List<CoffeeResponse> getTrendingCoffees(int limit) {
+        return hydrate(trendingTracker.topIds(limit * 2)).stream()
+            .limit(limit)
             .collect(Collectors.toList());
     }
 
+    /**
+     * Approved coffees are answered from the precomputed neighbour lists; others
+     * (or before the similarity index is built) fall back to origin and notes on the database
+     */
     public List<CoffeeResponse> getSimilarCoffees(Long coffeeId, int limit) {
-        Coffee coffee = coffeeRepository.findById(coffeeId)
+        Optional<List<Long>> similarIds = similarityIndex.similarIds(coffeeId, limit);
+        if (similarIds.isPresent()) {
+            return hydrate(similarIds.get());
+        }
+
+        Coffee coffee = coffeeRepository.findWithDetailsById(coffeeId)
             .orElseThrow(() -> new ResourceNotFoundException("Coffee not found"));
 
-        // For now, use empty list if notes relationship not set up
-        List<Long> noteIds = Collections.emptyList();
+        List<Long> noteIds = coffee.getNotes().stream()
+            .map(Note::getId)
+            .collect(Collectors.toList());
 
         Pageable pageable = PageRequest.of(0, limit);
-        return coffeeRepository.findSimilarCoffees(coffeeId, coffee.getOrigin(), noteIds, pageable).stream()
-            .map(coffeeMapper::toCoffeeResponse)
-            .collect(Collectors.toList());
+        return hydrate(coffeeRepository.findSimilarCoffeeIds(coffeeId, coffee.getOrigin(), noteIds, pageable));
     }
 }
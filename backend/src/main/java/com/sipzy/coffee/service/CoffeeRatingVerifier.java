@@ -0,0 +1,118 @@
+package com.sipzy.coffee.service;
+
+import com.sipzy.coffee.dto.response.RatingDriftResponse;
+import com.sipzy.coffee.event.CoffeeChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Verification of the incremental rating aggregates (coffees.rating_sum / rating_count, V21).
+ *
+ * The review triggers move the aggregates by deltas, so any write that bypasses them (manual
+ * SQL, a restored dump, a disabled trigger) leaves them off for good. Nightly, and on admin
+ * request, they are compared with the reviews; drifted coffees are logged and, unless
+ * disabled, recomputed under their row lock (review writes of that coffee wait) and
+ * re-projected through a rating change event. Both entry points run in one transaction of
+ * their own (the scheduled call does not go through the proxy, hence no @Transactional).
+ */
+@Slf4j
+@Service
+public class CoffeeRatingVerifier {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean repair;
+
+    private static final int REPORTED_IDS = 50;
+
+    private static final String SELECT_DRIFTED = """
+            SELECT c.id
+            FROM coffees c
+            LEFT JOIN (SELECT coffee_id, SUM(rating) AS rating_sum, COUNT(*) AS rating_count
+                       FROM reviews
+                       GROUP BY coffee_id) agg ON agg.coffee_id = c.id
+            WHERE c.rating_sum <> COALESCE(agg.rating_sum, 0)
+               OR c.rating_count <> COALESCE(agg.rating_count, 0)
+               OR c.review_count IS DISTINCT FROM c.rating_count
+            ORDER BY c.id
+            """;
+
+    private static final String LOCK_COFFEE = "SELECT id FROM coffees WHERE id = :id FOR UPDATE";
+
+    // A statement after the lock: sees every review committed before it
+    private static final String RECOMPUTE = """
+            UPDATE coffees c
+            SET rating_sum = agg.rating_sum,
+                rating_count = agg.rating_count,
+                review_count = agg.rating_count,
+                avg_rating = CASE WHEN agg.rating_count > 0
+                                  THEN ROUND(agg.rating_sum::NUMERIC / agg.rating_count, 2)
+                                  ELSE 0.0
+                             END
+            FROM (SELECT COALESCE(SUM(rating), 0) AS rating_sum, COUNT(*) AS rating_count
+                  FROM reviews WHERE coffee_id = :id) agg
+            WHERE c.id = :id
+            """;
+
+    public CoffeeRatingVerifier(
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.ratings.repair-drift:true}") boolean repair
+    ) {
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.repair = repair;
+    }
+
+    @Scheduled(cron = "${app.ratings.verify-cron:0 30 4 * * *}")
+    public void verifyNightly() {
+        verify();
+    }
+
+    /**
+     * Compare every coffee's aggregates with its reviews, repairing drift when enabled
+     */
+    public RatingDriftResponse verify() {
+        return transactionTemplate.execute(status -> verifyInTransaction());
+    }
+
+    private RatingDriftResponse verifyInTransaction() {
+        long start = System.currentTimeMillis();
+
+        @SuppressWarnings("unchecked")
+        List<Long> drifted = ((List<Number>) entityManager.createNativeQuery(SELECT_DRIFTED).getResultList())
+                .stream()
+                .map(Number::longValue)
+                .toList();
+
+        if (repair) {
+            for (Long id : drifted) {
+                entityManager.createNativeQuery(LOCK_COFFEE).setParameter("id", id).getResultList();
+                entityManager.createNativeQuery(RECOMPUTE).setParameter("id", id).executeUpdate();
+                eventPublisher.publishEvent(CoffeeChangedEvent.ratingChanged(id));
+            }
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        List<Long> reported = drifted.subList(0, Math.min(REPORTED_IDS, drifted.size()));
+        if (drifted.isEmpty()) {
+            log.info("Rating aggregates verified in {} ms: no drift", duration);
+        } else {
+            log.warn("Rating aggregates drifted for {} coffees{} in {} ms: {}", drifted.size(),
+                    repair ? " (repaired)" : "", duration, reported);
+        }
+        return new RatingDriftResponse(drifted.size(), reported, repair && !drifted.isEmpty(), duration);
+    }
+}
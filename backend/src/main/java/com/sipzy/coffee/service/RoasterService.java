@@ -5,12 +5,14 @@ import com.sipzy.coffee.dto.response.RoasterResponse;
 import com.sipzy.coffee.mapper.RoasterMapper;
 import com.sipzy.coffee.repository.RoasterRepository;
 import com.sipzy.common.exception.ResourceNotFoundException;
+import com.sipzy.common.web.VersionStamp;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service for Roaster business logic
@@ -44,4 +46,12 @@ public class RoasterService {
                 .orElseThrow(() -> new ResourceNotFoundException("Roaster", "id", id));
         return roasterMapper.toRoasterResponse(roaster);
     }
+
+    /**
+     * Validators of one roaster from its updated_at; empty when the roaster does not exist
+     */
+    public Optional<VersionStamp> getRoasterVersion(Long id) {
+        return roasterRepository.findUpdatedAtById(id)
+                .map(updatedAt -> VersionStamp.of(updatedAt, "roaster", id, updatedAt.toEpochMilli()));
+    }
 }
@@ -0,0 +1,98 @@
+package com.sipzy.coffee.trending;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Exponentially decayed activity score per coffee.
+ *
+ * Each score is a {@link DoubleAdder}, whose cells are striped across threads, so bursts of
+ * activity on the same coffee do not contend on a single counter. Decay is applied in bulk
+ * ({@link #decay}): every score is multiplied by 0.5^(elapsed / half-life), and scores that
+ * fall under the floor are dropped. An increment racing with the drop of its own coffee is
+ * re-added; the scores are an approximation by design, not an audit trail.
+ */
+class TrendingScores {
+
+    private final Duration halfLife;
+    private final ConcurrentHashMap<Long, DoubleAdder> scores = new ConcurrentHashMap<>();
+
+    TrendingScores(Duration halfLife) {
+        if (halfLife.isZero() || halfLife.isNegative()) {
+            throw new IllegalArgumentException("Half-life must be positive");
+        }
+        this.halfLife = halfLife;
+    }
+
+    void add(long coffeeId, double weight) {
+        scores.computeIfAbsent(coffeeId, id -> new DoubleAdder()).add(weight);
+    }
+
+    double get(long coffeeId) {
+        DoubleAdder score = scores.get(coffeeId);
+        return score != null ? score.sum() : 0.0;
+    }
+
+    int size() {
+        return scores.size();
+    }
+
+    /**
+     * Multiplier applied to a score after the given time
+     */
+    double decayFactor(Duration elapsed) {
+        return Math.pow(0.5, (double) elapsed.toMillis() / halfLife.toMillis());
+    }
+
+    /**
+     * Decay every score by the elapsed time, dropping those under the floor
+     */
+    void decay(Duration elapsed, double floor) {
+        double factor = decayFactor(elapsed);
+        scores.forEach((coffeeId, score) -> {
+            // Increments landing between the reset and the add-back are kept, just not decayed
+            double decayed = score.sumThenReset() * factor;
+            if (decayed >= floor) {
+                score.add(decayed);
+            } else if (scores.remove(coffeeId, score)) {
+                double late = score.sumThenReset();
+                if (late != 0.0) {
+                    add(coffeeId, late);
+                }
+            }
+        });
+    }
+
+    /**
+     * Ids of the highest scores, best first (ties by id, newest coffee first)
+     */
+    List<Long> top(int limit) {
+        List<Map.Entry<Long, Double>> entries = new ArrayList<>(snapshot().entrySet());
+        entries.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+        return entries.stream()
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Point-in-time copy of the positive scores, for checkpoints and ranking
+     */
+    Map<Long, Double> snapshot() {
+        Map<Long, Double> copy = new HashMap<>(scores.size() * 2);
+        scores.forEach((coffeeId, score) -> {
+            double value = score.sum();
+            if (value > 0.0) {
+                copy.put(coffeeId, value);
+            }
+        });
+        return copy;
+    }
+}
@@ -0,0 +1,140 @@
+package com.sipzy.coffee.trending;
+
+import com.sipzy.coffee.event.CoffeeActivityEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trending coffees: review, favorite and helpful-vote activity, exponentially decayed.
+ *
+ * Activity is counted in memory from {@link CoffeeActivityEvent}s after commit. A scheduled
+ * tick decays the scores and refreshes the ranking that GET /api/coffees/trending reads, so
+ * a request never aggregates reviews or favorites. Scores are checkpointed to
+ * coffee_trending_scores (V20) periodically and on shutdown, and restored at startup with
+ * the decay of the downtime applied.
+ */
+@Slf4j
+@Component
+public class TrendingTracker {
+
+    public static final int MAX_RANKED = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TrendingScores scores;
+    private final double reviewWeight;
+    private final double favoriteWeight;
+    private final double helpfulVoteWeight;
+
+    private volatile List<Long> ranking = List.of();
+    private volatile Instant lastDecay = Instant.now();
+
+    // Scores under this are forgotten (a review decays below it after about 8 half-lives)
+    private static final double SCORE_FLOOR = 0.01;
+
+    public TrendingTracker(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.trending.half-life:PT24H}") Duration halfLife,
+            @Value("${app.trending.weights.review:3.0}") double reviewWeight,
+            @Value("${app.trending.weights.favorite:2.0}") double favoriteWeight,
+            @Value("${app.trending.weights.helpful-vote:1.0}") double helpfulVoteWeight
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.scores = new TrendingScores(halfLife);
+        this.reviewWeight = reviewWeight;
+        this.favoriteWeight = favoriteWeight;
+        this.helpfulVoteWeight = helpfulVoteWeight;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivity(CoffeeActivityEvent event) {
+        if (event.coffeeId() == null) {
+            return;
+        }
+        double weight = switch (event.kind()) {
+            case REVIEW -> reviewWeight;
+            case FAVORITE -> favoriteWeight;
+            case HELPFUL_VOTE -> helpfulVoteWeight;
+        };
+        scores.add(event.coffeeId(), weight);
+    }
+
+    /**
+     * Best coffees right now (as of the last tick), at most {@link #MAX_RANKED}
+     */
+    public List<Long> topIds(int limit) {
+        List<Long> current = ranking;
+        return current.subList(0, Math.min(limit, current.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.decay-interval:PT1M}",
+            initialDelayString = "${app.trending.decay-interval:PT1M}")
+    public void tick() {
+        Instant now = Instant.now();
+        scores.decay(Duration.between(lastDecay, now), SCORE_FLOOR);
+        lastDecay = now;
+        ranking = scores.top(MAX_RANKED);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        try {
+            Instant now = Instant.now();
+            jdbcTemplate.query("SELECT coffee_id, score, checkpointed_at FROM coffee_trending_scores", rs -> {
+                Duration downtime = Duration.between(rs.getTimestamp("checkpointed_at").toInstant(), now);
+                double score = rs.getDouble("score")
+                        * scores.decayFactor(downtime.isNegative() ? Duration.ZERO : downtime);
+                if (score >= SCORE_FLOOR) {
+                    scores.add(rs.getLong("coffee_id"), score);
+                }
+            });
+            lastDecay = now;
+            ranking = scores.top(MAX_RANKED);
+            log.info("Trending scores restored for {} coffees", scores.size());
+        } catch (RuntimeException e) {
+            log.error("Trending scores restore failed, starting empty", e);
+        }
+    }
+
+    /**
+     * Replace the stored scores by the current ones (coffees deleted meanwhile are skipped)
+     */
+    @Scheduled(fixedDelayString = "${app.trending.checkpoint-interval:PT5M}",
+            initialDelayString = "${app.trending.checkpoint-interval:PT5M}")
+    @PreDestroy
+    public void checkpoint() {
+        Map<Long, Double> snapshot = scores.snapshot();
+        Timestamp at = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(snapshot.size());
+        snapshot.forEach((coffeeId, score) -> rows.add(new Object[]{score, at, coffeeId}));
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM coffee_trending_scores");
+                jdbcTemplate.batchUpdate("INSERT INTO coffee_trending_scores (coffee_id, score, checkpointed_at) "
+                        + "SELECT id, ?, ? FROM coffees WHERE id = ?", rows);
+            });
+            log.debug("Trending scores checkpointed for {} coffees", rows.size());
+        } catch (RuntimeException e) {
+            log.error("Trending scores checkpoint failed", e);
+        }
+    }
+}
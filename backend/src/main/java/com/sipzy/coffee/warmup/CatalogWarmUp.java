@@ -0,0 +1,224 @@
+package com.sipzy.coffee.warmup;
+
+import com.sipzy.coffee.index.ReferenceDataCache;
+import com.sipzy.coffee.index.ReferenceDataSnapshot;
+import com.sipzy.coffee.repository.CoffeeCardRepository;
+import com.sipzy.coffee.service.CoffeeQueryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Preloads the hot read paths of a fresh node before it reports ready.
+ *
+ * Once the application is up (indexes built), the popular and recent lists, the details of the
+ * most reviewed coffees and the notes/roasters snapshot are loaded in parallel through the
+ * cached services, within a time budget. {@link CatalogWarmUpHealthIndicator} keeps the node
+ * out of the readiness group until the warm-up finishes or the budget runs out; a failed or
+ * unfinished part only leaves that part cold.
+ */
+@Slf4j
+@Component
+public class CatalogWarmUp {
+
+    private final CoffeeQueryService coffeeQueryService;
+    private final CoffeeCardRepository coffeeCardRepository;
+    private final ReferenceDataCache referenceDataCache;
+
+    private final boolean enabled;
+    private final Duration budget;
+    private final int parallelism;
+    private final List<Integer> listLimits;
+    private final int topCoffees;
+
+    private volatile State state = State.PENDING;
+    private volatile Map<String, String> report = Map.of();
+
+    public enum State {
+        PENDING, RUNNING, DONE, TIMED_OUT;
+
+        public boolean isFinished() {
+            return this == DONE || this == TIMED_OUT;
+        }
+    }
+
+    public CatalogWarmUp(
+            CoffeeQueryService coffeeQueryService,
+            CoffeeCardRepository coffeeCardRepository,
+            ReferenceDataCache referenceDataCache,
+            @Value("${app.warm-up.enabled:true}") boolean enabled,
+            @Value("${app.warm-up.budget:PT30S}") Duration budget,
+            @Value("${app.warm-up.parallelism:4}") int parallelism,
+            @Value("${app.warm-up.list-limits:8}") List<Integer> listLimits,
+            @Value("${app.warm-up.top-coffees:200}") int topCoffees
+    ) {
+        this.coffeeQueryService = coffeeQueryService;
+        this.coffeeCardRepository = coffeeCardRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.enabled = enabled;
+        this.budget = budget;
+        this.parallelism = Math.max(1, parallelism);
+        this.listLimits = listLimits;
+        this.topCoffees = topCoffees;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * What each part warmed ("12 entries", "timed out after 40 entries", "failed after 0 entries (...)")
+     */
+    public Map<String, String> getReport() {
+        return report;
+    }
+
+    // Last ApplicationReadyEvent listener: the indexes are built by then
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onApplicationReady() {
+        if (!enabled) {
+            state = State.DONE;
+            return;
+        }
+        state = State.RUNNING;
+        Thread coordinator = new Thread(this::warmUp, "catalog-warm-up");
+        coordinator.setDaemon(true);
+        coordinator.start();
+    }
+
+    void warmUp() {
+        long started = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "catalog-warm-up-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Map<String, AtomicInteger> warmed = new LinkedHashMap<>();
+        Map<String, CompletableFuture<?>> tasks = new LinkedHashMap<>();
+        boolean timedOut = false;
+
+        try {
+            submit(tasks, warmed, pool, "popularCoffees", count -> listLimits.forEach(limit -> {
+                coffeeQueryService.getPopularCoffees(limit);
+                count.incrementAndGet();
+            }));
+            submit(tasks, warmed, pool, "recentCoffees", count -> listLimits.forEach(limit -> {
+                coffeeQueryService.getRecentCoffees(limit);
+                count.incrementAndGet();
+            }));
+            submit(tasks, warmed, pool, "referenceData", count -> {
+                ReferenceDataSnapshot snapshot = referenceDataCache.current();
+                count.addAndGet(snapshot.notes().size() + snapshot.roasters().size());
+            });
+
+            // Details of the most reviewed coffees, split across the remaining workers
+            AtomicInteger details = new AtomicInteger();
+            warmed.put("coffeeDetails", details);
+            List<Long> ids = topCoffees > 0
+                    ? coffeeCardRepository.findMostReviewedIds(PageRequest.of(0, topCoffees))
+                    : List.of();
+            List<CompletableFuture<?>> detailTasks = new ArrayList<>();
+            for (List<Long> chunk : partition(ids, parallelism)) {
+                detailTasks.add(CompletableFuture.runAsync(() -> chunk.forEach(id -> {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    try {
+                        coffeeQueryService.getCoffeeById(id);
+                        details.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // Unlisted since the id query: nothing to warm
+                        log.debug("Coffee {} not warmed: {}", id, e.getMessage());
+                    }
+                }), pool));
+            }
+            tasks.put("coffeeDetails", CompletableFuture.allOf(detailTasks.toArray(CompletableFuture[]::new)));
+
+            long remaining = budget.toNanos() - (System.nanoTime() - started);
+            CompletableFuture.allOf(tasks.values().toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timedOut = true;
+        } catch (ExecutionException e) {
+            // Reported per part below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            timedOut = true;
+        } catch (RuntimeException e) {
+            log.error("Catalog warm-up aborted", e);
+        } finally {
+            // Reported before interrupting the workers: a part cut at the budget is timed out, not failed
+            report = report(tasks, warmed);
+            pool.shutdownNow();
+        }
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        if (timedOut) {
+            log.warn("Catalog warm-up stopped at its {} budget after {} ms: {}", budget, elapsed, report);
+        } else {
+            log.info("Catalog warm-up finished in {} ms: {}", elapsed, report);
+        }
+        state = timedOut ? State.TIMED_OUT : State.DONE;
+    }
+
+    private static void submit(
+            Map<String, CompletableFuture<?>> tasks,
+            Map<String, AtomicInteger> warmed,
+            ExecutorService pool,
+            String name,
+            Consumer<AtomicInteger> task
+    ) {
+        AtomicInteger count = new AtomicInteger();
+        warmed.put(name, count);
+        tasks.put(name, CompletableFuture.runAsync(() -> task.accept(count), pool));
+    }
+
+    private static Map<String, String> report(Map<String, CompletableFuture<?>> tasks, Map<String, AtomicInteger> warmed) {
+        Map<String, String> report = new LinkedHashMap<>();
+        warmed.forEach((name, count) -> {
+            CompletableFuture<?> task = tasks.get(name);
+            String outcome;
+            if (task == null) {
+                outcome = "not started";
+            } else if (!task.isDone()) {
+                outcome = "timed out after " + count.get() + " entries";
+            } else if (task.isCompletedExceptionally()) {
+                Throwable cause = task.exceptionNow();
+                outcome = "failed after " + count.get() + " entries (" + cause.getClass().getSimpleName() + ")";
+            } else {
+                outcome = count.get() + " entries";
+            }
+            report.put(name, outcome);
+        });
+        return report;
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int parts) {
+        List<List<T>> chunks = new ArrayList<>();
+        int size = Math.max(1, (items.size() + parts - 1) / parts);
+        for (int from = 0; from < items.size(); from += size) {
+            chunks.add(items.subList(from, Math.min(from + size, items.size())));
+        }
+        return chunks;
+    }
+}
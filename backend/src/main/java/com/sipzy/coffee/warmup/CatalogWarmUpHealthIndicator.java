@@ -0,0 +1,27 @@
+package com.sipzy.coffee.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * OUT_OF_SERVICE until the catalog warm-up is over, so load balancers and the rolling update
+ * only route to a node whose caches are warm (health contributor "catalogWarmUp")
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogWarmUpHealthIndicator implements HealthIndicator {
+
+    private final CatalogWarmUp catalogWarmUp;
+
+    @Override
+    public Health health() {
+        CatalogWarmUp.State state = catalogWarmUp.getState();
+        Health.Builder builder = state.isFinished() ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("state", state)
+                .withDetails(catalogWarmUp.getReport())
+                .build();
+    }
+}
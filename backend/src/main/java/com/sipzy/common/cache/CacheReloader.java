@@ -0,0 +1,20 @@
+package com.sipzy.common.cache;
+
+import java.util.function.Function;
+
+/**
+ * Loader of one Spring cache's values by key, for caches configured with refresh-after-write
+ * (see CacheConfig): stale entries keep being served while this reloads them in the background.
+ *
+ * It must compute the value without going through the cache, i.e. not call the
+ * {@code @Cacheable} method itself.
+ */
+public record CacheReloader(
+        String cacheName,
+        Function<Object, Object> loader
+) {
+
+    public Object reload(Object key) {
+        return loader.apply(key);
+    }
+}
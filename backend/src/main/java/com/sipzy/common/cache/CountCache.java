@@ -0,0 +1,65 @@
+package com.sipzy.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-TTL cache for listing totals (the COUNT behind {@code PageResponse.total}).
+ *
+ * Keys are "{listing}:{normalized filters}", e.g. "coffees:s=moka|o=...". Owners invalidate
+ * their keys (or a whole listing by prefix) when the counted rows change; the TTL bounds
+ * staleness for anything they miss. Size is capped: expired entries are purged first,
+ * then the cache is cleared when still full.
+ */
+@Slf4j
+@Component
+public class CountCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+
+    private record Entry(long count, long expiresAt) {
+    }
+
+    public CountCache(@Value("${app.pagination.count-cache-ttl:30s}") Duration ttl) {
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * Cached total for the key, running the count query on a miss or after expiry
+     */
+    public long get(String key, LongSupplier counter) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.count();
+        }
+
+        long count = counter.getAsLong();
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.values().removeIf(e -> e.expiresAt() <= now);
+            if (entries.size() >= MAX_ENTRIES) {
+                log.debug("Count cache full, clearing {} entries", entries.size());
+                entries.clear();
+            }
+        }
+        entries.put(key, new Entry(count, now + ttlMillis));
+        return count;
+    }
+
+    public void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    public void invalidatePrefix(String prefix) {
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+}
@@ -0,0 +1,79 @@
+package com.sipzy.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sipzy.common.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of ids known not to exist, per entity type ("Coffee", "User").
+ *
+ * Lookups of by-id endpoints go through {@link #find} / {@link #require}: an id that missed
+ * once answers empty (404) without a query until it expires or its entity is created. Owners
+ * call {@link #forget} after committing a creation; the TTL bounds staleness for creations
+ * made by another node. Statistics: cache.* metrics with cache=negativeLookups.
+ */
+@Component
+public class NegativeCache {
+
+    private final Cache<Key, Boolean> missing;
+
+    public static final String COFFEE = "Coffee";
+    public static final String USER = "User";
+
+    private record Key(String type, Object id) {
+    }
+
+    public NegativeCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.negative-cache.ttl:PT10M}") Duration ttl,
+            @Value("${app.negative-cache.maximum-size:100000}") long maximumSize
+    ) {
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, missing, "negativeLookups");
+    }
+
+    public boolean isMissing(String type, Object id) {
+        return missing.getIfPresent(new Key(type, id)) != null;
+    }
+
+    /**
+     * The finder's result, skipped for ids known missing; an empty result is remembered
+     */
+    public <T> Optional<T> find(String type, Object id, Supplier<Optional<T>> finder) {
+        if (id == null) {
+            return finder.get();
+        }
+        if (isMissing(type, id)) {
+            return Optional.empty();
+        }
+        Optional<T> found = finder.get();
+        if (found.isEmpty()) {
+            missing.put(new Key(type, id), Boolean.TRUE);
+        }
+        return found;
+    }
+
+    /**
+     * Like {@link #find}, throwing "{type} not found with id: {id}" (without a stack trace) when missing
+     */
+    public <T> T require(String type, Object id, Supplier<Optional<T>> finder) {
+        return find(type, id, finder)
+                .orElseThrow(() -> ResourceNotFoundException.withoutStackTrace(type + " not found with id: " + id));
+    }
+
+    public void forget(String type, Object id) {
+        missing.invalidate(new Key(type, id));
+    }
+}
@@ -0,0 +1,104 @@
+package com.sipzy.common.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing: concurrent calls for the same key run the loader once.
+ *
+ * The first caller (leader) loads in its own thread; callers arriving while it runs wait on
+ * its future and get the same result, or the same exception. A waiter still without a result
+ * after the timeout stops waiting and loads by itself, so one slow query never stalls a whole
+ * queue. Nothing is kept once the load completes: this only merges overlapping calls, caching
+ * stays with the caller.
+ *
+ * Metrics: single.flight.calls{name, outcome = leader | coalesced | timeout}.
+ */
+@Slf4j
+@Component
+public class SingleFlight {
+
+    private final MeterRegistry meterRegistry;
+    private final long timeoutMillis;
+
+    private final Map<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private static final String METRIC = "single.flight.calls";
+
+    private record FlightKey(String name, Object key) {
+    }
+
+    public SingleFlight(
+            MeterRegistry meterRegistry,
+            @Value("${app.single-flight.timeout:PT3S}") Duration timeout
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Result of the loader for the key, shared with every concurrent call of the same name and key
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Object key, Supplier<T> loader) {
+        FlightKey flightKey = new FlightKey(name, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(flightKey, flight);
+
+        if (leader == null) {
+            count(name, "leader");
+            try {
+                T result = loader.get();
+                flight.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(flightKey, flight);
+            }
+        }
+
+        try {
+            Object result = leader.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            count(name, "coalesced");
+            return (T) result;
+        } catch (TimeoutException e) {
+            count(name, "timeout");
+            log.debug("Single flight {} {} still running after {} ms, loading separately", name, key, timeoutMillis);
+            return loader.get();
+        } catch (ExecutionException e) {
+            count(name, "coalesced");
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + name + " " + key, e);
+        }
+    }
+
+    private void count(String name, String outcome) {
+        Counter.builder(METRIC)
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -1,5 +1,6 @@
 package com.sipzy.common.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,13 +24,15 @@ public class PageResponse<T> {
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class PaginationMeta {
-        private int page;
+        private Integer page;
         private int limit;
-        private long total;
-        private int totalPages;
+        private Long total;
+        private Integer totalPages;
         private boolean hasNext;
         private boolean hasPrev;
+        private String nextCursor; // keyset mode only
     }
 
     public static <T> PageResponse<T> of(List<T> data, int page, int limit, long total) {
@@ -47,4 +50,34 @@ public class PageResponse<T> {
                         .build())
                 .build();
     }
+
+    /**
+     * Page without total (withTotal=false): hasNext comes from fetching one extra row
+     */
+    public static <T> PageResponse<T> ofSlice(List<T> data, int page, int limit, boolean hasNext) {
+        return PageResponse.<T>builder()
+                .data(data)
+                .pagination(PaginationMeta.builder()
+                        .page(page)
+                        .limit(limit)
+                        .hasNext(hasNext)
+                        .hasPrev(page > 1)
+                        .build())
+                .build();
+    }
+
+    /**
+     * Keyset (cursor) page: no page number and no total, only the cursor of the next page
+     */
+    public static <T> PageResponse<T> ofCursor(List<T> data, int limit, boolean hasPrev, String nextCursor) {
+        return PageResponse.<T>builder()
+                .data(data)
+                .pagination(PaginationMeta.builder()
+                        .limit(limit)
+                        .hasNext(nextCursor != null)
+                        .hasPrev(hasPrev)
+                        .nextCursor(nextCursor)
+                        .build())
+                .build();
+    }
 }
@@ -23,6 +23,20 @@ public class ResourceNotFoundException extends RuntimeException {
         this.fieldValue = null;
     }
 
+    private ResourceNotFoundException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.resourceName = null;
+        this.fieldName = null;
+        this.fieldValue = null;
+    }
+
+    /**
+     * For expected misses (e.g. ids probed by scanners): a 404 needs no stack trace
+     */
+    public static ResourceNotFoundException withoutStackTrace(String message) {
+        return new ResourceNotFoundException(message, false);
+    }
+
     public String getResourceName() {
         return resourceName;
     }
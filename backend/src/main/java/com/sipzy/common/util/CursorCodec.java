@@ -0,0 +1,67 @@
+package com.sipzy.common.util;
+
+import com.sipzy.common.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination cursors.
+ *
+ * A cursor is the URL-safe Base64 of its parts joined by '|': a sort tag first,
+ * then the sort key(s) and id of the last row returned. Only the last part may
+ * itself contain '|' (e.g. a coffee name).
+ */
+public final class CursorCodec {
+
+    /**
+     * Upper bound used as the "after" key of a first page sorted by a timestamp, newest first
+     */
+    public static final Instant MAX_INSTANT = Instant.parse("9999-12-31T00:00:00Z");
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+        // Prevent instantiation
+    }
+
+    public static String encode(Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(parts[i] != null ? parts[i] : "");
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor and check that it was issued for the expected sort
+     *
+     * @throws BadRequestException when the cursor is malformed or belongs to another sort
+     */
+    public static String[] decode(String cursor, String expectedSort, int expectedParts) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split("\\|", expectedParts);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+
+        if (parts.length != expectedParts || !parts[0].equals(expectedSort)) {
+            throw new BadRequestException("Invalid cursor for sort: " + expectedSort);
+        }
+        return parts;
+    }
+
+    /**
+     * Empty cursor = first page in cursor mode, null = classic page/offset mode
+     */
+    public static boolean isFirstPage(String cursor) {
+        return cursor != null && cursor.isEmpty();
+    }
+}
@@ -0,0 +1,43 @@
+package com.sipzy.common.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Accent- and case-folding for in-memory text matching ("Café Crème" -> "cafe creme").
+ *
+ * Mirrors what the {@code french_unaccent} search configuration does on the database side,
+ * so that a prefix typed without accents matches accented names.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TextNormalizer() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Lower-case, strip accents, turn punctuation into single spaces and trim.
+     * Keeps a trailing space so that "ethiopia " only matches a following word.
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.replace("œ", "oe").replace("Œ", "Oe")
+                .replace("æ", "ae").replace("Æ", "Ae"), Normalizer.Form.NFD);
+        String folded = COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        String spaced = NON_ALPHANUMERIC.matcher(folded).replaceAll(" ");
+        return spaced.stripLeading();
+    }
+
+    /**
+     * {@link #fold} without the trailing space, for indexed names
+     */
+    public static String foldName(String text) {
+        return fold(text).stripTrailing();
+    }
+}
@@ -0,0 +1,51 @@
+package com.sipzy.common.web;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET: answers 304 from a {@link VersionStamp} before the body is built.
+ *
+ * The stamp is checked against If-None-Match / If-Modified-Since first; only on a miss is
+ * the body supplier called. Both answers carry the validators and "Cache-Control: no-cache"
+ * (store, but revalidate), which replaces the no-store default of Spring Security.
+ */
+public final class ConditionalGet {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
+    private ConditionalGet() {
+        // Prevent instantiation
+    }
+
+    /**
+     * @param stamp validators of the current version, or null to always answer with the body
+     */
+    public static <T> ResponseEntity<T> respond(WebRequest request, VersionStamp stamp, Supplier<T> body) {
+        return respond(request, stamp, REVALIDATE, body);
+    }
+
+    /**
+     * Same, with the caching policy of the response (e.g. long-lived for a versioned URL)
+     */
+    public static <T> ResponseEntity<T> respond(WebRequest request, VersionStamp stamp,
+                                                CacheControl cacheControl, Supplier<T> body) {
+        if (stamp == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        long lastModified = stamp.lastModified() != null ? stamp.lastModified().toEpochMilli() : -1;
+        boolean notModified = request.checkNotModified(stamp.etag(), lastModified);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(stamp.etag())
+                .cacheControl(cacheControl);
+        if (stamp.lastModified() != null) {
+            response.lastModified(stamp.lastModified());
+        }
+        return notModified ? response.build() : response.body(body.get());
+    }
+}
@@ -0,0 +1,138 @@
+package com.sipzy.common.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Final bytes of hot JSON responses (homepage lists), so a hit skips Jackson and gzip.
+ *
+ * One entry per key holds the UTF-8 JSON and, above {@link #MIN_GZIP_BYTES}, a gzipped copy
+ * served to clients accepting it. An entry is tied to the ETag of the {@link VersionStamp}
+ * it was built for: when the version moves the next request rebuilds it. Callers serving a
+ * cached object take the stamp from that object (see CatalogVersions.coffeeList), so stored
+ * bytes always match their tag, even between a commit and the eviction of the Spring cache
+ * behind them. Entries also expire after the configured TTL, which bounds staleness from
+ * changes no version tracks (e.g. reviewer profiles).
+ * Conditional requests are answered first, exactly as {@link ConditionalGet} does.
+ */
+@Slf4j
+@Component
+public class SerializedResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Keys embed client parameters (limit); past this many, responses are serialized uncached
+    private static final int MAX_ENTRIES = 256;
+    // Below this, gzip framing costs more than it saves
+    private static final int MIN_GZIP_BYTES = 1024;
+
+    private record Entry(String etag, Instant expiresAt, byte[] json, byte[] gzip) {
+    }
+
+    public SerializedResponseCache(
+            ObjectMapper objectMapper,
+            @Value("${app.response-cache.ttl:PT5M}") Duration ttl
+    ) {
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+    }
+
+    public ResponseEntity<byte[]> respond(WebRequest request, String key, VersionStamp stamp, Supplier<?> body) {
+        return respond(request, key, stamp, CacheControl.noCache(), body);
+    }
+
+    /**
+     * @param key   the endpoint and its parameters, e.g. "popular:8"
+     * @param stamp validators of the current version (required: they key the stored bytes)
+     */
+    public ResponseEntity<byte[]> respond(WebRequest request, String key, VersionStamp stamp,
+                                          CacheControl cacheControl, Supplier<?> body) {
+        ResponseEntity<Entry> response = ConditionalGet.respond(request, stamp, cacheControl,
+                () -> entry(key, stamp, body));
+        if (response.getBody() == null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(response.getHeaders()).build();
+        }
+
+        Entry entry = response.getBody();
+        boolean gzip = entry.gzip() != null && acceptsGzip(request);
+        byte[] bytes = gzip ? entry.gzip() : entry.json();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(bytes.length);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return new ResponseEntity<>(bytes, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Drop every stored response (they are rebuilt on demand)
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private Entry entry(String key, VersionStamp stamp, Supplier<?> body) {
+        Instant now = Instant.now();
+        Entry cached = entries.get(key);
+        if (cached != null && cached.etag().equals(stamp.etag()) && now.isBefore(cached.expiresAt())) {
+            return cached;
+        }
+
+        Entry built = serialize(stamp.etag(), now.plus(ttl), body.get());
+        if (cached != null || entries.size() < MAX_ENTRIES) {
+            entries.put(key, built);
+        }
+        log.debug("Serialized response {} ({} bytes, gzip {})", key, built.json().length,
+                built.gzip() != null ? built.gzip().length : "-");
+        return built;
+    }
+
+    private Entry serialize(String etag, Instant expiresAt, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new Entry(etag, expiresAt, json, json.length >= MIN_GZIP_BYTES ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response serialization failed", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean acceptsGzip(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+}
@@ -0,0 +1,47 @@
+package com.sipzy.common.web;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * HTTP validators of a response: a digest of the parts it is built from, either version data
+ * (timestamps, counters, ids) or the served payload itself.
+ *
+ * The ETag is a weak tag over the parts (a response is equivalent, not byte-identical,
+ * once compressed); {@code lastModified} is null unless one date moves with every change of
+ * the response, removals included.
+ */
+public record VersionStamp(
+        String etag,
+        Instant lastModified
+) {
+
+    private static final int TAG_BYTES = 12;
+
+    public static VersionStamp of(Instant lastModified, Object... parts) {
+        return new VersionStamp("W/\"" + digest(parts) + "\"", lastModified);
+    }
+
+    /**
+     * Short hex digest of the parts' string forms: equal parts give the same digest on every node
+     */
+    public static String digest(Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (Object part : parts) {
+            raw.append(part).append('|');
+        }
+        byte[] digest = sha256(raw.toString().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest, 0, TAG_BYTES);
+    }
+
+    private static byte[] sha256(byte[] input) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
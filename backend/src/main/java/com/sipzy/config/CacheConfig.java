@@ -1,18 +1,130 @@
 package com.sipzy.config;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sipzy.coffee.service.CoffeeQueryService;
+import com.sipzy.common.cache.CacheReloader;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Cache Configuration
- * Enables caching for frequently accessed data to improve performance
- * Uses Spring's default simple cache implementation (ConcurrentHashMap)
+ * Caffeine caches (W-TinyLFU admission), bounded and expiring per cache as configured under
+ * app.caches in application.yml; caches not listed there get the defaults.
  *
- * For production, consider using Redis or Caffeine for distributed caching
+ * Statistics are recorded for every cache and published as cache.* metrics (actuator
+ * /actuator/metrics, /actuator/caches). Refresh-after-write serves the current value while
+ * reloading it in the background, which needs a {@link CacheReloader} for that cache.
  */
+@Slf4j
 @Configuration
 @EnableCaching
 public class CacheConfig {
-    // Spring Boot will auto-configure a simple ConcurrentMapCacheManager
-    // when @EnableCaching is present and no explicit CacheManager is defined
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties properties, ObjectProvider<CacheReloader> reloaders) {
+        Map<String, CacheReloader> reloadersByCache = reloaders.orderedStream()
+                .collect(Collectors.toMap(CacheReloader::cacheName, Function.identity()));
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(builder(properties.getDefaults()));
+
+        properties.getSpecs().forEach((name, spec) -> {
+            Caffeine<Object, Object> builder = builder(properties.getDefaults().merge(spec));
+            CacheReloader reloader = reloadersByCache.get(name);
+            if (spec.getRefreshAfterWrite() == null) {
+                cacheManager.registerCustomCache(name, builder.build());
+            } else if (reloader == null) {
+                log.warn("Cache {} has refresh-after-write but no reloader, refresh disabled", name);
+                cacheManager.registerCustomCache(name, builder.build());
+            } else {
+                CacheLoader<Object, Object> loader = reloader::reload;
+                cacheManager.registerCustomCache(name,
+                        builder.refreshAfterWrite(spec.getRefreshAfterWrite()).build(loader));
+            }
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public CacheReloader popularCoffeesReloader(ObjectProvider<CoffeeQueryService> coffeeQueryService) {
+        return new CacheReloader("popularCoffees",
+                limit -> coffeeQueryService.getObject().loadPopularCoffees((Integer) limit));
+    }
+
+    @Bean
+    public CacheReloader recentCoffeesReloader(ObjectProvider<CoffeeQueryService> coffeeQueryService) {
+        return new CacheReloader("recentCoffees",
+                limit -> coffeeQueryService.getObject().loadRecentCoffees((Integer) limit));
+    }
+
+    static Caffeine<Object, Object> builder(CacheSpec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (spec.getMaximumSize() != null) {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        if (spec.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        return builder;
+    }
+
+    /**
+     * Cache settings (configurable via application.yml, app.caches)
+     */
+    @Component
+    @ConfigurationProperties(prefix = "app.caches")
+    @Getter
+    @Setter
+    public static class CacheProperties {
+
+        // Caches created on first use, and settings missing from a spec
+        private CacheSpec defaults = new CacheSpec(1000L, Duration.ofMinutes(10), null);
+
+        // Per cache name
+        private Map<String, CacheSpec> specs = new LinkedHashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class CacheSpec {
+
+        private Long maximumSize;
+        private Duration expireAfterWrite;
+        private Duration refreshAfterWrite;
+
+        public CacheSpec() {
+        }
+
+        public CacheSpec(Long maximumSize, Duration expireAfterWrite, Duration refreshAfterWrite) {
+            this.maximumSize = maximumSize;
+            this.expireAfterWrite = expireAfterWrite;
+            this.refreshAfterWrite = refreshAfterWrite;
+        }
+
+        /**
+         * These settings, overridden by the ones set in the given spec
+         */
+        CacheSpec merge(CacheSpec override) {
+            return new CacheSpec(
+                    override.maximumSize != null ? override.maximumSize : maximumSize,
+                    override.expireAfterWrite != null ? override.expireAfterWrite : expireAfterWrite,
+                    override.refreshAfterWrite != null ? override.refreshAfterWrite : refreshAfterWrite);
+        }
+    }
 }
@@ -0,0 +1,14 @@
+package com.sipzy.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration
+ * Enables @Scheduled methods (trending score decay and checkpoints, invalidation bus flushes,
+ * rating aggregates verification, retries of failed index builds)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
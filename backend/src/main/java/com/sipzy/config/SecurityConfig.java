@@ -1,5 +1,6 @@
 package com.sipzy.config;
 
+import com.sipzy.coffee.index.ReferenceDataSnapshot;
 import com.sipzy.config.security.JwtAuthenticationFilter;
 import com.sipzy.security.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
@@ -56,7 +57,10 @@ public class SecurityConfig {
                         ).permitAll()
 
                         // Public endpoints - Health check
-                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+
+                        // Actuator (metrics, caches) - Require ADMIN role
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                         // Public READ endpoints - Coffees
                         .requestMatchers(HttpMethod.GET, "/api/coffees/**").permitAll()
@@ -65,6 +69,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/roasters/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/notes/**").permitAll()
 
+                        // Public READ endpoints - Search (typeahead)
+                        .requestMatchers(HttpMethod.GET, "/api/search/**").permitAll()
+
                         // Public READ endpoints - Reviews
                         .requestMatchers(HttpMethod.GET, "/api/reviews/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/coffees/*/reviews").permitAll()
@@ -124,6 +131,7 @@ public class SecurityConfig {
         ));
 
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("ETag", ReferenceDataSnapshot.VERSION_HEADER));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
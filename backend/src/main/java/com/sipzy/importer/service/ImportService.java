@@ -3,6 +3,8 @@ package com.sipzy.importer.service;
 import com.sipzy.coffee.domain.Coffee;
 import com.sipzy.coffee.domain.Note;
 import com.sipzy.coffee.domain.Roaster;
+import com.sipzy.coffee.event.CoffeeChangedEvent;
+import com.sipzy.coffee.event.ReferenceDataChangedEvent;
 import com.sipzy.coffee.repository.CoffeeRepository;
 import com.sipzy.coffee.repository.NoteRepository;
 import com.sipzy.coffee.repository.RoasterRepository;
@@ -17,7 +19,7 @@ import com.sipzy.user.domain.User;
 import com.sipzy.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -41,6 +43,7 @@ public class ImportService {
     private final NoteRepository noteRepository;
     private final UserRepository userRepository;
     private final ImageDownloadService imageDownloadService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Import a single roaster.
@@ -116,6 +119,7 @@ public class ImportService {
         roaster.setIsVerified(request.getIsVerified() != null ? request.getIsVerified() : true);
 
         roaster = roasterRepository.save(roaster);
+        eventPublisher.publishEvent(ReferenceDataChangedEvent.roaster(roaster.getId()));
         log.info("Created roaster: {} with ID: {}", roaster.getName(), roaster.getId());
 
         if (warning != null) {
@@ -194,6 +198,7 @@ public class ImportService {
         }
 
         roaster = roasterRepository.save(roaster);
+        eventPublisher.publishEvent(ReferenceDataChangedEvent.roaster(roaster.getId()));
         log.info("Updated roaster: {} with ID: {}", roaster.getName(), roaster.getId());
 
         if (warning != null) {
@@ -221,7 +226,6 @@ public class ImportService {
      * @return The import result
      */
     @Transactional
-    @CacheEvict(value = {"coffees", "popularCoffees", "recentCoffees"}, allEntries = true)
     public ImportResult importCoffee(ImportCoffeeRequest request) {
         try {
             log.info("Importing coffee: {}", request.getName());
@@ -323,6 +327,7 @@ public class ImportService {
 
         coffee = coffeeRepository.save(coffee);
         log.info("Created coffee: {} with ID: {}, status: {}", coffee.getName(), coffee.getId(), coffee.getStatus());
+        eventPublisher.publishEvent(CoffeeChangedEvent.created(coffee.getId()));
 
         if (warning != null) {
             return ImportResult.successWithWarning(
@@ -427,12 +432,17 @@ public class ImportService {
         }
 
         // Handle auto-approve
+        boolean approved = false;
         if (request.getAutoApprove() != null && request.getAutoApprove() && coffee.isPending()) {
             coffee.setStatus(Coffee.CoffeeStatus.APPROVED);
+            approved = true;
         }
 
         coffee = coffeeRepository.save(coffee);
         log.info("Updated coffee: {} with ID: {}", coffee.getName(), coffee.getId());
+        eventPublisher.publishEvent(approved
+                ? CoffeeChangedEvent.statusChanged(coffee.getId())
+                : CoffeeChangedEvent.updated(coffee.getId()));
 
         if (warning != null) {
             return ImportResult.successWithWarning(
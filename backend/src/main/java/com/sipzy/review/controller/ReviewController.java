@@ -3,6 +3,8 @@ package com.sipzy.review.controller;
 import com.sipzy.common.dto.ApiResponse;
 import com.sipzy.common.dto.PageResponse;
 import com.sipzy.common.util.JwtUtil;
+import com.sipzy.common.web.ConditionalGet;
+import com.sipzy.common.web.SerializedResponseCache;
 import com.sipzy.review.dto.request.CreateReviewRequest;
 import com.sipzy.review.dto.request.VoteReviewRequest;
 import com.sipzy.review.dto.response.ReviewResponse;
@@ -17,8 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Controller pour les avis (CQRS: séparation lecture/écriture)
@@ -33,21 +34,30 @@ public class ReviewController {
 
     private final ReviewQueryService reviewQueryService;
     private final ReviewCommandService reviewCommandService;
+    private final SerializedResponseCache responseCache;
     private final JwtUtil jwtUtil;
 
     @GetMapping("/coffees/{coffeeId}/reviews")
-    @Operation(summary = "Avis d'un café", description = "Récupérer tous les avis d'un café")
+    @Operation(summary = "Avis d'un café",
+            description = "Récupérer les avis d'un café, triés par newest, oldest, highest, lowest ou helpful, "
+                    + "éventuellement filtrés sur une note (1 à 5). Pagination par page ou par curseur")
     public ResponseEntity<PageResponse<ReviewResponse>> getReviewsByCoffeeId(
             @PathVariable Long coffeeId,
             @RequestParam(defaultValue = "helpful") String sortBy,
+            @RequestParam(required = false) Integer rating,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int limit
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            WebRequest request
     ) {
-        log.info("Get reviews for coffee id: {}, sortBy: {}", coffeeId, sortBy);
-
-        PageResponse<ReviewResponse> response = reviewQueryService.getReviewsByCoffeeId(coffeeId, sortBy, page, limit);
+        log.info("Get reviews for coffee id: {}, sortBy: {}, rating: {}", coffeeId, sortBy, rating);
 
-        return ResponseEntity.ok(response);
+        return ConditionalGet.respond(request,
+                reviewQueryService.getReviewsVersion(coffeeId, sortBy, rating, page, limit, cursor, withTotal),
+                () -> cursor != null
+                        ? reviewQueryService.getReviewsByCoffeeIdAfter(coffeeId, sortBy, rating, cursor, limit)
+                        : reviewQueryService.getReviewsByCoffeeId(coffeeId, sortBy, rating, page, limit, withTotal));
     }
 
     @PostMapping("/reviews")
@@ -111,13 +121,13 @@ public class ReviewController {
 
     @GetMapping("/reviews/recent")
     @Operation(summary = "Avis récents", description = "Avis récents global")
-    public ResponseEntity<ApiResponse<List<ReviewResponse>>> getRecentReviews(
-            @RequestParam(defaultValue = "6") int limit
+    public ResponseEntity<byte[]> getRecentReviews(
+            @RequestParam(defaultValue = "6") int limit,
+            WebRequest request
     ) {
         log.info("Get recent reviews, limit: {}", limit);
 
-        List<ReviewResponse> response = reviewQueryService.getRecentReviews(limit);
-
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return responseCache.respond(request, "reviews:recent:" + limit, reviewQueryService.getRecentReviewsVersion(limit),
+                () -> ApiResponse.success(reviewQueryService.getRecentReviews(limit)));
     }
 }
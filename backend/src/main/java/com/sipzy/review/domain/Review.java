@@ -48,11 +48,12 @@ public class Review {
     @Column(name = "brew_method", length = 50)
     private String brewMethod;
 
-    @Column(name = "helpful_count")
+    // Written only by ReviewVoteCounters (batched deltas), never by entity saves
+    @Column(name = "helpful_count", updatable = false)
     @Builder.Default
     private Integer helpfulCount = 0;
 
-    @Column(name = "not_helpful_count")
+    @Column(name = "not_helpful_count", updatable = false)
     @Builder.Default
     private Integer notHelpfulCount = 0;
 
@@ -77,26 +78,6 @@ public class Review {
         this.comment = newComment;
     }
 
-    public void incrementHelpfulCount() {
-        this.helpfulCount++;
-    }
-
-    public void decrementHelpfulCount() {
-        if (this.helpfulCount > 0) {
-            this.helpfulCount--;
-        }
-    }
-
-    public void incrementNotHelpfulCount() {
-        this.notHelpfulCount++;
-    }
-
-    public void decrementNotHelpfulCount() {
-        if (this.notHelpfulCount > 0) {
-            this.notHelpfulCount--;
-        }
-    }
-
     public boolean canBeEditedBy(User currentUser) {
         if (currentUser == null) {
             return false;
@@ -0,0 +1,13 @@
+package com.sipzy.review.dto.response;
+
+import java.util.List;
+
+/**
+ * Outcome of a review vote counters verification
+ */
+public record VoteDriftResponse(
+    Integer driftedReviews,
+    List<Long> reviewIds,
+    Integer repairedReviews,
+    Long durationMs
+) {}
@@ -0,0 +1,10 @@
+package com.sipzy.review.repository;
+
+import java.time.Instant;
+
+/**
+ * Keyset position in a review listing: rows strictly after it in the {@link ReviewSort} order.
+ * Only the keys of that sort are set.
+ */
+public record ReviewPosition(Short rating, Instant createdAt, Integer helpfulCount, Long id) {
+}
@@ -5,22 +5,36 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface ReviewRepository extends JpaRepository<Review, Long> {
+public interface ReviewRepository extends JpaRepository<Review, Long>, ReviewRepositoryCustom {
+
+    // Totals of the listings in ReviewRepositoryCustom, served through the count cache
+    long countByCoffeeId(Long coffeeId);
+
+    long countByCoffeeIdAndRating(Long coffeeId, Short rating);
 
-    Page<Review> findByCoffeeId(Long coffeeId, Pageable pageable);
+    // Version stamp behind the HTTP validators of a coffee's review pages: the review count kept on
+    // the coffee by the V21 triggers, and one probe of idx_reviews_coffee_updated (V26) for the MAX
+    @Query("SELECT new com.sipzy.review.repository.ReviewsStamp(c.reviewCount, " +
+           "(SELECT MAX(r.updatedAt) FROM Review r WHERE r.coffee.id = c.id)) " +
+           "FROM Coffee c WHERE c.id = :coffeeId")
+    ReviewsStamp findStampByCoffeeId(@Param("coffeeId") Long coffeeId);
 
     Page<Review> findByUserId(Long userId, Pageable pageable);
 
     boolean existsByCoffeeIdAndUserId(Long coffeeId, Long userId);
 
-    // Find reviews sorted by helpful count
-    @Query("SELECT r FROM Review r WHERE r.coffee.id = :coffeeId ORDER BY r.helpfulCount DESC")
-    Page<Review> findByCoffeeIdOrderByHelpfulCountDesc(Long coffeeId, Pageable pageable);
-
-    // Find recent reviews globally
-    @Query("SELECT r FROM Review r ORDER BY r.createdAt DESC")
+    // Find recent reviews globally (id breaks ties, so every node lists the same reviews)
+    @Query("SELECT r FROM Review r ORDER BY r.createdAt DESC, r.id DESC")
     Page<Review> findRecentReviews(Pageable pageable);
+
+    // Version rows of the recent feed: each review with the updated_at of the coffee and roaster it inlines
+    @Query("SELECT r.id, r.updatedAt, c.updatedAt, ro.updatedAt FROM Review r JOIN r.coffee c LEFT JOIN c.roaster ro " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Object[]> findRecentVersionRows(Pageable pageable);
 }
@@ -0,0 +1,18 @@
+package com.sipzy.review.repository;
+
+import com.sipzy.review.domain.Review;
+
+import java.util.List;
+
+/**
+ * Review listings of a coffee in any {@link ReviewSort}, optionally filtered on one rating
+ */
+public interface ReviewRepositoryCustom {
+
+    /**
+     * Up to limit reviews of the coffee in the sort order, starting after the keyset position
+     * (null = from the start) and skipping offset rows
+     */
+    List<Review> findPageByCoffeeId(Long coffeeId, Short rating, ReviewSort sort, ReviewPosition after,
+                                    int offset, int limit);
+}
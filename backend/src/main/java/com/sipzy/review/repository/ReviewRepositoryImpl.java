@@ -0,0 +1,57 @@
+package com.sipzy.review.repository;
+
+import com.sipzy.review.domain.Review;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+/**
+ * Spring Data fragment behind {@link ReviewRepositoryCustom}.
+ *
+ * Only the predicates in use are written into the statement (no "(:x IS NULL OR ...)"), so the
+ * planner sees coffee_id and the rating filter as equalities and walks the index of the sort:
+ * each page is an index range scan of limit rows, whatever its depth in keyset mode.
+ */
+class ReviewRepositoryImpl implements ReviewRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Review> findPageByCoffeeId(Long coffeeId, Short rating, ReviewSort sort, ReviewPosition after,
+                                           int offset, int limit) {
+        TypedQuery<Review> query = entityManager.createQuery(jpql(rating != null, sort, after), Review.class)
+                .setParameter("coffeeId", coffeeId);
+        if (rating != null) {
+            query.setParameter("rating", rating);
+        }
+        if (after != null) {
+            if (after.rating() != null) {
+                query.setParameter("afterRating", after.rating());
+            }
+            if (after.createdAt() != null) {
+                query.setParameter("afterCreatedAt", after.createdAt());
+            }
+            if (after.helpfulCount() != null) {
+                query.setParameter("afterHelpfulCount", after.helpfulCount());
+            }
+            query.setParameter("afterId", after.id());
+        }
+        return query.setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    static String jpql(boolean ratingFilter, ReviewSort sort, ReviewPosition after) {
+        StringBuilder jpql = new StringBuilder("SELECT r FROM Review r WHERE r.coffee.id = :coffeeId");
+        if (ratingFilter) {
+            jpql.append(" AND r.rating = :rating");
+        }
+        if (after != null) {
+            jpql.append(" AND ").append(sort.seek());
+        }
+        return jpql.append(" ORDER BY ").append(sort.orderBy()).toString();
+    }
+}
@@ -0,0 +1,106 @@
+package com.sipzy.review.repository;
+
+import com.sipzy.review.domain.Review;
+
+import java.time.Instant;
+
+/**
+ * Sort orders of a coffee's reviews, each with its keyset seek condition.
+ *
+ * Every order ends with the id so that it is total, and runs in the direction of one composite
+ * index on (coffee_id, ...) from V15 / V23: LOWEST and OLDEST are the backward scans of the
+ * HIGHEST and NEWEST indexes, which is why their tie-breakers are ascending too.
+ */
+public enum ReviewSort {
+
+    NEWEST("r.createdAt DESC, r.id DESC",
+            "(r.createdAt < :afterCreatedAt OR (r.createdAt = :afterCreatedAt AND r.id < :afterId))"),
+
+    OLDEST("r.createdAt ASC, r.id ASC",
+            "(r.createdAt > :afterCreatedAt OR (r.createdAt = :afterCreatedAt AND r.id > :afterId))"),
+
+    HIGHEST("r.rating DESC, r.createdAt DESC, r.id DESC",
+            "(r.rating < :afterRating OR (r.rating = :afterRating AND "
+                    + "(r.createdAt < :afterCreatedAt OR (r.createdAt = :afterCreatedAt AND r.id < :afterId))))"),
+
+    LOWEST("r.rating ASC, r.createdAt ASC, r.id ASC",
+            "(r.rating > :afterRating OR (r.rating = :afterRating AND "
+                    + "(r.createdAt > :afterCreatedAt OR (r.createdAt = :afterCreatedAt AND r.id > :afterId))))"),
+
+    HELPFUL("r.helpfulCount DESC, r.id DESC",
+            "(r.helpfulCount < :afterHelpfulCount OR (r.helpfulCount = :afterHelpfulCount AND r.id < :afterId))");
+
+    private final String orderBy;
+    private final String seek;
+
+    ReviewSort(String orderBy, String seek) {
+        this.orderBy = orderBy;
+        this.seek = seek;
+    }
+
+    String orderBy() {
+        return orderBy;
+    }
+
+    String seek() {
+        return seek;
+    }
+
+    /**
+     * Tag of the cursors issued for this sort ("reviews-newest", "reviews-helpful", ...)
+     */
+    public String cursorTag() {
+        return "reviews-" + name().toLowerCase();
+    }
+
+    /**
+     * Number of cursor parts: the tag, the sort keys, then the id
+     */
+    public int cursorParts() {
+        return switch (this) {
+            case HIGHEST, LOWEST -> 4;
+            default -> 3;
+        };
+    }
+
+    /**
+     * Cursor parts after the given row: the tag, its sort keys and its id
+     */
+    public Object[] cursorOf(Review review) {
+        return switch (this) {
+            case NEWEST, OLDEST -> new Object[] {cursorTag(), review.getCreatedAt(), review.getId()};
+            case HIGHEST, LOWEST -> new Object[] {cursorTag(), review.getRating(), review.getCreatedAt(), review.getId()};
+            case HELPFUL -> new Object[] {cursorTag(), review.getHelpfulCount(), review.getId()};
+        };
+    }
+
+    /**
+     * Keyset position from decoded cursor parts
+     *
+     * @throws NumberFormatException or DateTimeParseException when a part is malformed
+     */
+    public ReviewPosition positionOf(String[] parts) {
+        return switch (this) {
+            case NEWEST, OLDEST -> new ReviewPosition(null, Instant.parse(parts[1]), null, Long.parseLong(parts[2]));
+            case HIGHEST, LOWEST -> new ReviewPosition(Short.parseShort(parts[1]), Instant.parse(parts[2]), null,
+                    Long.parseLong(parts[3]));
+            case HELPFUL -> new ReviewPosition(null, null, Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+        };
+    }
+
+    /**
+     * Map the public sortBy parameter (newest, oldest, highest, lowest, helpful) to a sort
+     */
+    public static ReviewSort fromParam(String sortBy) {
+        if (sortBy == null) {
+            return HELPFUL;
+        }
+        return switch (sortBy.toLowerCase()) {
+            case "newest", "recent", "created" -> NEWEST;
+            case "oldest" -> OLDEST;
+            case "highest", "rating" -> HIGHEST;
+            case "lowest" -> LOWEST;
+            default -> HELPFUL;
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.sipzy.review.repository;
+
+import java.time.Instant;
+
+/**
+ * Review count and latest review update of one coffee (lastUpdated is null without reviews)
+ */
+public record ReviewsStamp(
+        Integer count,
+        Instant lastUpdated
+) {
+}
@@ -1,6 +1,8 @@
 package com.sipzy.review.service;
 
 import com.sipzy.coffee.domain.Coffee;
+import com.sipzy.coffee.event.CoffeeActivityEvent;
+import com.sipzy.coffee.event.CoffeeChangedEvent;
 import com.sipzy.coffee.repository.CoffeeRepository;
 import com.sipzy.common.exception.ConflictException;
 import com.sipzy.common.exception.ForbiddenException;
@@ -18,8 +20,11 @@ import com.sipzy.user.domain.User;
 import com.sipzy.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
 
@@ -37,6 +42,8 @@ public class ReviewCommandService {
     private final CoffeeRepository coffeeRepository;
     private final UserRepository userRepository;
     private final ReviewMapper reviewMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReviewVoteCounters reviewVoteCounters;
 
     public ReviewResponse createReview(CreateReviewRequest request, Long userId) {
         log.info("Creating review for coffee id: {} by user: {}", request.getCoffeeId(), userId);
@@ -61,6 +68,8 @@ public class ReviewCommandService {
 
         review = reviewRepository.save(review);
         log.info("Review created with id: {}", review.getId());
+        eventPublisher.publishEvent(CoffeeChangedEvent.ratingChanged(coffee.getId()));
+        eventPublisher.publishEvent(CoffeeActivityEvent.review(coffee.getId()));
 
         return reviewMapper.toReviewResponse(review);
     }
@@ -83,6 +92,7 @@ public class ReviewCommandService {
 
         review = reviewRepository.save(review);
         log.info("Review updated: {}", review.getId());
+        eventPublisher.publishEvent(CoffeeChangedEvent.ratingChanged(review.getCoffee().getId()));
 
         return reviewMapper.toReviewResponse(review);
     }
@@ -100,8 +110,10 @@ public class ReviewCommandService {
             throw new ForbiddenException("You don't have permission to delete this review");
         }
 
+        Long coffeeId = review.getCoffee().getId();
         reviewRepository.delete(review);
         log.info("Review deleted: {}", reviewId);
+        eventPublisher.publishEvent(CoffeeChangedEvent.ratingChanged(coffeeId));
     }
 
     public ReviewVoteResponse voteReview(Long reviewId, VoteReviewRequest request, Long userId) {
@@ -113,32 +125,29 @@ public class ReviewCommandService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        // Check if user already voted
+        // Votes are rows; counter deltas go to the write-behind counters once the vote commits
         Optional<ReviewVote> existingVote = reviewVoteRepository.findByReviewIdAndUserId(reviewId, userId);
+        int helpfulDelta;
+        int notHelpfulDelta;
 
         if (existingVote.isPresent()) {
             ReviewVote vote = existingVote.get();
+            boolean wasHelpful = vote.getIsHelpful();
 
             // If same vote, remove it (toggle behavior)
-            if (vote.getIsHelpful().equals(request.isHelpful())) {
-                // Remove vote
-                if (vote.getIsHelpful()) {
-                    review.decrementHelpfulCount();
-                } else {
-                    review.decrementNotHelpfulCount();
-                }
+            if (wasHelpful == request.isHelpful()) {
+                helpfulDelta = wasHelpful ? -1 : 0;
+                notHelpfulDelta = wasHelpful ? 0 : -1;
                 reviewVoteRepository.delete(vote);
             } else {
                 // Change vote
-                if (vote.getIsHelpful()) {
-                    review.decrementHelpfulCount();
-                    review.incrementNotHelpfulCount();
-                } else {
-                    review.decrementNotHelpfulCount();
-                    review.incrementHelpfulCount();
-                }
+                helpfulDelta = wasHelpful ? -1 : 1;
+                notHelpfulDelta = -helpfulDelta;
                 vote.setIsHelpful(request.isHelpful());
                 reviewVoteRepository.save(vote);
+                if (request.isHelpful()) {
+                    eventPublisher.publishEvent(CoffeeActivityEvent.helpfulVote(review.getCoffee().getId()));
+                }
             }
         } else {
             // New vote
@@ -148,23 +157,38 @@ public class ReviewCommandService {
                 .isHelpful(request.isHelpful())
                 .build();
 
-            if (request.isHelpful()) {
-                review.incrementHelpfulCount();
-            } else {
-                review.incrementNotHelpfulCount();
-            }
+            helpfulDelta = request.isHelpful() ? 1 : 0;
+            notHelpfulDelta = request.isHelpful() ? 0 : 1;
 
             reviewVoteRepository.save(newVote);
+            if (request.isHelpful()) {
+                eventPublisher.publishEvent(CoffeeActivityEvent.helpfulVote(review.getCoffee().getId()));
+            }
         }
 
-        reviewRepository.save(review);
+        bufferVoteCounts(reviewId, helpfulDelta, notHelpfulDelta);
         log.info("Vote processed for review: {}", reviewId);
 
+        // Optimistic counts: stored counters, plus deltas not flushed yet, plus this vote
+        long[] pending = reviewVoteCounters.pending(reviewId);
         return new ReviewVoteResponse(
             reviewId,
             request.isHelpful(),
-            review.getHelpfulCount(),
-            review.getNotHelpfulCount()
+            (int) Math.max(0, review.getHelpfulCount() + pending[0] + helpfulDelta),
+            (int) Math.max(0, review.getNotHelpfulCount() + pending[1] + notHelpfulDelta)
         );
     }
+
+    private void bufferVoteCounts(Long reviewId, int helpfulDelta, int notHelpfulDelta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reviewVoteCounters.add(reviewId, helpfulDelta, notHelpfulDelta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reviewVoteCounters.add(reviewId, helpfulDelta, notHelpfulDelta);
+            }
+        });
+    }
 }
@@ -1,19 +1,31 @@
 package com.sipzy.review.service;
 
+import com.sipzy.coffee.event.CoffeeChangedEvent;
+import com.sipzy.common.cache.CountCache;
 import com.sipzy.common.dto.PageResponse;
+import com.sipzy.common.exception.BadRequestException;
 import com.sipzy.common.exception.ResourceNotFoundException;
+import com.sipzy.common.util.CursorCodec;
+import com.sipzy.common.web.VersionStamp;
 import com.sipzy.review.domain.Review;
 import com.sipzy.review.dto.response.ReviewResponse;
 import com.sipzy.review.mapper.ReviewMapper;
+import com.sipzy.review.repository.ReviewPosition;
 import com.sipzy.review.repository.ReviewRepository;
+import com.sipzy.review.repository.ReviewSort;
+import com.sipzy.review.repository.ReviewsStamp;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -28,24 +40,99 @@ public class ReviewQueryService {
 
     private final ReviewRepository reviewRepository;
     private final ReviewMapper reviewMapper;
+    private final CountCache countCache;
 
-    public PageResponse<ReviewResponse> getReviewsByCoffeeId(Long coffeeId, String sortBy, int page, int limit) {
-        log.info("Getting reviews for coffee id: {}, sortBy: {}", coffeeId, sortBy);
+    private static final String COUNT_KEY_PREFIX = "reviews:";
 
-        Pageable pageable = PageRequest.of(page - 1, limit);
-        Page<Review> reviewPage;
+    /**
+     * Page of a coffee's reviews in the given sort (newest, oldest, highest, lowest, helpful),
+     * optionally only those with the given rating (1-5)
+     */
+    public PageResponse<ReviewResponse> getReviewsByCoffeeId(Long coffeeId, String sortBy, Integer rating,
+                                                             int page, int limit, boolean withTotal) {
+        log.info("Getting reviews for coffee id: {}, sortBy: {}, rating: {}", coffeeId, sortBy, rating);
 
-        if ("helpful".equalsIgnoreCase(sortBy)) {
-            reviewPage = reviewRepository.findByCoffeeIdOrderByHelpfulCountDesc(coffeeId, pageable);
-        } else {
-            reviewPage = reviewRepository.findByCoffeeId(coffeeId, pageable);
+        Short ratingFilter = toRatingFilter(rating);
+        ReviewSort sort = ReviewSort.fromParam(sortBy);
+        // Slice: limit + 1 rows and no COUNT, the total comes from the count cache
+        List<Review> rows = reviewRepository.findPageByCoffeeId(
+            coffeeId, ratingFilter, sort, null, (page - 1) * limit, limit + 1);
+        boolean hasNext = rows.size() > limit;
+
+        List<ReviewResponse> reviews = rows.stream()
+            .limit(limit)
+            .map(reviewMapper::toReviewResponse)
+            .collect(Collectors.toList());
+
+        if (!withTotal) {
+            return PageResponse.ofSlice(reviews, page, limit, hasNext);
+        }
+        long total = countCache.get(countKey(coffeeId, ratingFilter), () -> ratingFilter != null
+            ? reviewRepository.countByCoffeeIdAndRating(coffeeId, ratingFilter)
+            : reviewRepository.countByCoffeeId(coffeeId));
+        return PageResponse.of(reviews, page, limit, total);
+    }
+
+    /**
+     * Validators of a review page: the coffee's review count and latest review update, then
+     * the page parameters. Votes and edits move updated_at, additions and deletions the count.
+     */
+    public VersionStamp getReviewsVersion(Long coffeeId, Object... pageParams) {
+        ReviewsStamp stamp = reviewRepository.findStampByCoffeeId(coffeeId);
+        Integer count = stamp != null ? stamp.count() : null;
+        Instant lastUpdated = stamp != null ? stamp.lastUpdated() : null;
+        // No Last-Modified: a deleted review leaves the latest update in place
+        return VersionStamp.of(null, "reviews", coffeeId, count,
+            lastUpdated != null ? lastUpdated.toEpochMilli() : 0, Arrays.toString(pageParams));
+    }
+
+    /**
+     * Reviews were added or removed for a coffee (published as a rating change)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onCoffeeChanged(CoffeeChangedEvent event) {
+        if (event.change() == CoffeeChangedEvent.Change.RATING_CHANGED
+                || event.change() == CoffeeChangedEvent.Change.DELETED) {
+            countCache.invalidatePrefix(COUNT_KEY_PREFIX + event.coffeeId() + ":");
+        }
+    }
+
+    /**
+     * Keyset pagination over a coffee's reviews (empty cursor = first page), in any sort and
+     * rating filter of {@link #getReviewsByCoffeeId}. Cursors carry the sort keys and id of the
+     * last row and are only valid for the sort that issued them.
+     */
+    public PageResponse<ReviewResponse> getReviewsByCoffeeIdAfter(Long coffeeId, String sortBy, Integer rating,
+                                                                  String cursor, int limit) {
+        log.info("Getting reviews for coffee id: {}, sortBy: {}, rating: {}, cursor: {}", coffeeId, sortBy, rating, cursor);
+
+        Short ratingFilter = toRatingFilter(rating);
+        ReviewSort sort = ReviewSort.fromParam(sortBy);
+        boolean firstPage = CursorCodec.isFirstPage(cursor);
+        ReviewPosition after = null;
+        if (!firstPage) {
+            String[] parts = CursorCodec.decode(cursor, sort.cursorTag(), sort.cursorParts());
+            try {
+                after = sort.positionOf(parts);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor", e);
+            }
+        }
+
+        List<Review> rows = reviewRepository.findPageByCoffeeId(coffeeId, ratingFilter, sort, after, 0, limit + 1);
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = CursorCodec.encode(sort.cursorOf(rows.get(limit - 1)));
         }
 
-        List<ReviewResponse> reviews = reviewPage.getContent().stream()
+        List<ReviewResponse> reviews = rows.stream()
             .map(reviewMapper::toReviewResponse)
             .collect(Collectors.toList());
 
-        return PageResponse.of(reviews, page, limit, reviewPage.getTotalElements());
+        return PageResponse.ofCursor(reviews, limit, !firstPage, nextCursor);
     }
 
     public List<ReviewResponse> getRecentReviews(int limit) {
@@ -57,6 +144,17 @@ public class ReviewQueryService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Validators of the recent reviews feed, without running it: the ids and updated_at of the
+     * reviews it would list (votes and edits move updated_at) and of the coffees and roasters they inline
+     */
+    public VersionStamp getRecentReviewsVersion(int limit) {
+        List<Object[]> rows = reviewRepository.findRecentVersionRows(PageRequest.of(0, limit));
+        List<String> parts = rows.stream().map(Arrays::toString).toList();
+        // No Last-Modified: a review leaving the feed moves no date
+        return VersionStamp.of(null, "reviews", "recent", limit, parts);
+    }
+
     public ReviewResponse getReviewById(Long id) {
         log.info("Getting review by id: {}", id);
 
@@ -65,4 +163,19 @@ public class ReviewQueryService {
 
         return reviewMapper.toReviewResponse(review);
     }
+
+    private static Short toRatingFilter(Integer rating) {
+        if (rating == null) {
+            return null;
+        }
+        if (rating < 1 || rating > 5) {
+            throw new BadRequestException("Rating filter must be between 1 and 5");
+        }
+        return rating.shortValue();
+    }
+
+    // "reviews:{coffeeId}:{rating|all}": a coffee's totals are invalidated together by prefix
+    private static String countKey(Long coffeeId, Short rating) {
+        return COUNT_KEY_PREFIX + coffeeId + ":" + (rating != null ? rating : "all");
+    }
 }
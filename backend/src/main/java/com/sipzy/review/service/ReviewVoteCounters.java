@@ -0,0 +1,142 @@
+package com.sipzy.review.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind counters of reviews.helpful_count / not_helpful_count, their only writer (V22).
+ *
+ * Committed votes add their deltas to striped adders per review id, so votes on a viral review
+ * never queue on its row; every flush interval the accumulated deltas of all reviews go out
+ * in one UPDATE. A failed flush puts its deltas back for the next one. Each node flushes its
+ * own deltas: being additive, they need no coordination. Deltas lost with a node are
+ * recounted from review_votes by {@link ReviewVoteVerifier}.
+ *
+ * Idle adders are retired from the map; a vote racing the retirement finds its adder retired
+ * after adding and moves whatever the adder still holds to a live one (draining is an atomic
+ * swap per cell, so each unit moves exactly once).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReviewVoteCounters {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, Delta> deltas = new ConcurrentHashMap<>();
+
+    private static final String APPLY = """
+            UPDATE reviews r
+            SET helpful_count = GREATEST(r.helpful_count + d.helpful, 0),
+                not_helpful_count = GREATEST(r.not_helpful_count + d.not_helpful, 0)
+            FROM unnest(?::BIGINT[], ?::INTEGER[], ?::INTEGER[]) AS d(id, helpful, not_helpful)
+            WHERE r.id = d.id
+            """;
+
+    private static final class Delta {
+        final LongAdder helpful = new LongAdder();
+        final LongAdder notHelpful = new LongAdder();
+        volatile boolean retired;
+        int idleFlushes;
+    }
+
+    private record Drained(long reviewId, long helpful, long notHelpful) {
+    }
+
+    /**
+     * Buffer the counter changes of a committed vote
+     */
+    public void add(Long reviewId, long helpful, long notHelpful) {
+        if (helpful == 0 && notHelpful == 0) {
+            return;
+        }
+        Delta delta = deltas.computeIfAbsent(reviewId, id -> new Delta());
+        delta.helpful.add(helpful);
+        delta.notHelpful.add(notHelpful);
+        if (delta.retired) {
+            rehome(reviewId, delta);
+        }
+    }
+
+    /**
+     * Deltas of this node not flushed yet, as {helpful, notHelpful}
+     */
+    public long[] pending(Long reviewId) {
+        Delta delta = deltas.get(reviewId);
+        return delta == null ? new long[] {0, 0} : new long[] {delta.helpful.sum(), delta.notHelpful.sum()};
+    }
+
+    @Scheduled(fixedDelayString = "${app.review-votes.flush-interval:PT0.5S}")
+    public void flush() {
+        List<Drained> drained = new ArrayList<>();
+        for (Map.Entry<Long, Delta> entry : deltas.entrySet()) {
+            Long reviewId = entry.getKey();
+            Delta delta = entry.getValue();
+            long helpful = delta.helpful.sumThenReset();
+            long notHelpful = delta.notHelpful.sumThenReset();
+            if (helpful != 0 || notHelpful != 0) {
+                delta.idleFlushes = 0;
+                drained.add(new Drained(reviewId, helpful, notHelpful));
+            } else if (++delta.idleFlushes > 1) {
+                retire(reviewId, delta);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        try {
+            int updated = apply(drained);
+            log.debug("Flushed vote counters of {} reviews ({} rows)", drained.size(), updated);
+        } catch (RuntimeException e) {
+            log.warn("Vote counter flush failed, retrying {} reviews next time: {}", drained.size(), e.getMessage());
+            drained.forEach(d -> add(d.reviewId(), d.helpful(), d.notHelpful()));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private int apply(List<Drained> drained) {
+        // Ascending ids: concurrent flushes of several nodes lock rows in the same order
+        List<Drained> sorted = drained.stream().sorted((a, b) -> Long.compare(a.reviewId(), b.reviewId())).toList();
+        Long[] ids = sorted.stream().map(Drained::reviewId).toArray(Long[]::new);
+        Integer[] helpful = sorted.stream().map(d -> Math.toIntExact(d.helpful())).toArray(Integer[]::new);
+        Integer[] notHelpful = sorted.stream().map(d -> Math.toIntExact(d.notHelpful())).toArray(Integer[]::new);
+        return jdbcTemplate.update(APPLY, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("bigint", ids));
+            ps.setArray(2, connection.createArrayOf("integer", helpful));
+            ps.setArray(3, connection.createArrayOf("integer", notHelpful));
+        });
+    }
+
+    private void retire(Long reviewId, Delta delta) {
+        if (deltas.remove(reviewId, delta)) {
+            delta.retired = true;
+            rehome(reviewId, delta);
+        }
+    }
+
+    /**
+     * Move what a retired adder still holds (a vote that raced its retirement) to a live one
+     */
+    private void rehome(Long reviewId, Delta retired) {
+        long helpful = retired.helpful.sumThenReset();
+        long notHelpful = retired.notHelpful.sumThenReset();
+        add(reviewId, helpful, notHelpful);
+    }
+}
@@ -0,0 +1,161 @@
+package com.sipzy.review.service;
+
+import com.sipzy.review.dto.response.VoteDriftResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verification of reviews.helpful_count / not_helpful_count against review_votes.
+ *
+ * Since V22 the counters only move by the deltas {@link ReviewVoteCounters} flushes, so deltas
+ * lost with a node (crash, kill) leave them off for good. Nightly, and on admin request, every
+ * review's counters are compared with its votes. A difference can also be deltas of another
+ * node not flushed yet: after flushing its own, the verifier waits for the settle delay (many
+ * flush intervals), locks each drifted review and only recounts it when its drift is still
+ * the same, i.e. no longer moving. A review still moving is left to the next run.
+ */
+@Slf4j
+@Service
+public class ReviewVoteVerifier {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ReviewVoteCounters voteCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean repair;
+    private final Duration settle;
+
+    private static final int REPORTED_IDS = 50;
+
+    private static final String SELECT_DRIFTED = """
+            SELECT r.id,
+                   r.helpful_count - COALESCE(v.helpful, 0),
+                   r.not_helpful_count - COALESCE(v.not_helpful, 0)
+            FROM reviews r
+            LEFT JOIN (SELECT review_id,
+                              COUNT(*) FILTER (WHERE is_helpful) AS helpful,
+                              COUNT(*) FILTER (WHERE NOT is_helpful) AS not_helpful
+                       FROM review_votes
+                       GROUP BY review_id) v ON v.review_id = r.id
+            WHERE r.helpful_count <> COALESCE(v.helpful, 0)
+               OR r.not_helpful_count <> COALESCE(v.not_helpful, 0)
+            ORDER BY r.id
+            """;
+
+    // Ascending ids, like the flushes: no lock order inversion with them
+    private static final String LOCK_REVIEW = "SELECT id FROM reviews WHERE id = :id FOR UPDATE";
+
+    // Statements after the lock: see every vote committed and every delta flushed before it
+    private static final String SELECT_DRIFT = """
+            SELECT r.helpful_count - v.helpful, r.not_helpful_count - v.not_helpful
+            FROM reviews r,
+                 (SELECT COUNT(*) FILTER (WHERE is_helpful) AS helpful,
+                         COUNT(*) FILTER (WHERE NOT is_helpful) AS not_helpful
+                  FROM review_votes WHERE review_id = :id) v
+            WHERE r.id = :id
+            """;
+
+    private static final String RECOUNT = """
+            UPDATE reviews r
+            SET helpful_count = v.helpful,
+                not_helpful_count = v.not_helpful
+            FROM (SELECT COUNT(*) FILTER (WHERE is_helpful) AS helpful,
+                         COUNT(*) FILTER (WHERE NOT is_helpful) AS not_helpful
+                  FROM review_votes WHERE review_id = :id) v
+            WHERE r.id = :id
+            """;
+
+    private record Drift(long reviewId, long helpful, long notHelpful) {
+    }
+
+    public ReviewVoteVerifier(
+            ReviewVoteCounters voteCounters,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.review-votes.repair-drift:true}") boolean repair,
+            @Value("${app.review-votes.verify-settle:PT5S}") Duration settle
+    ) {
+        this.voteCounters = voteCounters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.repair = repair;
+        this.settle = settle;
+    }
+
+    @Scheduled(cron = "${app.review-votes.verify-cron:0 45 4 * * *}")
+    public void verifyNightly() {
+        verify();
+    }
+
+    /**
+     * Compare every review's vote counters with its votes, recounting settled drift when enabled
+     */
+    public VoteDriftResponse verify() {
+        long start = System.currentTimeMillis();
+
+        voteCounters.flush();
+        List<Drift> drifted = transactionTemplate.execute(status -> selectDrifted());
+
+        List<Long> repaired = List.of();
+        if (repair && !drifted.isEmpty()) {
+            try {
+                Thread.sleep(settle.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for vote counters to settle", e);
+            }
+            repaired = transactionTemplate.execute(status -> repairSettled(drifted));
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        List<Long> reported = drifted.stream().limit(REPORTED_IDS).map(Drift::reviewId).toList();
+        if (drifted.isEmpty()) {
+            log.info("Review vote counters verified in {} ms: no drift", duration);
+        } else {
+            log.warn("Review vote counters drifted for {} reviews ({} recounted) in {} ms: {}",
+                    drifted.size(), repaired.size(), duration, reported);
+        }
+        return new VoteDriftResponse(drifted.size(), reported, repaired.size(), duration);
+    }
+
+    private List<Drift> selectDrifted() {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(SELECT_DRIFTED).getResultList();
+        return rows.stream()
+                .map(row -> new Drift(((Number) row[0]).longValue(),
+                        ((Number) row[1]).longValue(), ((Number) row[2]).longValue()))
+                .toList();
+    }
+
+    private List<Long> repairSettled(List<Drift> drifted) {
+        List<Long> repaired = new ArrayList<>();
+        for (Drift drift : drifted) {
+            entityManager.createNativeQuery(LOCK_REVIEW).setParameter("id", drift.reviewId()).getResultList();
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = entityManager.createNativeQuery(SELECT_DRIFT)
+                    .setParameter("id", drift.reviewId())
+                    .getResultList();
+            if (rows.isEmpty()) {
+                continue; // Deleted since
+            }
+            Drift now = new Drift(drift.reviewId(),
+                    ((Number) rows.get(0)[0]).longValue(), ((Number) rows.get(0)[1]).longValue());
+            if (!now.equals(drift)) {
+                log.debug("Vote counters of review {} still moving ({} -> {}), left to the next run", drift.reviewId(), drift, now);
+                continue;
+            }
+            entityManager.createNativeQuery(RECOUNT).setParameter("id", drift.reviewId()).executeUpdate();
+            repaired.add(drift.reviewId());
+        }
+        return repaired;
+    }
+}
@@ -0,0 +1,37 @@
+package com.sipzy.search.controller;
+
+import com.sipzy.common.dto.ApiResponse;
+import com.sipzy.search.dto.response.SuggestionResponse;
+import com.sipzy.search.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controller for search endpoints
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@Tag(name = "Search", description = "Endpoints de recherche transverse")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggestions de saisie", description = "Cafés, torréfacteurs et notes dont un mot commence par le texte saisi (accents ignorés), les plus populaires d'abord")
+    public ResponseEntity<ApiResponse<List<SuggestionResponse>>> suggest(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "8") int limit
+    ) {
+        log.debug("Suggest for: {}", q);
+        List<SuggestionResponse> response = searchService.suggest(q, limit);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+}
@@ -0,0 +1,11 @@
+package com.sipzy.search.dto.response;
+
+/**
+ * DTO for one typeahead suggestion (type: COFFEE, ROASTER or NOTE)
+ */
+public record SuggestionResponse(
+        String type,
+        Long id,
+        String label
+) {
+}
@@ -0,0 +1,39 @@
+package com.sipzy.search.index;
+
+/**
+ * One typeahead entry: a coffee, roaster or note name with its popularity weight
+ */
+public record Suggestion(
+        Type type,
+        long id,
+        String label,
+        long weight
+) {
+
+    public enum Type {
+        COFFEE,
+        ROASTER,
+        NOTE
+    }
+
+    boolean sameItem(Suggestion other) {
+        return type == other.type && id == other.id;
+    }
+
+    /**
+     * Display order: heaviest first, then shortest label, then alphabetical
+     */
+    boolean ranksBefore(Suggestion other) {
+        if (weight != other.weight) {
+            return weight > other.weight;
+        }
+        if (label.length() != other.label.length()) {
+            return label.length() < other.label.length();
+        }
+        int byLabel = label.compareToIgnoreCase(other.label);
+        if (byLabel != 0) {
+            return byLabel < 0;
+        }
+        return type != other.type ? type.compareTo(other.type) < 0 : id < other.id;
+    }
+}
@@ -0,0 +1,252 @@
+package com.sipzy.search.index;
+
+import com.sipzy.cluster.LocalFlushEvent;
+import com.sipzy.coffee.domain.Note;
+import com.sipzy.coffee.domain.Roaster;
+import com.sipzy.coffee.event.CoffeeChangedEvent;
+import com.sipzy.coffee.event.ReferenceDataChangedEvent;
+import com.sipzy.coffee.index.CoffeeIndexRow;
+import com.sipzy.coffee.repository.CoffeeRepository;
+import com.sipzy.coffee.repository.NoteRepository;
+import com.sipzy.coffee.repository.RoasterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory typeahead over approved coffee, roaster and note names.
+ *
+ * Weights are review counts: a coffee weighs its own reviews, a roaster or a note the
+ * reviews of the approved coffees it belongs to. Built at startup, then kept current from
+ * {@link CoffeeChangedEvent}s and {@link ReferenceDataChangedEvent}s.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SuggestionIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private final CoffeeRepository coffeeRepository;
+    private final RoasterRepository roasterRepository;
+    private final NoteRepository noteRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private SuggestionTrie trie = new SuggestionTrie(MAX_SUGGESTIONS);
+    private Map<Long, CoffeeState> coffees = new HashMap<>();
+    private Map<Long, Long> roasterWeights = new HashMap<>();
+    private Map<Long, Long> noteWeights = new HashMap<>();
+    private volatile boolean ready;
+
+    /**
+     * What a coffee contributes to the roaster and note weights
+     */
+    private record CoffeeState(Long roasterId, List<Long> noteIds, long reviewCount) {
+    }
+
+    @EventListener({ApplicationReadyEvent.class, LocalFlushEvent.class})
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reload every name and weight, then swap in a fresh trie
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            Map<Long, List<Long>> notesByCoffee = new HashMap<>();
+            for (Object[] pair : coffeeRepository.findApprovedCoffeeNotePairs()) {
+                notesByCoffee.computeIfAbsent((Long) pair[0], id -> new ArrayList<>()).add((Long) pair[1]);
+            }
+
+            SuggestionTrie fresh = new SuggestionTrie(MAX_SUGGESTIONS);
+            Map<Long, CoffeeState> freshCoffees = new HashMap<>();
+            Map<Long, Long> freshRoasterWeights = new HashMap<>();
+            Map<Long, Long> freshNoteWeights = new HashMap<>();
+
+            for (CoffeeIndexRow row : coffeeRepository.findApprovedIndexRows()) {
+                CoffeeState state = stateOf(row, notesByCoffee.getOrDefault(row.id(), List.of()));
+                freshCoffees.put(row.id(), state);
+                addWeights(state, 1, freshRoasterWeights, freshNoteWeights);
+                fresh.put(new Suggestion(Suggestion.Type.COFFEE, row.id(), row.name(), state.reviewCount()));
+            }
+            for (Roaster roaster : roasterRepository.findAll()) {
+                fresh.put(new Suggestion(Suggestion.Type.ROASTER, roaster.getId(), roaster.getName(),
+                        freshRoasterWeights.getOrDefault(roaster.getId(), 0L)));
+            }
+            for (Note note : noteRepository.findAll()) {
+                fresh.put(new Suggestion(Suggestion.Type.NOTE, note.getId(), note.getName(),
+                        freshNoteWeights.getOrDefault(note.getId(), 0L)));
+            }
+
+            lock.writeLock().lock();
+            try {
+                trie = fresh;
+                coffees = freshCoffees;
+                roasterWeights = freshRoasterWeights;
+                noteWeights = freshNoteWeights;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Suggestion index built: {} names in {} ms", fresh.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Suggestion index rebuild failed", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCoffeeChanged(CoffeeChangedEvent event) {
+        refreshCoffee(event.coffeeId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        if (event.kind() == ReferenceDataChangedEvent.Kind.ROASTER) {
+            refreshRoaster(event.id());
+        } else {
+            refreshNote(event.id());
+        }
+    }
+
+    /**
+     * Re-read one coffee, then move its review count between the roaster and note weights
+     */
+    public synchronized void refreshCoffee(Long coffeeId) {
+        if (coffeeId == null) {
+            return;
+        }
+        Optional<CoffeeIndexRow> row = coffeeRepository.findApprovedIndexRowById(coffeeId);
+        CoffeeState next = row
+                .map(r -> stateOf(r, coffeeRepository.findNoteIdsByCoffeeId(coffeeId)))
+                .orElse(null);
+
+        lock.writeLock().lock();
+        try {
+            CoffeeState previous = next != null ? coffees.put(coffeeId, next) : coffees.remove(coffeeId);
+            if (previous != null) {
+                addWeights(previous, -1, roasterWeights, noteWeights);
+            }
+            if (next != null) {
+                addWeights(next, 1, roasterWeights, noteWeights);
+                trie.put(new Suggestion(Suggestion.Type.COFFEE, coffeeId, row.get().name(), next.reviewCount()));
+            } else {
+                trie.remove(Suggestion.Type.COFFEE, coffeeId);
+            }
+
+            Set<Long> roasterIds = new HashSet<>();
+            Set<Long> noteIds = new HashSet<>();
+            for (CoffeeState state : new CoffeeState[]{previous, next}) {
+                if (state != null) {
+                    if (state.roasterId() != null) {
+                        roasterIds.add(state.roasterId());
+                    }
+                    noteIds.addAll(state.noteIds());
+                }
+            }
+            roasterIds.forEach(id -> reweigh(Suggestion.Type.ROASTER, id, roasterWeights));
+            noteIds.forEach(id -> reweigh(Suggestion.Type.NOTE, id, noteWeights));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public synchronized void refreshRoaster(Long roasterId) {
+        if (roasterId == null) {
+            return;
+        }
+        Optional<String> name = roasterRepository.findById(roasterId).map(Roaster::getName);
+        refreshName(Suggestion.Type.ROASTER, roasterId, name, roasterWeights);
+    }
+
+    public synchronized void refreshNote(Long noteId) {
+        if (noteId == null) {
+            return;
+        }
+        Optional<String> name = noteRepository.findById(noteId).map(Note::getName);
+        refreshName(Suggestion.Type.NOTE, noteId, name, noteWeights);
+    }
+
+    /**
+     * Retry a failed build off the request threads
+     */
+    @Scheduled(fixedDelayString = "${app.search.index-retry-interval:PT1M}",
+            initialDelayString = "${app.search.index-retry-interval:PT1M}")
+    public void retryBuild() {
+        if (!ready) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Most popular names with a word starting with the prefix, accents and case ignored;
+     * nothing until the first build completes (a typeahead never waits for a full load)
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        if (!ready) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void refreshName(Suggestion.Type type, Long id, Optional<String> name, Map<Long, Long> weights) {
+        lock.writeLock().lock();
+        try {
+            if (name.isPresent()) {
+                trie.put(new Suggestion(type, id, name.get(), weights.getOrDefault(id, 0L)));
+            } else {
+                trie.remove(type, id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Re-insert a roaster or note whose weight moved; unknown ids (no name loaded) are skipped
+    private void reweigh(Suggestion.Type type, Long id, Map<Long, Long> weights) {
+        Suggestion current = trie.get(type, id);
+        long weight = weights.getOrDefault(id, 0L);
+        if (current != null && current.weight() != weight) {
+            trie.put(new Suggestion(type, id, current.label(), weight));
+        }
+    }
+
+    private static CoffeeState stateOf(CoffeeIndexRow row, List<Long> noteIds) {
+        return new CoffeeState(row.roasterId(), List.copyOf(noteIds),
+                row.reviewCount() != null ? row.reviewCount() : 0L);
+    }
+
+    private static void addWeights(CoffeeState state, int sign, Map<Long, Long> roasterWeights,
+                                   Map<Long, Long> noteWeights) {
+        long delta = sign * state.reviewCount();
+        if (state.roasterId() != null) {
+            roasterWeights.merge(state.roasterId(), delta, Long::sum);
+        }
+        for (Long noteId : state.noteIds()) {
+            noteWeights.merge(noteId, delta, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.sipzy.search.index;
+
+import com.sipzy.common.util.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prefix tree over folded suggestion names, every word of a name being a key start
+ * ("Ethiopia Yirgacheffe" is found by "eth" and by "yirg").
+ *
+ * Each node caches the K best suggestions of its subtree, so a lookup is a walk down
+ * the prefix plus a copy of at most K entries. Inserting only offers the new entry along
+ * its paths; removing recomputes the nodes that listed it from their children's caches.
+ *
+ * Not thread-safe: the owner guards writes against concurrent lookups.
+ */
+public class SuggestionTrie {
+
+    private final int topK;
+    private final Node root = new Node(null, '\0');
+    private final Map<String, Suggestion> items = new HashMap<>();
+
+    private static final Suggestion[] NONE = new Suggestion[0];
+
+    public SuggestionTrie(int topK) {
+        this.topK = topK;
+    }
+
+    private static final class Node {
+
+        private final Node parent;
+        private final char key;
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final List<Suggestion> terminals = new ArrayList<>(1);
+        private Suggestion[] top = NONE;
+
+        private Node(Node parent, char key) {
+            this.parent = parent;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Insert a suggestion, replacing the previous version of the same item (new label or weight)
+     */
+    public void put(Suggestion suggestion) {
+        remove(suggestion.type(), suggestion.id());
+        items.put(itemKey(suggestion.type(), suggestion.id()), suggestion);
+
+        for (String key : keys(suggestion.label())) {
+            Node node = root;
+            offer(node, suggestion);
+            for (int i = 0; i < key.length(); i++) {
+                Node parent = node;
+                node = parent.children.computeIfAbsent(key.charAt(i), c -> new Node(parent, c));
+                offer(node, suggestion);
+            }
+            node.terminals.add(suggestion);
+        }
+    }
+
+    public void remove(Suggestion.Type type, long id) {
+        Suggestion previous = items.remove(itemKey(type, id));
+        if (previous == null) {
+            return;
+        }
+
+        List<Node> leaves = new ArrayList<>();
+        for (String key : keys(previous.label())) {
+            Node node = find(key);
+            if (node != null) {
+                node.terminals.removeIf(previous::sameItem);
+                leaves.add(node);
+            }
+        }
+        // Bottom-up, so that every node is recomputed from already-corrected children
+        for (Node leaf : leaves) {
+            for (Node node = leaf; node != null; node = node.parent) {
+                if (contains(node.top, previous)) {
+                    recompute(node);
+                }
+                if (node.parent != null && node.children.isEmpty() && node.terminals.isEmpty()) {
+                    node.parent.children.remove(node.key, node);
+                }
+            }
+        }
+    }
+
+    public Suggestion get(Suggestion.Type type, long id) {
+        return items.get(itemKey(type, id));
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Best suggestions whose name has a word starting with the prefix (accents and case ignored)
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String folded = TextNormalizer.fold(prefix);
+        if (folded.isBlank()) {
+            return List.of();
+        }
+        Node node = find(folded);
+        if (node == null) {
+            return List.of();
+        }
+        return List.of(Arrays.copyOf(node.top, Math.min(limit, node.top.length)));
+    }
+
+    /**
+     * Folded name from each word start: "cafe de colombia", "de colombia", "colombia"
+     */
+    static Set<String> keys(String label) {
+        String folded = TextNormalizer.foldName(label);
+        Set<String> keys = new LinkedHashSet<>();
+        if (folded.isEmpty()) {
+            return keys;
+        }
+        keys.add(folded);
+        for (int i = folded.indexOf(' '); i >= 0; i = folded.indexOf(' ', i + 1)) {
+            keys.add(folded.substring(i + 1));
+        }
+        return keys;
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    private void offer(Node node, Suggestion suggestion) {
+        Suggestion[] top = node.top;
+        if (contains(top, suggestion)) {
+            return;
+        }
+        int at = 0;
+        while (at < top.length && top[at].ranksBefore(suggestion)) {
+            at++;
+        }
+        if (at >= topK) {
+            return;
+        }
+        int size = Math.min(top.length + 1, topK);
+        Suggestion[] updated = new Suggestion[size];
+        System.arraycopy(top, 0, updated, 0, at);
+        updated[at] = suggestion;
+        System.arraycopy(top, at, updated, at + 1, size - at - 1);
+        node.top = updated;
+    }
+
+    private void recompute(Node node) {
+        node.top = NONE;
+        for (Suggestion terminal : node.terminals) {
+            offer(node, terminal);
+        }
+        for (Node child : node.children.values()) {
+            for (Suggestion candidate : child.top) {
+                offer(node, candidate);
+            }
+        }
+    }
+
+    private static boolean contains(Suggestion[] top, Suggestion suggestion) {
+        for (Suggestion entry : top) {
+            if (entry.sameItem(suggestion)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String itemKey(Suggestion.Type type, long id) {
+        return type.name() + ':' + id;
+    }
+}
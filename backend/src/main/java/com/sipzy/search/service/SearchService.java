@@ -0,0 +1,34 @@
+package com.sipzy.search.service;
+
+import com.sipzy.search.dto.response.SuggestionResponse;
+import com.sipzy.search.index.SuggestionIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Service for cross-entity search (typeahead)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    private final SuggestionIndex suggestionIndex;
+
+    /**
+     * Mixed coffee, roaster and note suggestions for a typed prefix, most reviewed first
+     */
+    public List<SuggestionResponse> suggest(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, SuggestionIndex.MAX_SUGGESTIONS));
+
+        return suggestionIndex.suggest(query, size).stream()
+                .map(s -> new SuggestionResponse(s.type().name(), s.id(), s.label()))
+                .toList();
+    }
+}
@@ -94,12 +94,16 @@ public class FavoriteController {
     public ResponseEntity<PageResponse<CoffeeResponse>> getUserFavorites(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "12") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean withTotal,
             @RequestHeader("Authorization") String authHeader
     ) {
         log.info("Getting favorites (page: {}, limit: {})", page, limit);
 
         Long userId = jwtUtil.extractUserIdFromHeader(authHeader);
-        PageResponse<CoffeeResponse> response = favoriteService.getUserFavorites(userId, page, limit);
+        PageResponse<CoffeeResponse> response = cursor != null
+                ? favoriteService.getUserFavoritesAfter(userId, cursor, limit)
+                : favoriteService.getUserFavorites(userId, page, limit, withTotal);
 
         return ResponseEntity.ok(response);
     }
@@ -12,6 +12,7 @@ import java.time.Instant;
  * Architecture hexagonale: Core domain
  */
 @Entity
+@EntityListeners(UserCreationListener.class)
 @Table(name = "users", indexes = {
         @Index(name = "idx_users_email", columnList = "email", unique = true),
         @Index(name = "idx_users_username", columnList = "username", unique = true)
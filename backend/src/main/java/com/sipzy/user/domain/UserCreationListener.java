@@ -0,0 +1,28 @@
+package com.sipzy.user.domain;
+
+import com.sipzy.user.event.UserCreatedEvent;
+import jakarta.persistence.PostPersist;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener of User: publishes a {@link UserCreatedEvent} for every new account, whatever
+ * the creation path (registration, admin, imports). Listeners act once the insert is visible,
+ * i.e. after commit, on this node and, through the invalidation bus, on the others.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCreationListener {
+
+    private final ObjectProvider<ApplicationEventPublisher> eventPublisher;
+
+    @PostPersist
+    public void onCreated(User user) {
+        ApplicationEventPublisher publisher = eventPublisher.getIfAvailable();
+        if (publisher != null && user.getId() != null) {
+            publisher.publishEvent(new UserCreatedEvent(user.getId()));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.sipzy.user.event;
+
+/**
+ * Published when a user adds or removes a favorite; the cached favorite count is dropped after commit
+ */
+public record FavoritesChangedEvent(
+        Long userId
+) {
+}
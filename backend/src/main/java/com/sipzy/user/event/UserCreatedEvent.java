@@ -0,0 +1,9 @@
+package com.sipzy.user.event;
+
+/**
+ * Published when an account is inserted; the id may have been probed (and cached as missing) before
+ */
+public record UserCreatedEvent(
+        Long userId
+) {
+}
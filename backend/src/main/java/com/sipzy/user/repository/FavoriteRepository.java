@@ -1,13 +1,14 @@
 package com.sipzy.user.repository;
 
 import com.sipzy.user.domain.Favorite;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,10 +31,22 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     boolean existsByUserIdAndCoffeeId(@Param("userId") Long userId, @Param("coffeeId") Long coffeeId);
 
     /**
-     * Get all favorites for a user with pagination
+     * Get all favorites for a user with pagination (Slice: no COUNT, see countByUserId).
+     * Coffees are not fetched: their ids are enough to load the page with its details in one query.
      */
-    @Query("SELECT f FROM Favorite f JOIN FETCH f.coffee c LEFT JOIN FETCH c.roaster WHERE f.user.id = :userId")
-    Page<Favorite> findByUserIdWithCoffee(@Param("userId") Long userId, Pageable pageable);
+    @Query("SELECT f FROM Favorite f WHERE f.user.id = :userId")
+    Slice<Favorite> findPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Keyset page of favorites for a user: rows strictly after (createdAt, id), newest first
+     */
+    @Query("SELECT f FROM Favorite f WHERE f.user.id = :userId " +
+           "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) " +
+           "ORDER BY f.createdAt DESC, f.id DESC")
+    List<Favorite> findPageByUserIdAfter(@Param("userId") Long userId,
+                                         @Param("createdAt") Instant createdAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
 
     /**
      * Get all favorite coffee IDs for a user
@@ -1,25 +1,35 @@
 package com.sipzy.user.service;
 
 import com.sipzy.coffee.domain.Coffee;
+import com.sipzy.coffee.event.CoffeeActivityEvent;
 import com.sipzy.coffee.dto.response.CoffeeResponse;
 import com.sipzy.coffee.mapper.CoffeeMapper;
 import com.sipzy.coffee.repository.CoffeeRepository;
+import com.sipzy.common.cache.CountCache;
 import com.sipzy.common.dto.PageResponse;
+import com.sipzy.common.exception.BadRequestException;
 import com.sipzy.common.exception.ConflictException;
 import com.sipzy.common.exception.ResourceNotFoundException;
+import com.sipzy.common.util.CursorCodec;
 import com.sipzy.user.domain.Favorite;
 import com.sipzy.user.domain.User;
+import com.sipzy.user.event.FavoritesChangedEvent;
 import com.sipzy.user.repository.FavoriteRepository;
 import com.sipzy.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 /**
@@ -34,6 +44,11 @@ public class FavoriteService {
     private final UserRepository userRepository;
     private final CoffeeRepository coffeeRepository;
     private final CoffeeMapper coffeeMapper;
+    private final CountCache countCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final String FAVORITES_CURSOR = "favorites-newest";
+    private static final String COUNT_KEY_PREFIX = "favorites:";
 
     /**
      * Add a coffee to user's favorites
@@ -59,6 +74,8 @@ public class FavoriteService {
                 .build();
 
         favoriteRepository.save(favorite);
+        eventPublisher.publishEvent(new FavoritesChangedEvent(userId));
+        eventPublisher.publishEvent(CoffeeActivityEvent.favorite(coffeeId));
         log.info("Successfully added coffee {} to favorites for user {}", coffeeId, userId);
     }
 
@@ -73,6 +90,7 @@ public class FavoriteService {
                 .orElseThrow(() -> new ResourceNotFoundException("Favorite not found"));
 
         favoriteRepository.delete(favorite);
+        eventPublisher.publishEvent(new FavoritesChangedEvent(userId));
         log.info("Successfully removed coffee {} from favorites for user {}", coffeeId, userId);
     }
 
@@ -92,6 +110,16 @@ public class FavoriteService {
         }
     }
 
+    /**
+     * Drop the cached count once the change is committed: a count recomputed in between
+     * would otherwise be cached from the old data
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onFavoritesChanged(FavoritesChangedEvent event) {
+        countCache.invalidate(COUNT_KEY_PREFIX + event.userId());
+    }
+
     /**
      * Check if coffee is in user's favorites
      */
@@ -104,7 +132,7 @@ public class FavoriteService {
      * Get all favorite coffees for a user with pagination
      */
     @Transactional(readOnly = true)
-    public PageResponse<CoffeeResponse> getUserFavorites(Long userId, int page, int limit) {
+    public PageResponse<CoffeeResponse> getUserFavorites(Long userId, int page, int limit, boolean withTotal) {
         log.info("Getting favorites for user {} (page: {}, limit: {})", userId, page, limit);
 
         // Verify user exists
@@ -113,13 +141,69 @@ public class FavoriteService {
         }
 
         Pageable pageable = PageRequest.of(page - 1, limit, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Favorite> favoritesPage = favoriteRepository.findByUserIdWithCoffee(userId, pageable);
+        Slice<Favorite> favoritesSlice = favoriteRepository.findPageByUserId(userId, pageable);
+
+        List<CoffeeResponse> coffees = toCoffeeResponses(favoritesSlice.getContent());
 
-        List<CoffeeResponse> coffees = favoritesPage.getContent().stream()
-                .map(favorite -> coffeeMapper.toCoffeeResponse(favorite.getCoffee()))
+        if (!withTotal) {
+            return PageResponse.ofSlice(coffees, page, limit, favoritesSlice.hasNext());
+        }
+        long total = countCache.get(COUNT_KEY_PREFIX + userId, () -> favoriteRepository.countByUserId(userId));
+        return PageResponse.of(coffees, page, limit, total);
+    }
+
+    /**
+     * Get favorite coffees for a user with keyset pagination (empty cursor = first page)
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<CoffeeResponse> getUserFavoritesAfter(Long userId, String cursor, int limit) {
+        log.info("Getting favorites for user {} (cursor: {}, limit: {})", userId, cursor, limit);
+
+        // Verify user exists
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        boolean firstPage = CursorCodec.isFirstPage(cursor);
+        Instant createdAt = CursorCodec.MAX_INSTANT;
+        long id = Long.MAX_VALUE;
+        if (!firstPage) {
+            String[] parts = CursorCodec.decode(cursor, FAVORITES_CURSOR, 3);
+            try {
+                createdAt = Instant.parse(parts[1]);
+                id = Long.parseLong(parts[2]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor", e);
+            }
+        }
+
+        List<Favorite> favorites = favoriteRepository.findPageByUserIdAfter(
+                userId, createdAt, id, PageRequest.of(0, limit + 1));
+
+        String nextCursor = null;
+        if (favorites.size() > limit) {
+            favorites = favorites.subList(0, limit);
+            Favorite last = favorites.get(limit - 1);
+            nextCursor = CursorCodec.encode(FAVORITES_CURSOR, last.getCreatedAt(), last.getId());
+        }
+
+        List<CoffeeResponse> coffees = toCoffeeResponses(favorites);
+
+        return PageResponse.ofCursor(coffees, limit, !firstPage, nextCursor);
+    }
+
+    /**
+     * Map the favorited coffees, loaded with their roaster and notes in one query
+     * (the favorites page only carries their ids: the coffee proxies are never initialized)
+     */
+    private List<CoffeeResponse> toCoffeeResponses(List<Favorite> favorites) {
+        List<Long> coffeeIds = favorites.stream()
+                .map(favorite -> favorite.getCoffee().getId())
                 .toList();
 
-        return PageResponse.of(coffees, page, limit, favoritesPage.getTotalElements());
+        return coffeeRepository.findWithDetailsInOrder(coffeeIds).stream()
+                .map(coffeeMapper::toCoffeeResponse)
+                .toList();
     }
 
     /**
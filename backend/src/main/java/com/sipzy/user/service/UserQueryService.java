@@ -4,6 +4,7 @@ import com.sipzy.coffee.domain.Coffee;
 import com.sipzy.coffee.dto.response.CoffeeResponse;
 import com.sipzy.coffee.mapper.CoffeeMapper;
 import com.sipzy.coffee.repository.CoffeeRepository;
+import com.sipzy.common.cache.NegativeCache;
 import com.sipzy.common.dto.PageResponse;
 import com.sipzy.common.exception.ResourceNotFoundException;
 import com.sipzy.review.domain.Review;
@@ -15,6 +16,7 @@ import com.sipzy.user.dto.response.UserPreferencesResponse;
 import com.sipzy.user.dto.response.UserProfileResponse;
 import com.sipzy.user.dto.response.UserResponse;
 import com.sipzy.user.dto.response.UserStats;
+import com.sipzy.user.event.UserCreatedEvent;
 import com.sipzy.user.mapper.UserMapper;
 import com.sipzy.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -23,7 +25,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -43,12 +47,12 @@ public class UserQueryService {
     private final UserMapper userMapper;
     private final ReviewMapper reviewMapper;
     private final CoffeeMapper coffeeMapper;
+    private final NegativeCache negativeCache;
 
     public UserResponse getUserById(Long id) {
         log.info("Getting user by id: {}", id);
 
-        User user = userRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        User user = negativeCache.require(NegativeCache.USER, id, () -> userRepository.findById(id));
 
         return userMapper.toUserResponse(user);
     }
@@ -65,8 +69,7 @@ public class UserQueryService {
     public UserProfileResponse getUserProfile(Long id) {
         log.info("Getting user profile: {}", id);
 
-        User user = userRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        User user = negativeCache.require(NegativeCache.USER, id, () -> userRepository.findById(id));
 
         // Get user stats
         UserStats stats = getUserStats(id);
@@ -80,11 +83,12 @@ public class UserQueryService {
 
         // Get approved coffees (limit 3)
         Pageable coffeePageable = PageRequest.of(0, 3);
-        List<CoffeeResponse> approvedCoffees = coffeeRepository.findBySubmittedById(id, coffeePageable)
+        List<Long> approvedIds = coffeeRepository.findBySubmittedById(id, coffeePageable)
             .stream()
             .filter(Coffee::isApproved)
-            .map(coffeeMapper::toCoffeeResponse)
+            .map(Coffee::getId)
             .collect(Collectors.toList());
+        List<CoffeeResponse> approvedCoffees = toCoffeeResponses(approvedIds);
 
         return new UserProfileResponse(
             userMapper.toUserResponse(user),
@@ -98,8 +102,7 @@ public class UserQueryService {
         log.info("Getting user stats: {}", userId);
 
         // Verify user exists
-        userRepository.findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        negativeCache.require(NegativeCache.USER, userId, () -> userRepository.findById(userId));
 
         // Count total reviews
         int totalReviews = (int) reviewRepository.findByUserId(userId, Pageable.unpaged()).getTotalElements();
@@ -127,8 +130,7 @@ public class UserQueryService {
         log.info("Getting reviews for user: {}", userId);
 
         // Verify user exists
-        userRepository.findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        negativeCache.require(NegativeCache.USER, userId, () -> userRepository.findById(userId));
 
         Pageable pageable = PageRequest.of(page - 1, limit);
         Page<Review> reviewPage = reviewRepository.findByUserId(userId, pageable);
@@ -144,17 +146,16 @@ public class UserQueryService {
         log.info("Getting coffees for user: {}", userId);
 
         // Verify user exists
-        userRepository.findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        negativeCache.require(NegativeCache.USER, userId, () -> userRepository.findById(userId));
 
         Pageable pageable = PageRequest.of(page - 1, limit);
         Page<Coffee> coffeePage = coffeeRepository.findBySubmittedById(userId, pageable);
 
         // Only return approved coffees for public view
-        List<CoffeeResponse> coffees = coffeePage.getContent().stream()
+        List<CoffeeResponse> coffees = toCoffeeResponses(coffeePage.getContent().stream()
             .filter(Coffee::isApproved)
-            .map(coffeeMapper::toCoffeeResponse)
-            .collect(Collectors.toList());
+            .map(Coffee::getId)
+            .collect(Collectors.toList()));
 
         long approvedCount = coffeePage.getContent().stream()
             .filter(Coffee::isApproved)
@@ -163,14 +164,31 @@ public class UserQueryService {
         return PageResponse.of(coffees, page, limit, approvedCount);
     }
 
+    /**
+     * Map a page of coffee ids, loading roasters and notes in one query instead of per coffee
+     */
+    private List<CoffeeResponse> toCoffeeResponses(List<Long> coffeeIds) {
+        return coffeeRepository.findWithDetailsInOrder(coffeeIds).stream()
+            .map(coffeeMapper::toCoffeeResponse)
+            .collect(Collectors.toList());
+    }
+
     public UserPreferencesResponse getUserPreferences(Long userId) {
         log.info("Getting preferences for user: {}", userId);
 
         // Verify user exists
-        userRepository.findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        negativeCache.require(NegativeCache.USER, userId, () -> userRepository.findById(userId));
 
         // For now, return default preferences (could be stored in database later)
         return new UserPreferencesResponse(true, true, true);
     }
+
+    /**
+     * A created account may take an id that was probed before: drop its negative entry
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onUserCreated(UserCreatedEvent event) {
+        negativeCache.forget(NegativeCache.USER, event.userId());
+    }
 }
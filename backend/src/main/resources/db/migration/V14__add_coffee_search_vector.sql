@@ -0,0 +1,99 @@
+-- V14: Ranked full-text search on coffees (tsvector)
+-- Implements the search_vector design sketched in V7, French and accent aware.
+-- Weights: A = name, B = roaster name and tasting notes, C = origin, D = description
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- French stemming on top of accent folding ("Éthiopie" matches "ethiopie")
+CREATE TEXT SEARCH CONFIGURATION french_unaccent (COPY = french);
+ALTER TEXT SEARCH CONFIGURATION french_unaccent
+    ALTER MAPPING FOR hword, hword_part, word WITH unaccent, french_stem;
+
+ALTER TABLE coffees ADD COLUMN search_vector tsvector;
+
+-- Recompute the vector on insert, when an indexed column changes, or when another
+-- trigger resets it to NULL (roaster rename, notes added/removed).
+-- Rating/review_count updates from the review triggers do not pay for the rebuild.
+CREATE OR REPLACE FUNCTION coffees_search_vector_update() RETURNS trigger AS $$
+DECLARE
+    roaster_name TEXT;
+    note_names TEXT;
+BEGIN
+    IF TG_OP = 'UPDATE'
+       AND NEW.search_vector IS NOT NULL
+       AND NEW.name IS NOT DISTINCT FROM OLD.name
+       AND NEW.description IS NOT DISTINCT FROM OLD.description
+       AND NEW.origin IS NOT DISTINCT FROM OLD.origin
+       AND NEW.roaster_id IS NOT DISTINCT FROM OLD.roaster_id THEN
+        RETURN NEW;
+    END IF;
+
+    SELECT r.name INTO roaster_name FROM roasters r WHERE r.id = NEW.roaster_id;
+
+    SELECT string_agg(n.name, ' ') INTO note_names
+    FROM coffee_notes cn
+    JOIN notes n ON n.id = cn.note_id
+    WHERE cn.coffee_id = NEW.id;
+
+    NEW.search_vector :=
+        setweight(to_tsvector('french_unaccent', coalesce(NEW.name, '')), 'A') ||
+        setweight(to_tsvector('french_unaccent', coalesce(roaster_name, '')), 'B') ||
+        setweight(to_tsvector('french_unaccent', coalesce(note_names, '')), 'B') ||
+        setweight(to_tsvector('french_unaccent', coalesce(NEW.origin, '')), 'C') ||
+        setweight(to_tsvector('french_unaccent', coalesce(NEW.description, '')), 'D');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_coffees_search_vector_update
+    BEFORE INSERT OR UPDATE ON coffees
+    FOR EACH ROW EXECUTE FUNCTION coffees_search_vector_update();
+
+-- Notes attached/detached: reset the vector so the coffee trigger rebuilds it
+CREATE OR REPLACE FUNCTION coffee_notes_search_vector_reset() RETURNS trigger AS $$
+BEGIN
+    UPDATE coffees SET search_vector = NULL
+    WHERE id = COALESCE(NEW.coffee_id, OLD.coffee_id);
+    RETURN COALESCE(NEW, OLD);
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_coffee_notes_search_vector
+    AFTER INSERT OR DELETE ON coffee_notes
+    FOR EACH ROW EXECUTE FUNCTION coffee_notes_search_vector_reset();
+
+-- Roaster renamed: rebuild the vectors of its coffees
+CREATE OR REPLACE FUNCTION roasters_search_vector_reset() RETURNS trigger AS $$
+BEGIN
+    UPDATE coffees SET search_vector = NULL WHERE roaster_id = NEW.id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_roasters_search_vector
+    AFTER UPDATE OF name ON roasters
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION roasters_search_vector_reset();
+
+-- Note renamed: rebuild the vectors of the coffees using it
+CREATE OR REPLACE FUNCTION notes_search_vector_reset() RETURNS trigger AS $$
+BEGIN
+    UPDATE coffees SET search_vector = NULL
+    WHERE id IN (SELECT coffee_id FROM coffee_notes WHERE note_id = NEW.id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_notes_search_vector
+    AFTER UPDATE OF name ON notes
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION notes_search_vector_reset();
+
+-- Backfill existing rows (NULL forces the rebuild branch of the trigger)
+UPDATE coffees SET search_vector = NULL;
+
+CREATE INDEX idx_coffees_search_vector ON coffees USING gin(search_vector);
+
+COMMENT ON COLUMN coffees.search_vector IS 'Weighted full-text vector (name, roaster, notes, origin, description), maintained by triggers';
@@ -0,0 +1,13 @@
+-- V15: Composite indexes backing keyset (cursor) pagination
+-- Each index matches one ORDER BY of the seek queries, id last as the tie-breaker.
+-- Coffee listings seek in the in-memory catalog index (filters) or on ts_rank (search) and need no index here.
+
+-- Reviews of a coffee, most helpful first
+CREATE INDEX idx_reviews_coffee_helpful_id ON reviews(coffee_id, helpful_count DESC, id DESC);
+
+-- Reviews of a coffee, newest first
+CREATE INDEX idx_reviews_coffee_created_id ON reviews(coffee_id, created_at DESC, id DESC);
+
+-- Favorites of a user, newest first (supersedes idx_favorites_user_id)
+CREATE INDEX idx_favorites_user_created_id ON favorites(user_id, created_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_favorites_user_id;
@@ -0,0 +1,31 @@
+-- V16: One index per whitelisted coffee sort (see CoffeeSearchCompiler)
+-- Partial on APPROVED, id last as tie-breaker. Descending queries use NULLS LAST and scan
+-- forward; ascending queries use NULLS FIRST and scan the same index backward.
+
+-- sortBy=rating
+CREATE INDEX idx_coffees_approved_rating
+    ON coffees(avg_rating DESC NULLS LAST, review_count DESC NULLS LAST, id DESC NULLS LAST)
+    WHERE status = 'APPROVED';
+
+-- sortBy=reviews
+CREATE INDEX idx_coffees_approved_reviews
+    ON coffees(review_count DESC NULLS LAST, id DESC NULLS LAST)
+    WHERE status = 'APPROVED';
+
+-- sortBy=created
+CREATE INDEX idx_coffees_approved_created
+    ON coffees(created_at DESC NULLS LAST, id DESC NULLS LAST)
+    WHERE status = 'APPROVED';
+
+-- sortBy=name
+CREATE INDEX idx_coffees_approved_name
+    ON coffees(LOWER(name) DESC NULLS LAST, id DESC NULLS LAST)
+    WHERE status = 'APPROVED';
+
+-- sortBy=price (number of € symbols)
+CREATE INDEX idx_coffees_approved_price
+    ON coffees(COALESCE(LENGTH(price_range), 0) DESC NULLS LAST, id DESC NULLS LAST)
+    WHERE status = 'APPROVED';
+
+-- IN-list filter on price range (origin and roaster_id are indexed since V2)
+CREATE INDEX idx_coffees_price_range ON coffees(price_range);
@@ -0,0 +1,5 @@
+-- V17: Trigram index on coffee origin for fuzzy search
+-- Fuzzy search matches name, description and roaster name through the V7 trigram
+-- indexes; origin is the remaining field users misspell ("etiopia", "kenia").
+
+CREATE INDEX idx_coffees_origin_trgm ON coffees USING gin(origin gin_trgm_ops);
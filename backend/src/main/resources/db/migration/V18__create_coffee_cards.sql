@@ -0,0 +1,61 @@
+-- V18: coffee_cards, flat read model of approved coffees for the listing endpoints
+-- One row per approved coffee with its roaster and notes inlined, so a page of cards is a
+-- primary-key lookup without joins. Maintained in the writing transaction by CoffeeCardProjector.
+
+CREATE TABLE coffee_cards (
+    coffee_id BIGINT PRIMARY KEY REFERENCES coffees(id) ON DELETE CASCADE,
+    name VARCHAR(255) NOT NULL,
+    origin VARCHAR(100),
+    process VARCHAR(50),
+    variety VARCHAR(100),
+    altitude_min INTEGER,
+    altitude_max INTEGER,
+    harvest_year INTEGER,
+    price_range VARCHAR(20),
+    description TEXT,
+    image_url VARCHAR(500),
+    roaster_id BIGINT,
+    roaster_name VARCHAR(255),
+    roaster_location VARCHAR(100),
+    roaster_website VARCHAR(500),
+    roaster_logo_url VARCHAR(500),
+    roaster_verified BOOLEAN,
+    -- [{"id": .., "name": .., "category": ..}] ordered by note id
+    notes JSONB NOT NULL DEFAULT '[]',
+    avg_rating DECIMAL(3,2),
+    review_count INTEGER,
+    submitted_by BIGINT REFERENCES users(id) ON DELETE SET NULL,
+    moderated_by BIGINT REFERENCES users(id) ON DELETE SET NULL,
+    moderated_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- GET /api/coffees/popular and /recent read the cards directly
+CREATE INDEX idx_coffee_cards_popular
+    ON coffee_cards(avg_rating DESC, review_count DESC);
+CREATE INDEX idx_coffee_cards_created ON coffee_cards(created_at DESC);
+
+-- Refresh of the cards of a roaster
+CREATE INDEX idx_coffee_cards_roaster_id ON coffee_cards(roaster_id);
+
+-- Backfill
+INSERT INTO coffee_cards (coffee_id, name, origin, process, variety, altitude_min, altitude_max,
+                          harvest_year, price_range, description, image_url, roaster_id, roaster_name,
+                          roaster_location, roaster_website, roaster_logo_url, roaster_verified, notes,
+                          avg_rating, review_count, submitted_by, moderated_by, moderated_at,
+                          created_at, updated_at)
+SELECT c.id, c.name, c.origin, c.process, c.variety, c.altitude_min, c.altitude_max,
+       c.harvest_year, c.price_range, c.description, c.image_url, r.id, r.name,
+       r.location, r.website, r.logo_url, r.is_verified,
+       COALESCE((SELECT jsonb_agg(jsonb_build_object('id', n.id, 'name', n.name, 'category', n.category)
+                                  ORDER BY n.id)
+                 FROM coffee_notes cn JOIN notes n ON n.id = cn.note_id
+                 WHERE cn.coffee_id = c.id), '[]'),
+       c.avg_rating, c.review_count, c.submitted_by, c.moderated_by, c.moderated_at,
+       c.created_at, c.updated_at
+FROM coffees c
+LEFT JOIN roasters r ON r.id = c.roaster_id
+WHERE c.status = 'APPROVED';
+
+COMMENT ON TABLE coffee_cards IS 'Denormalized read model of approved coffees (listing endpoints)';
@@ -0,0 +1,35 @@
+-- V19: Bayesian popularity score on coffee cards, ordering GET /api/coffees/popular
+-- score = (prior_weight * prior_mean + sum of ratings) / (prior_weight + review count)
+-- A coffee with few reviews is pulled towards the global mean; unreviewed coffees have no score.
+
+-- Single-row prior, replaced by the admin rebuild (POST /api/admin/coffees/popularity/rebuild)
+CREATE TABLE popularity_prior (
+    id SMALLINT PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    mean NUMERIC(4,3) NOT NULL,
+    weight INTEGER NOT NULL CHECK (weight > 0),
+    computed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO popularity_prior (mean, weight)
+SELECT COALESCE(AVG(r.rating), 3.0), 10
+FROM reviews r
+JOIN coffees c ON c.id = r.coffee_id AND c.status = 'APPROVED';
+
+CREATE OR REPLACE FUNCTION coffee_popularity(rating_sum NUMERIC, rating_count INTEGER,
+                                             prior_mean NUMERIC, prior_weight INTEGER)
+RETURNS DOUBLE PRECISION AS $$
+    SELECT CASE WHEN rating_count > 0
+                THEN (prior_weight * prior_mean + rating_sum) / (prior_weight + rating_count)
+           END;
+$$ LANGUAGE sql IMMUTABLE;
+
+ALTER TABLE coffee_cards ADD COLUMN popularity_score DOUBLE PRECISION;
+
+UPDATE coffee_cards cc
+SET popularity_score = coffee_popularity(cc.avg_rating * cc.review_count, cc.review_count, p.mean, p.weight)
+FROM popularity_prior p;
+
+-- Top-N by score is an index scan; replaces the raw (avg_rating, review_count) ordering
+DROP INDEX idx_coffee_cards_popular;
+CREATE INDEX idx_coffee_cards_popularity
+    ON coffee_cards(popularity_score DESC NULLS LAST, coffee_id DESC);
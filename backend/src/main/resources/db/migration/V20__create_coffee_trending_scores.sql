@@ -0,0 +1,10 @@
+-- V20: Checkpoint of the in-memory trending scores (see TrendingTracker)
+-- Rewritten as a whole at each checkpoint; restored at startup with the downtime's decay applied.
+
+CREATE TABLE coffee_trending_scores (
+    coffee_id BIGINT PRIMARY KEY REFERENCES coffees(id) ON DELETE CASCADE,
+    score DOUBLE PRECISION NOT NULL,
+    checkpointed_at TIMESTAMP NOT NULL
+);
+
+COMMENT ON TABLE coffee_trending_scores IS 'Decayed activity score per coffee (reviews, favorites, helpful votes)';
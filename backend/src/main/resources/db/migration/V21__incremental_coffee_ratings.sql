@@ -0,0 +1,58 @@
+-- V21: Incremental rating aggregates on coffees
+-- update_coffee_rating() (V3) re-ran AVG(rating) and COUNT(*) over all of a coffee's reviews
+-- on every review write. Coffees now store the sum and count of their ratings, moved by the
+-- old/new rating of each write; avg_rating and review_count are derived from them in the
+-- same UPDATE. The nightly verification (CoffeeRatingVerifier) reports and repairs drift.
+
+ALTER TABLE coffees
+    ADD COLUMN rating_sum BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN rating_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE coffees c
+SET rating_sum = agg.rating_sum,
+    rating_count = agg.rating_count,
+    review_count = agg.rating_count,
+    avg_rating = ROUND(agg.rating_sum::NUMERIC / agg.rating_count, 2)
+FROM (SELECT coffee_id, SUM(rating) AS rating_sum, COUNT(*) AS rating_count
+      FROM reviews
+      GROUP BY coffee_id) agg
+WHERE agg.coffee_id = c.id;
+
+-- Apply a delta to one coffee: O(1), one row lock held until the review write commits
+CREATE OR REPLACE FUNCTION apply_coffee_rating_delta(p_coffee_id BIGINT, p_sum_delta INTEGER, p_count_delta INTEGER)
+RETURNS VOID AS $$
+    UPDATE coffees
+    SET rating_sum = rating_sum + p_sum_delta,
+        rating_count = rating_count + p_count_delta,
+        review_count = rating_count + p_count_delta,
+        avg_rating = CASE WHEN rating_count + p_count_delta > 0
+                          THEN ROUND((rating_sum + p_sum_delta)::NUMERIC / (rating_count + p_count_delta), 2)
+                          ELSE 0.0
+                     END
+    WHERE id = p_coffee_id;
+$$ LANGUAGE sql;
+
+CREATE OR REPLACE FUNCTION update_coffee_rating()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM apply_coffee_rating_delta(NEW.coffee_id, NEW.rating, 1);
+        RETURN NEW;
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM apply_coffee_rating_delta(OLD.coffee_id, -OLD.rating, -1);
+        RETURN OLD;
+    ELSIF NEW.coffee_id IS DISTINCT FROM OLD.coffee_id THEN
+        PERFORM apply_coffee_rating_delta(OLD.coffee_id, -OLD.rating, -1);
+        PERFORM apply_coffee_rating_delta(NEW.coffee_id, NEW.rating, 1);
+    ELSIF NEW.rating IS DISTINCT FROM OLD.rating THEN
+        PERFORM apply_coffee_rating_delta(NEW.coffee_id, NEW.rating - OLD.rating, 0);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Only rating writes move the aggregates: vote count updates on reviews no longer touch coffees
+DROP TRIGGER trg_review_after_update ON reviews;
+CREATE TRIGGER trg_review_after_update
+    AFTER UPDATE OF rating, coffee_id ON reviews
+    FOR EACH ROW EXECUTE FUNCTION update_coffee_rating();
@@ -0,0 +1,23 @@
+-- V22: Review vote counters get a single writer
+-- helpful_count / not_helpful_count were incremented both by the vote service (entity save)
+-- and by update_review_vote_counts() (V3) on review_votes. Votes are now rows only; the
+-- application buffers the counter deltas and applies them in batches (ReviewVoteCounters).
+
+DROP TRIGGER trg_review_vote_after_insert ON review_votes;
+DROP TRIGGER trg_review_vote_after_update ON review_votes;
+DROP TRIGGER trg_review_vote_after_delete ON review_votes;
+DROP FUNCTION update_review_vote_counts();
+
+-- Undo the double counting: recount from the votes
+UPDATE reviews r
+SET helpful_count = COALESCE(v.helpful, 0),
+    not_helpful_count = COALESCE(v.not_helpful, 0)
+FROM reviews r2
+LEFT JOIN (SELECT review_id,
+                  COUNT(*) FILTER (WHERE is_helpful) AS helpful,
+                  COUNT(*) FILTER (WHERE NOT is_helpful) AS not_helpful
+           FROM review_votes
+           GROUP BY review_id) v ON v.review_id = r2.id
+WHERE r2.id = r.id
+  AND (r.helpful_count IS DISTINCT FROM COALESCE(v.helpful, 0)
+       OR r.not_helpful_count IS DISTINCT FROM COALESCE(v.not_helpful, 0));
@@ -0,0 +1,16 @@
+-- V23: Composite indexes behind the review sorts and rating filter (ReviewSort)
+-- With V15, every listing of a coffee's reviews is a range scan of one index in its ORDER BY,
+-- forward or backward, with id last as the keyset tie-breaker:
+--   newest / oldest                 idx_reviews_coffee_created_id (V15)
+--   helpful                         idx_reviews_coffee_helpful_id (V15)
+--   highest / lowest                idx_reviews_coffee_rating_created_id
+--   rating = ? + newest / oldest    idx_reviews_coffee_rating_created_id (rating is an equality)
+--   rating = ? + helpful            idx_reviews_coffee_rating_helpful_id
+
+CREATE INDEX idx_reviews_coffee_rating_created_id ON reviews(coffee_id, rating DESC, created_at DESC, id DESC);
+
+CREATE INDEX idx_reviews_coffee_rating_helpful_id ON reviews(coffee_id, rating, helpful_count DESC, id DESC);
+
+-- Superseded: coffee_id leads every composite above, and no listing orders all reviews by helpfulness
+DROP INDEX IF EXISTS idx_reviews_coffee_id;
+DROP INDEX IF EXISTS idx_reviews_helpful_count;
@@ -0,0 +1,6 @@
+-- V24: Index review_votes by review
+-- V2's idx_review_votes_review_id was created on reviews(id), a duplicate of its primary key, so
+-- counting the votes of one review (ReviewVoteVerifier recounts) scanned the whole table.
+
+DROP INDEX IF EXISTS idx_review_votes_review_id;
+CREATE INDEX idx_review_votes_review_id ON review_votes(review_id, is_helpful);
@@ -0,0 +1,14 @@
+-- V25: Keep coffees.updated_at for content changes only
+-- The V14 search_vector resets (notes attached/detached, roaster or note renamed) run
+-- "UPDATE coffees SET search_vector = NULL", which fired the V3 updated_at trigger and
+-- stamped every related coffee as modified. The vector is derived data: an update that
+-- changes nothing but search_vector (and updated_at itself) no longer moves updated_at.
+-- Both are BEFORE triggers fired in name order, so the WHEN clause sees the vector
+-- already rebuilt by trg_coffees_search_vector_update.
+
+DROP TRIGGER trg_coffees_updated_at ON coffees;
+
+CREATE TRIGGER trg_coffees_updated_at BEFORE UPDATE ON coffees
+    FOR EACH ROW
+    WHEN ((to_jsonb(OLD) - 'search_vector' - 'updated_at') IS DISTINCT FROM (to_jsonb(NEW) - 'search_vector' - 'updated_at'))
+    EXECUTE FUNCTION update_updated_at_column();
@@ -0,0 +1,5 @@
+-- V26: Index behind the validators of a coffee's review pages (ReviewRepository.findStampByCoffeeId)
+-- The stamp is the coffee's review_count (kept by the V21 triggers) and the latest updated_at of
+-- its reviews: MAX over this index is one backward probe, whatever the number of reviews.
+
+CREATE INDEX idx_reviews_coffee_updated ON reviews(coffee_id, updated_at);
@@ -0,0 +1,10 @@
+-- V27: sortBy=name in code point order
+-- The catalog index and the SQL path share name cursors, so both must order names alike:
+-- LOWER(name) under the database collation does not match a Java string comparison, the
+-- "C" collation (byte order of UTF-8, i.e. code point order) does. Replaces the V16 index.
+
+DROP INDEX idx_coffees_approved_name;
+
+CREATE INDEX idx_coffees_approved_name
+    ON coffees((LOWER(name) COLLATE "C") DESC NULLS LAST, id DESC NULLS LAST)
+    WHERE status = 'APPROVED';
@@ -0,0 +1,148 @@
+package com.sipzy.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sipzy.coffee.event.CoffeeActivityEvent;
+import com.sipzy.coffee.event.CoffeeChangedEvent;
+import com.sipzy.coffee.event.PopularityRebuiltEvent;
+import com.sipzy.coffee.event.ReferenceDataChangedEvent;
+import com.sipzy.user.event.UserCreatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InvalidationBus Unit Tests")
+class InvalidationBusTest {
+
+    @Mock
+    private ApplicationEventPublisher publisherA;
+
+    @Mock
+    private ApplicationEventPublisher publisherB;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private InMemoryInvalidationTransport transport;
+    private InvalidationBus nodeA;
+    private InvalidationBus nodeB;
+
+    @BeforeEach
+    void setUp() {
+        transport = new InMemoryInvalidationTransport();
+        nodeA = new InvalidationBus(Optional.of(transport), publisherA, transactionManager, objectMapper);
+        nodeB = new InvalidationBus(Optional.of(transport), publisherB, transactionManager, objectMapper);
+        nodeA.start();
+        nodeB.start();
+    }
+
+    @Test
+    @DisplayName("Should replay committed changes on the other nodes only")
+    void flush_ReplaysOnOtherNodes() {
+        nodeA.onCoffeeChanged(CoffeeChangedEvent.updated(1L));
+        nodeA.onReferenceDataChanged(ReferenceDataChangedEvent.roaster(2L));
+        nodeA.onActivity(CoffeeActivityEvent.helpfulVote(3L));
+
+        nodeA.flush();
+
+        verify(publisherB).publishEvent(CoffeeChangedEvent.updated(1L));
+        verify(publisherB).publishEvent(ReferenceDataChangedEvent.roaster(2L));
+        verify(publisherB).publishEvent(CoffeeActivityEvent.helpfulVote(3L));
+        verifyNoInteractions(publisherA);
+    }
+
+    @Test
+    @DisplayName("Should replay a popularity rebuild on the other nodes")
+    void flush_ReplaysPopularityRebuilt() {
+        nodeA.onPopularityRebuilt(new PopularityRebuiltEvent());
+
+        nodeA.flush();
+
+        verify(publisherB).publishEvent(new PopularityRebuiltEvent());
+        verifyNoInteractions(publisherA);
+    }
+
+    @Test
+    @DisplayName("Should replay a user creation on the other nodes")
+    void flush_ReplaysUserCreated() {
+        nodeA.onUserCreated(new UserCreatedEvent(7L));
+
+        nodeA.flush();
+
+        verify(publisherB).publishEvent(new UserCreatedEvent(7L));
+        verifyNoInteractions(publisherA);
+    }
+
+    @Test
+    @DisplayName("Should send repeated changes of one interval once")
+    void flush_CoalescesDuplicates() {
+        List<String> sent = new ArrayList<>();
+        transport.start(sent::add, () -> { });
+
+        for (int i = 0; i < 3; i++) {
+            nodeA.onCoffeeChanged(CoffeeChangedEvent.ratingChanged(1L));
+        }
+        nodeA.flush();
+        nodeA.flush();
+
+        assertEquals(1, sent.size());
+        verify(publisherB, times(1)).publishEvent(CoffeeChangedEvent.ratingChanged(1L));
+    }
+
+    @Test
+    @DisplayName("Should count repeated activities of one interval instead of merging them")
+    void flush_CountsActivities() {
+        List<String> sent = new ArrayList<>();
+        transport.start(sent::add, () -> { });
+
+        for (int i = 0; i < 3; i++) {
+            nodeA.onActivity(CoffeeActivityEvent.helpfulVote(1L));
+        }
+        nodeA.flush();
+
+        assertEquals(1, sent.size());
+        verify(publisherB, times(3)).publishEvent(CoffeeActivityEvent.helpfulVote(1L));
+    }
+
+    @Test
+    @DisplayName("Should not re-broadcast replayed changes")
+    void replayedChanges_NotForwarded() {
+        doAnswer(invocation -> {
+            nodeB.onCoffeeChanged(invocation.getArgument(0));
+            return null;
+        }).when(publisherB).publishEvent(any(CoffeeChangedEvent.class));
+
+        nodeA.onCoffeeChanged(CoffeeChangedEvent.deleted(4L));
+        nodeA.flush();
+        nodeB.flush();
+
+        verify(publisherB).publishEvent(CoffeeChangedEvent.deleted(4L));
+        verifyNoInteractions(publisherA);
+    }
+
+    @Test
+    @DisplayName("Should flush local caches on a sequence gap")
+    void sequenceGap_PublishesLocalFlush() throws Exception {
+        nodeB.receive(objectMapper.writeValueAsString(new InvalidationMessage("other", 1, List.of("C:1:UPDATED"))));
+        nodeB.receive(objectMapper.writeValueAsString(new InvalidationMessage("other", 3, List.of("C:2:UPDATED"))));
+
+        verify(publisherB).publishEvent(CoffeeChangedEvent.updated(1L));
+        verify(publisherB, never()).publishEvent(CoffeeChangedEvent.updated(2L));
+        verify(publisherB).publishEvent(any(LocalFlushEvent.class));
+    }
+}
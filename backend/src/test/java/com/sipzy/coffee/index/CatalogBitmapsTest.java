@@ -0,0 +1,165 @@
+package com.sipzy.coffee.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CatalogBitmaps Unit Tests")
+class CatalogBitmapsTest {
+
+    private CatalogBitmaps bitmaps;
+
+    @BeforeEach
+    void setUp() {
+        bitmaps = new CatalogBitmaps();
+        bitmaps.put(entry(1L, "Yirgacheffe", "Ethiopia", 10L, "€€", new long[]{100L, 101L}, 4.5, 12));
+        bitmaps.put(entry(2L, "Sidamo", "Ethiopia", 20L, "€", new long[]{101L}, 3.8, 4));
+        bitmaps.put(entry(3L, "Huila", "Colombia", 10L, "€€€", new long[]{102L}, 4.1, 30));
+        bitmaps.put(entry(4L, "Santos", "Brazil", 30L, "€", new long[]{}, 3.2, 2));
+    }
+
+    @Test
+    @DisplayName("Should return every coffee when no filter is set")
+    void shouldMatchAllWithoutFilters() {
+        BitSet matches = bitmaps.match(query(null, null, null, null, null));
+
+        assertEquals(4, matches.cardinality());
+    }
+
+    @Test
+    @DisplayName("Should OR values inside a facet and AND across facets")
+    void shouldCombineFacets() {
+        BitSet matches = bitmaps.match(query(List.of("Ethiopia", "Colombia"), List.of(10L), null, null, null));
+
+        assertEquals(List.of(1L, 3L), bitmaps.page(matches, CatalogSort.NAME, false, 0, 10));
+    }
+
+    @Test
+    @DisplayName("Should filter on notes and minimum rating")
+    void shouldFilterOnNotesAndMinRating() {
+        BitSet matches = bitmaps.match(query(null, null, List.of(101L), null, 4.0));
+
+        assertEquals(1, matches.cardinality());
+        assertTrue(matches.get(1));
+    }
+
+    @Test
+    @DisplayName("Should return no match for an unknown facet value")
+    void shouldReturnEmptyForUnknownValue() {
+        BitSet matches = bitmaps.match(query(List.of("Kenya"), null, null, null, null));
+
+        assertTrue(matches.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should page through matches in sort order")
+    void shouldPageInSortOrder() {
+        BitSet matches = bitmaps.match(query(null, null, null, null, null));
+
+        assertEquals(List.of(1L, 3L), bitmaps.page(matches, CatalogSort.RATING, false, 0, 2));
+        assertEquals(List.of(2L, 4L), bitmaps.page(matches, CatalogSort.RATING, false, 2, 2));
+        assertEquals(List.of(4L, 2L), bitmaps.page(matches, CatalogSort.REVIEWS, true, 0, 2));
+    }
+
+    @Test
+    @DisplayName("Should seek after a cursor entry, even once that entry is removed")
+    void shouldSeekAfterEntry() {
+        BitSet matches = bitmaps.match(query(null, null, null, null, null));
+        CatalogEntry cursor = bitmaps.get(3L);
+
+        assertEquals(List.of(2L, 4L), bitmaps.pageAfter(matches, CatalogSort.RATING, false, cursor, 10));
+        assertEquals(List.of(3L, 1L), bitmaps.pageAfter(matches, CatalogSort.RATING, true, bitmaps.get(2L), 10));
+
+        bitmaps.remove(3L);
+        assertEquals(List.of(2L, 4L), bitmaps.pageAfter(matches, CatalogSort.RATING, false, cursor, 10));
+    }
+
+    @Test
+    @DisplayName("Should order unrated coffees last by best rating and first by lowest, like the SQL path")
+    void shouldOrderUnratedLikeSql() {
+        bitmaps.put(entry(5L, "Cerrado", "Brazil", 30L, "€", new long[]{}, null, 0));
+        BitSet matches = bitmaps.match(query(null, null, null, null, null));
+
+        assertEquals(List.of(1L, 3L, 2L, 4L, 5L), bitmaps.page(matches, CatalogSort.RATING, false, 0, 10));
+        assertEquals(List.of(5L, 4L, 2L, 3L, 1L), bitmaps.page(matches, CatalogSort.RATING, true, 0, 10));
+        assertEquals(List.of(5L), bitmaps.pageAfter(matches, CatalogSort.RATING, false, bitmaps.get(4L), 10));
+        assertEquals(List.of(4L, 2L), bitmaps.pageAfter(matches, CatalogSort.RATING, true, bitmaps.get(5L), 2));
+        assertFalse(bitmaps.match(query(null, null, null, null, 0.0)).get(5));
+    }
+
+    @Test
+    @DisplayName("Should order names by lower-cased code point, like COLLATE \"C\" in SQL")
+    void shouldOrderNamesByCodePoint() {
+        bitmaps.put(entry(5L, "Zeta", "Brazil", 30L, "€", new long[]{}, null, 0));
+        bitmaps.put(entry(6L, "Éclair", "Brazil", 30L, "€", new long[]{}, null, 0));
+        bitmaps.put(entry(7L, "\uFF3Aen", "Brazil", 30L, "€", new long[]{}, null, 0));
+        bitmaps.put(entry(8L, "\uD835\uDC9Cbysse", "Brazil", 30L, "€", new long[]{}, null, 0));
+        BitSet matches = bitmaps.match(query(null, null, null, null, null));
+
+        assertEquals(List.of(3L, 4L, 2L, 1L, 5L, 6L, 7L, 8L), bitmaps.page(matches, CatalogSort.NAME, true, 0, 10));
+    }
+
+    @Test
+    @DisplayName("Should move a coffee between bitmaps when it is updated")
+    void shouldReindexOnUpdate() {
+        bitmaps.put(entry(2L, "Sidamo", "Kenya", 20L, "€", new long[]{101L}, 3.8, 4));
+
+        assertEquals(1, bitmaps.match(query(List.of("Ethiopia"), null, null, null, null)).cardinality());
+        assertEquals(1, bitmaps.match(query(List.of("Kenya"), null, null, null, null)).cardinality());
+        assertEquals(4, bitmaps.size());
+    }
+
+    @Test
+    @DisplayName("Should drop a removed coffee from every bitmap")
+    void shouldRemoveCoffee() {
+        bitmaps.remove(3L);
+
+        assertNull(bitmaps.get(3L));
+        assertFalse(bitmaps.originBitmaps().containsKey("Colombia"));
+        assertFalse(bitmaps.noteBitmaps().containsKey(102L));
+        assertEquals(3, bitmaps.match(query(null, null, null, null, null)).cardinality());
+    }
+
+    @Test
+    @DisplayName("Should count each facet against the other facets' filters")
+    void shouldComputeDisjunctiveFacets() {
+        CatalogFacets facets = bitmaps.facets(query(List.of("Ethiopia"), null, null, null, null), null);
+
+        assertEquals(2, facets.total());
+        assertEquals(2L, facets.origins().get("Ethiopia"));
+        assertEquals(1L, facets.origins().get("Colombia"));
+        assertEquals(1L, facets.roasters().get(10L));
+        assertEquals(0L, facets.roasters().get(30L));
+        assertEquals(2L, facets.notes().get(101L));
+        assertEquals(1L, facets.priceRanges().get("€"));
+    }
+
+    @Test
+    @DisplayName("Should restrict facet counts to the given ids")
+    void shouldRestrictFacets() {
+        BitSet searchHits = new BitSet();
+        searchHits.set(3);
+        searchHits.set(4);
+
+        CatalogFacets facets = bitmaps.facets(query(null, null, null, null, null), searchHits);
+
+        assertEquals(2, facets.total());
+        assertEquals(0L, facets.origins().get("Ethiopia"));
+        assertEquals(1L, facets.origins().get("Brazil"));
+    }
+
+    private static CatalogQuery query(List<String> origins, List<Long> roasterIds, List<Long> noteIds,
+                                      List<String> priceRanges, Double minRating) {
+        return new CatalogQuery(origins, roasterIds, noteIds, priceRanges, null, minRating, CatalogSort.RATING, false);
+    }
+
+    private static CatalogEntry entry(long id, String name, String origin, Long roasterId, String priceRange,
+                                      long[] noteIds, Double rating, int reviewCount) {
+        return new CatalogEntry(id, name, origin, roasterId, "Washed", priceRange, noteIds, rating, reviewCount, id * 1000L);
+    }
+}
@@ -0,0 +1,42 @@
+package com.sipzy.coffee.index;
+
+import com.sipzy.common.exception.BadRequestException;
+import com.sipzy.common.util.CursorCodec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CatalogPosition Unit Tests")
+class CatalogPositionTest {
+
+    @Test
+    @DisplayName("Should round-trip every sort key through its cursor, to the microsecond")
+    void shouldRoundTripCursor() {
+        Instant createdAt = Instant.parse("2025-10-25T10:00:00.123456Z");
+        CatalogPosition position = CatalogPosition.of(42L, 4.25, 7, createdAt, "€€", "Café | Maison");
+        String tag = CatalogPosition.cursorTag(CatalogSort.CREATED, true);
+
+        CatalogPosition decoded = CatalogPosition.decode(position.encode(tag), tag);
+
+        assertEquals(position, decoded);
+        assertEquals(createdAt, decoded.createdAtInstant());
+        assertEquals(2, decoded.priceLevel());
+    }
+
+    @Test
+    @DisplayName("Should keep a missing rating and reject a cursor of another sort")
+    void shouldKeepMissingRating() {
+        CatalogPosition unrated = CatalogPosition.of(5L, null, 0, Instant.EPOCH, null, "Santos");
+        String tag = CatalogPosition.cursorTag(CatalogSort.RATING, false);
+        String cursor = unrated.encode(tag);
+
+        assertEquals(unrated, CatalogPosition.decode(cursor, tag));
+        assertThrows(BadRequestException.class,
+                () -> CatalogPosition.decode(cursor, CatalogPosition.cursorTag(CatalogSort.RATING, true)));
+        assertThrows(BadRequestException.class,
+                () -> CatalogPosition.decode(CursorCodec.encode(tag, "x", "", 0, 0, "", "n"), tag));
+    }
+}
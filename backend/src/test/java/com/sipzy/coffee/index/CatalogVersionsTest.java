@@ -0,0 +1,65 @@
+package com.sipzy.coffee.index;
+
+import com.sipzy.coffee.dto.response.CoffeeResponse;
+import com.sipzy.coffee.dto.response.RoasterSummary;
+import com.sipzy.common.web.VersionStamp;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CatalogVersions Unit Tests")
+class CatalogVersionsTest {
+
+    private static final Instant UPDATED = Instant.parse("2025-10-25T10:00:00Z");
+
+    private static CoffeeResponse coffee(Long id, BigDecimal avgRating, Instant updatedAt) {
+        return new CoffeeResponse(id, "Coffee " + id, null, null, null, null, null, null, null, null,
+                null, null, null, avgRating, 3, "APPROVED", null, null, null, null, null, UPDATED, updatedAt,
+                List.of());
+    }
+
+    @Test
+    @DisplayName("Should tag a coffee list by its content, the same on every instance")
+    void coffeeList_TaggedByContent() {
+        List<CoffeeResponse> coffees = List.of(coffee(1L, new BigDecimal("4.50"), UPDATED));
+
+        VersionStamp nodeA = new CatalogVersions().coffeeList(coffees, "popular", 8);
+        VersionStamp nodeB = new CatalogVersions().coffeeList(List.copyOf(coffees), "popular", 8);
+
+        assertEquals(nodeA, nodeB);
+        assertNull(nodeA.lastModified());
+        assertNotEquals(nodeA, new CatalogVersions().coffeeList(coffees, "recent", 8));
+    }
+
+    @Test
+    @DisplayName("Should move the tag of a list only with the list it was computed from")
+    void coffeeList_MovesWithContent() {
+        CatalogVersions versions = new CatalogVersions();
+        VersionStamp before = versions.coffeeList(List.of(coffee(1L, new BigDecimal("4.50"), UPDATED)), "popular", 8);
+        VersionStamp after = versions.coffeeList(
+                List.of(coffee(1L, new BigDecimal("4.60"), UPDATED.plusSeconds(5))), "popular", 8);
+
+        assertNotEquals(before.etag(), after.etag());
+    }
+
+    @Test
+    @DisplayName("Should tag a coffee detail by its content alone")
+    void coffee_TaggedByContent() {
+        CoffeeResponse coffee = coffee(1L, new BigDecimal("4.50"), UPDATED);
+        CoffeeResponse renamedRoaster = new CoffeeResponse(1L, "Coffee 1", 7L,
+                new RoasterSummary(7L, "Belleville Brûlerie", null, null, null, true), null, null, null, null, null,
+                null, null, null, null, new BigDecimal("4.50"), 3, "APPROVED", null, null, null, null, null, UPDATED,
+                UPDATED, List.of());
+
+        VersionStamp stamp = new CatalogVersions().coffee(coffee);
+
+        assertEquals(stamp, new CatalogVersions().coffee(coffee(1L, new BigDecimal("4.50"), UPDATED)));
+        assertNull(stamp.lastModified());
+        assertNotEquals(stamp.etag(), new CatalogVersions().coffee(renamedRoaster).etag());
+    }
+}
@@ -0,0 +1,49 @@
+package com.sipzy.coffee.index;
+
+import com.sipzy.coffee.dto.response.NoteByCategoryResponse;
+import com.sipzy.coffee.dto.response.NoteResponse;
+import com.sipzy.coffee.dto.response.RoasterResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ReferenceDataSnapshot Unit Tests")
+class ReferenceDataSnapshotTest {
+
+    private static final Instant CREATED = Instant.parse("2025-10-25T10:00:00Z");
+    private static final Instant UPDATED = Instant.parse("2025-11-02T08:30:00Z");
+
+    private final NoteResponse citrus = new NoteResponse(1L, "Citrus", "Fruity", CREATED);
+    private final NoteResponse berry = new NoteResponse(2L, "Berry", "Fruity", CREATED);
+    private final RoasterResponse roaster = new RoasterResponse(7L, "Belleville", null, "Paris", null, null,
+            true, CREATED, UPDATED);
+
+    @Test
+    @DisplayName("Should give the same version to the same content whatever the load order or generation")
+    void of_VersionsByContent() {
+        ReferenceDataSnapshot nodeA = ReferenceDataSnapshot.of(3, List.of(citrus, berry),
+                List.of(new NoteByCategoryResponse("Fruity", List.of(citrus, berry))), List.of(roaster));
+        ReferenceDataSnapshot nodeB = ReferenceDataSnapshot.of(41, List.of(berry, citrus),
+                List.of(new NoteByCategoryResponse("Fruity", List.of(berry, citrus))), List.of(roaster));
+
+        assertEquals(nodeA.version(), nodeB.version());
+        assertEquals(nodeA.stamp("notes"), nodeB.stamp("notes"));
+        assertEquals(List.of(citrus, berry), nodeB.notes());
+        assertNull(nodeA.stamp("notes").lastModified());
+    }
+
+    @Test
+    @DisplayName("Should move the version when the content changes")
+    void of_VersionMovesWithContent() {
+        NoteResponse renamed = new NoteResponse(2L, "Blackberry", "Fruity", CREATED);
+
+        ReferenceDataSnapshot before = ReferenceDataSnapshot.of(1, List.of(citrus, berry), List.of(), List.of(roaster));
+        ReferenceDataSnapshot after = ReferenceDataSnapshot.of(2, List.of(citrus, renamed), List.of(), List.of(roaster));
+
+        assertNotEquals(before.version(), after.version());
+    }
+}
@@ -0,0 +1,80 @@
+package com.sipzy.coffee.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SimilarityModel Unit Tests")
+class SimilarityModelTest {
+
+    private SimilarityModel model;
+
+    @BeforeEach
+    void setUp() {
+        model = new SimilarityModel();
+        model.put(entry(1L, "Ethiopia", 10L, "Washed", 100L, 101L));
+        model.put(entry(2L, "Ethiopia", 20L, "Washed", 101L));
+        model.put(entry(3L, "Colombia", 10L, "Natural", 102L));
+        model.put(entry(4L, "Brazil", 30L, "Honey"));
+    }
+
+    @Test
+    @DisplayName("Should score identical feature sets 1 and disjoint ones 0")
+    void shouldBoundSimilarity() {
+        assertEquals(1.0, SimilarityModel.similarity(model.get(1L), model.get(1L)), 1e-9);
+        assertEquals(0.0, SimilarityModel.similarity(model.get(1L), model.get(4L)), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should weight shared features over the union of features")
+    void shouldComputeWeightedJaccard() {
+        // shared: note 101 + origin + process = 4.0; union: 6.5 + 5.5 - 4.0 = 8.0
+        assertEquals(4.0 / 8.0, SimilarityModel.similarity(model.get(1L), model.get(2L)), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should rank neighbours best first and skip coffees sharing nothing")
+    void shouldRankNeighbours() {
+        Neighbours neighbours = model.topK(model.get(1L), 10);
+
+        assertArrayEquals(new long[]{2L, 3L}, neighbours.ids());
+        assertEquals(Neighbours.EMPTY.size(), model.topK(model.get(4L), 10).size());
+    }
+
+    @Test
+    @DisplayName("Should keep only the K best neighbours")
+    void shouldCapAtK() {
+        assertArrayEquals(new long[]{2L}, model.topK(model.get(1L), 1).ids());
+    }
+
+    @Test
+    @DisplayName("Should drop a removed coffee from the candidates")
+    void shouldRemoveFromCandidates() {
+        model.remove(2L);
+
+        assertFalse(model.candidates(model.get(1L)).get(2));
+        assertArrayEquals(new long[]{3L}, model.topK(model.get(1L), 10).ids());
+    }
+
+    @Test
+    @DisplayName("Should insert, replace and truncate neighbour lists in score order")
+    void shouldMaintainNeighbourOrder() {
+        Neighbours list = Neighbours.EMPTY
+                .with(5L, 0.2, 2)
+                .with(6L, 0.5, 2)
+                .with(7L, 0.1, 2);
+
+        assertArrayEquals(new long[]{6L, 5L}, list.ids());
+
+        list = list.with(5L, 0.9, 2);
+        assertArrayEquals(new long[]{5L, 6L}, list.ids());
+        assertEquals(0.5, list.minScore(), 1e-9);
+        assertFalse(list.accepts(0.4, 8L, 2));
+    }
+
+    private static CatalogEntry entry(long id, String origin, Long roasterId, String process, long... noteIds) {
+        return new CatalogEntry(id, "Coffee " + id, origin, roasterId, process, "€€", noteIds, 4.0, 1, id);
+    }
+}
@@ -0,0 +1,172 @@
+package com.sipzy.coffee.repository;
+
+import com.sipzy.coffee.dto.request.CoffeeFiltersRequest;
+import com.sipzy.coffee.index.CatalogPosition;
+import com.sipzy.coffee.repository.CoffeeSearchCompiler.CompiledQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CoffeeSearchCompiler Unit Tests")
+class CoffeeSearchCompilerTest {
+
+    @Test
+    @DisplayName("Should only filter on status when no filter is set")
+    void shouldCompileWithoutFilters() {
+        CompiledQuery query = CoffeeSearchCompiler.select(CoffeeFiltersRequest.builder().build(), null);
+
+        assertTrue(query.sql().contains("WHERE c.status = 'APPROVED' ORDER BY"));
+        assertFalse(query.sql().contains("IS NULL"));
+        assertTrue(query.params().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should turn multi-value filters into de-duplicated IN-lists")
+    void shouldCompileInLists() {
+        CoffeeFiltersRequest filters = CoffeeFiltersRequest.builder()
+                .origin(List.of("Kenya", "Ethiopia", "Kenya"))
+                .roasterId(List.of(1L, 2L))
+                .priceRange(List.of("€€"))
+                .noteIds(List.of(5L))
+                .minRating(4.0)
+                .build();
+
+        CompiledQuery query = CoffeeSearchCompiler.select(filters, null);
+
+        assertTrue(query.sql().contains("c.origin IN (:origins)"));
+        assertTrue(query.sql().contains("c.roaster_id IN (:roasterIds)"));
+        assertTrue(query.sql().contains("c.price_range IN (:priceRanges)"));
+        assertTrue(query.sql().contains("cn.note_id IN (:noteIds)"));
+        assertTrue(query.sql().contains("c.avg_rating >= :minRating"));
+        assertEquals(List.of("Kenya", "Ethiopia"), query.params().get("origins"));
+        assertFalse(query.params().containsKey("search"));
+    }
+
+    @Test
+    @DisplayName("Should map whitelisted sorts and fall back to rating")
+    void shouldCompileSorts() {
+        CompiledQuery byName = CoffeeSearchCompiler.select(
+                CoffeeFiltersRequest.builder().sortBy("name").sortOrder("asc").build(), null);
+        CompiledQuery unknown = CoffeeSearchCompiler.select(
+                CoffeeFiltersRequest.builder().sortBy("id; DROP TABLE coffees").build(), null);
+
+        assertTrue(byName.sql().endsWith("ORDER BY LOWER(c.name) COLLATE \"C\" ASC NULLS FIRST, c.id ASC NULLS FIRST"));
+        assertTrue(unknown.sql().contains("ORDER BY c.avg_rating DESC NULLS LAST"));
+        assertFalse(unknown.sql().contains("DROP"));
+    }
+
+    @Test
+    @DisplayName("Should seek after a catalog position in the order of its sort, nulls included")
+    void shouldCompileCatalogSeek() {
+        CoffeeFiltersRequest byRating = CoffeeFiltersRequest.builder().sortBy("rating").build();
+        CoffeeFiltersRequest byRatingAsc = CoffeeFiltersRequest.builder().sortBy("rating").sortOrder("asc").build();
+        CoffeeFiltersRequest byDate = CoffeeFiltersRequest.builder().sortBy("created").sortOrder("asc").build();
+        Instant createdAt = Instant.parse("2025-10-25T10:00:00.123456Z");
+        CatalogPosition rated = CatalogPosition.of(10L, 4.25, 3, createdAt, "€€", "Huila");
+        CatalogPosition unrated = CatalogPosition.of(11L, null, 0, createdAt, "€", "Santos");
+
+        CompiledQuery first = CoffeeSearchCompiler.seek(byRating, null);
+        CompiledQuery afterRated = CoffeeSearchCompiler.seek(byRating, rated);
+        CompiledQuery afterUnrated = CoffeeSearchCompiler.seek(byRating, unrated);
+
+        assertTrue(first.sql().startsWith("SELECT c.id, c.avg_rating, c.review_count, c.created_at"));
+        assertTrue(first.sql().contains("WHERE c.status = 'APPROVED' ORDER BY c.avg_rating DESC NULLS LAST"));
+        assertTrue(afterRated.sql().contains("(c.avg_rating < :afterRating OR c.avg_rating IS NULL OR "
+                + "(c.avg_rating = :afterRating AND (c.review_count, c.id) < (:afterReviewCount, :afterId)))"));
+        assertEquals(new BigDecimal("4.25"), afterRated.params().get("afterRating"));
+        assertTrue(afterUnrated.sql().contains("(c.avg_rating IS NULL AND (c.review_count, c.id) < "));
+        assertTrue(CoffeeSearchCompiler.seek(byRatingAsc, unrated).sql()
+                .contains("(c.avg_rating IS NOT NULL OR (c.avg_rating IS NULL AND (c.review_count, c.id) > "));
+
+        CompiledQuery afterDate = CoffeeSearchCompiler.seek(byDate, rated);
+        assertTrue(afterDate.sql().contains("(c.created_at, c.id) > (:afterCreatedAt, :afterId)"));
+        assertEquals(createdAt, afterDate.params().get("afterCreatedAt"));
+        assertThrows(IllegalArgumentException.class,
+                () -> CoffeeSearchCompiler.seek(CoffeeFiltersRequest.builder().search("moka").build(), null));
+    }
+
+    @Test
+    @DisplayName("Should rank searches by relevance unless another sort is requested")
+    void shouldSortSearchByRelevance() {
+        CoffeeFiltersRequest search = CoffeeFiltersRequest.builder().search(" moka ").sortBy(null).build();
+        CoffeeFiltersRequest searchByDate = CoffeeFiltersRequest.builder().search("moka").sortBy("created").build();
+
+        assertTrue(CoffeeSearchCompiler.select(search, null).sql().contains("ORDER BY ts_rank_cd"));
+        assertEquals("moka", CoffeeSearchCompiler.select(search, null).params().get("search"));
+        assertTrue(CoffeeSearchCompiler.select(searchByDate, null).sql().contains("ORDER BY c.created_at DESC"));
+    }
+
+    @Test
+    @DisplayName("Should seek after a (rank, id) position in relevance order only")
+    void shouldCompileRankSeek() {
+        CoffeeFiltersRequest search = CoffeeFiltersRequest.builder().search("moka").sortBy(null).build();
+        CoffeeFiltersRequest sorted = CoffeeFiltersRequest.builder().search("moka").sortBy("name").build();
+        CoffeeSearchCompiler.RankSeek after = new CoffeeSearchCompiler.RankSeek(0.5f, 10L);
+
+        CompiledQuery query = CoffeeSearchCompiler.select(search, after);
+
+        assertTrue(query.sql().contains("c.id < :afterId"));
+        assertEquals(10L, query.params().get("afterId"));
+        assertThrows(IllegalArgumentException.class, () -> CoffeeSearchCompiler.select(sorted, after));
+    }
+
+    @Test
+    @DisplayName("Should match through the trigram indexes and rank by similarity in fuzzy mode")
+    void shouldCompileFuzzySearch() {
+        CoffeeFiltersRequest fuzzy = CoffeeFiltersRequest.builder().search("etiopia").fuzzy(true).sortBy(null).build();
+
+        CompiledQuery query = CoffeeSearchCompiler.select(fuzzy, null);
+
+        assertTrue(query.sql().contains("LEFT JOIN roasters r ON r.id = c.roaster_id"));
+        assertTrue(query.sql().contains("name % :search"));
+        assertTrue(query.sql().contains("ro.name % :search"));
+        assertTrue(query.sql().contains("ORDER BY CAST(0.8 * GREATEST(similarity(c.name, :search)"));
+        assertFalse(query.sql().contains("search_vector"));
+        assertTrue(CoffeeSearchCompiler.rank(fuzzy, 1L).sql().contains("similarity(r.name, :search)"));
+    }
+
+    @Test
+    @DisplayName("Should ignore the fuzzy flag without a search term")
+    void shouldIgnoreFuzzyWithoutSearch() {
+        CoffeeFiltersRequest filters = CoffeeFiltersRequest.builder().fuzzy(true).build();
+
+        assertFalse(CoffeeSearchCompiler.isFuzzy(filters));
+        assertFalse(CoffeeSearchCompiler.select(filters, null).sql().contains("roasters"));
+    }
+
+    @Test
+    @DisplayName("Should count with the same predicates and no ORDER BY")
+    void shouldCompileCount() {
+        CoffeeFiltersRequest filters = CoffeeFiltersRequest.builder().origin(List.of("Kenya")).build();
+
+        CompiledQuery count = CoffeeSearchCompiler.count(filters);
+
+        assertTrue(count.sql().startsWith("SELECT COUNT(*) FROM coffees c WHERE"));
+        assertTrue(count.sql().contains("c.origin IN (:origins)"));
+        assertFalse(count.sql().contains("ORDER BY"));
+    }
+
+    @Test
+    @DisplayName("Should count a facet against every filter but its own")
+    void shouldCompileFacet() {
+        CoffeeFiltersRequest filters = CoffeeFiltersRequest.builder()
+                .origin(List.of("Kenya"))
+                .noteIds(List.of(5L))
+                .build();
+
+        CompiledQuery origins = CoffeeSearchCompiler.facet(filters, CoffeeSearchCompiler.Facet.ORIGIN);
+        CompiledQuery notes = CoffeeSearchCompiler.facet(filters, CoffeeSearchCompiler.Facet.NOTE);
+
+        assertFalse(origins.sql().contains("c.origin IN"));
+        assertTrue(origins.sql().contains("cn.note_id IN (:noteIds)"));
+        assertTrue(origins.sql().endsWith("GROUP BY c.origin"));
+        assertTrue(notes.sql().contains("c.origin IN (:origins)"));
+        assertFalse(notes.params().containsKey("noteIds"));
+        assertTrue(notes.sql().endsWith("GROUP BY cn.note_id"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.sipzy.coffee.service;
+
+import com.sipzy.coffee.dto.response.CoffeeResponse;
+import com.sipzy.coffee.dto.response.NoteSummary;
+import com.sipzy.coffee.event.CoffeeChangedEvent;
+import com.sipzy.coffee.event.PopularityRebuiltEvent;
+import com.sipzy.coffee.event.ReferenceDataChangedEvent;
+import com.sipzy.coffee.repository.CoffeeCardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CoffeeCacheInvalidator Unit Tests")
+class CoffeeCacheInvalidatorTest {
+
+    @Mock
+    private CoffeeCardRepository coffeeCardRepository;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private CoffeeCacheInvalidator invalidator;
+
+    private Cache coffees;
+    private Cache popular;
+    private Cache recent;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager();
+        invalidator = new CoffeeCacheInvalidator(cacheManager, coffeeCardRepository);
+
+        coffees = cacheManager.getCache(CoffeeCacheInvalidator.COFFEES);
+        popular = cacheManager.getCache(CoffeeCacheInvalidator.POPULAR);
+        recent = cacheManager.getCache(CoffeeCacheInvalidator.RECENT);
+
+        coffees.put(1L, coffee(1L, 10L, 100L));
+        coffees.put(2L, coffee(2L, 20L, 200L));
+        popular.put(2, List.of(coffee(1L, 10L, 100L), coffee(2L, 20L, 200L)));
+        popular.put(1, List.of(coffee(2L, 20L, 200L)));
+        recent.put(1, List.of(coffee(3L, 30L, 300L)));
+    }
+
+    private static CoffeeResponse coffee(Long id, Long roasterId, Long noteId) {
+        return new CoffeeResponse(id, "Coffee " + id, roasterId, null, null, null, null, null, null, null,
+                null, null, null, null, null, "APPROVED", null, null, null, null, null, null, null,
+                List.of(new NoteSummary(noteId, "Note " + noteId, null)));
+    }
+
+    @Test
+    @DisplayName("Should evict only the updated coffee and the lists containing it")
+    void updated_EvictsDependentEntriesOnly() {
+        invalidator.onCoffeeChanged(CoffeeChangedEvent.updated(1L));
+
+        assertNull(coffees.get(1L));
+        assertNotNull(coffees.get(2L));
+        assertNull(popular.get(2));
+        assertNotNull(popular.get(1));
+        assertNotNull(recent.get(1));
+        verifyNoInteractions(coffeeCardRepository);
+    }
+
+    @Test
+    @DisplayName("Should clear the popular lists on a rating change, keeping recent lists without the coffee")
+    void ratingChanged_ClearsPopular() {
+        invalidator.onCoffeeChanged(CoffeeChangedEvent.ratingChanged(5L));
+
+        assertNotNull(coffees.get(1L));
+        assertNull(popular.get(1));
+        assertNull(popular.get(2));
+        assertNotNull(recent.get(1));
+    }
+
+    @Test
+    @DisplayName("Should clear every list when a coffee enters the catalog")
+    void approved_ClearsLists() {
+        when(coffeeCardRepository.findExistingIds(anyCollection())).thenReturn(List.of(7L));
+
+        invalidator.onCoffeeChanged(CoffeeChangedEvent.statusChanged(7L));
+
+        assertNull(popular.get(1));
+        assertNull(recent.get(1));
+        assertNotNull(coffees.get(1L));
+    }
+
+    @Test
+    @DisplayName("Should keep the lists when a created coffee is not listed yet")
+    void createdPending_KeepsLists() {
+        when(coffeeCardRepository.findExistingIds(anyCollection())).thenReturn(List.of());
+
+        invalidator.onCoffeeChanged(CoffeeChangedEvent.created(8L));
+
+        assertNotNull(popular.get(1));
+        assertNotNull(popular.get(2));
+        assertNotNull(recent.get(1));
+    }
+
+    @Test
+    @DisplayName("Should evict the coffees inlining a changed roaster or note")
+    void referenceData_EvictsInliningCoffees() {
+        invalidator.onReferenceDataChanged(ReferenceDataChangedEvent.roaster(20L));
+
+        assertNotNull(coffees.get(1L));
+        assertNull(coffees.get(2L));
+        assertNull(popular.get(1));
+        assertNull(popular.get(2));
+
+        invalidator.onReferenceDataChanged(ReferenceDataChangedEvent.note(300L));
+
+        assertNotNull(coffees.get(1L));
+        assertNull(recent.get(1));
+    }
+
+    @Test
+    @DisplayName("Should clear every popular list after a popularity rebuild, and nothing else")
+    void popularityRebuilt_ClearsPopular() {
+        invalidator.onPopularityRebuilt(new PopularityRebuiltEvent());
+
+        assertNull(popular.get(1));
+        assertNull(popular.get(2));
+        assertNotNull(coffees.get(1L));
+        assertNotNull(recent.get(1));
+    }
+}
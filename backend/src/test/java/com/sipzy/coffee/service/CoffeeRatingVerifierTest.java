@@ -0,0 +1,74 @@
+package com.sipzy.coffee.service;
+
+import com.sipzy.coffee.event.CoffeeChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CoffeeRatingVerifier Unit Tests")
+class CoffeeRatingVerifierTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query query;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CoffeeRatingVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        verifier = new CoffeeRatingVerifier(eventPublisher, transactionManager, true);
+        ReflectionTestUtils.setField(verifier, "entityManager", entityManager);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        lenient().when(query.setParameter(anyString(), any())).thenReturn(query);
+    }
+
+    @Test
+    @DisplayName("Should repair a drifted coffee from the scheduled job inside a transaction")
+    void verifyNightly_RepairsDriftInTransaction() {
+        when(query.getResultList()).thenReturn(List.of(7L));
+        when(query.executeUpdate()).thenReturn(1);
+
+        verifier.verifyNightly();
+
+        InOrder inOrder = inOrder(transactionManager, query, eventPublisher);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(query).executeUpdate();
+        inOrder.verify(eventPublisher).publishEvent(CoffeeChangedEvent.ratingChanged(7L));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should not touch any coffee when nothing drifted")
+    void verify_NoDrift() {
+        when(query.getResultList()).thenReturn(List.of());
+
+        verifier.verify();
+
+        verify(query, never()).executeUpdate();
+        verifyNoInteractions(eventPublisher);
+        verify(transactionManager).commit(any());
+    }
+}
@@ -0,0 +1,76 @@
+package com.sipzy.coffee.trending;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TrendingScores Unit Tests")
+class TrendingScoresTest {
+
+    private TrendingScores scores;
+
+    @BeforeEach
+    void setUp() {
+        scores = new TrendingScores(Duration.ofHours(24));
+    }
+
+    @Test
+    @DisplayName("Should accumulate activity per coffee")
+    void shouldAccumulate() {
+        scores.add(1L, 3.0);
+        scores.add(1L, 1.0);
+        scores.add(2L, 2.0);
+
+        assertEquals(4.0, scores.get(1L), 1e-9);
+        assertEquals(2.0, scores.get(2L), 1e-9);
+        assertEquals(0.0, scores.get(3L), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should halve scores after one half-life")
+    void shouldDecayByHalfLife() {
+        scores.add(1L, 8.0);
+
+        scores.decay(Duration.ofHours(24), 0.01);
+        assertEquals(4.0, scores.get(1L), 1e-9);
+
+        scores.decay(Duration.ofHours(48), 0.01);
+        assertEquals(1.0, scores.get(1L), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should forget scores decayed under the floor")
+    void shouldDropUnderFloor() {
+        scores.add(1L, 1.0);
+        scores.add(2L, 100.0);
+
+        scores.decay(Duration.ofHours(24 * 7), 0.5);
+
+        assertEquals(1, scores.size());
+        assertEquals(Map.of(2L, 100.0 / 128), scores.snapshot());
+    }
+
+    @Test
+    @DisplayName("Should rank best scores first, newest coffee first on ties")
+    void shouldRankTopScores() {
+        scores.add(1L, 2.0);
+        scores.add(2L, 5.0);
+        scores.add(3L, 2.0);
+        scores.add(4L, 1.0);
+
+        assertEquals(List.of(2L, 3L, 1L), scores.top(3));
+        assertEquals(List.of(2L, 3L, 1L, 4L), scores.top(10));
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive half-life")
+    void shouldRejectZeroHalfLife() {
+        assertThrows(IllegalArgumentException.class, () -> new TrendingScores(Duration.ZERO));
+    }
+}
@@ -0,0 +1,91 @@
+package com.sipzy.coffee.warmup;
+
+import com.sipzy.coffee.index.ReferenceDataCache;
+import com.sipzy.coffee.index.ReferenceDataSnapshot;
+import com.sipzy.coffee.repository.CoffeeCardRepository;
+import com.sipzy.coffee.service.CoffeeQueryService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CatalogWarmUp Unit Tests")
+class CatalogWarmUpTest {
+
+    @Mock
+    private CoffeeQueryService coffeeQueryService;
+
+    @Mock
+    private CoffeeCardRepository coffeeCardRepository;
+
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
+    private CatalogWarmUp warmUp(Duration budget) {
+        return new CatalogWarmUp(coffeeQueryService, coffeeCardRepository, referenceDataCache,
+                true, budget, 2, List.of(8, 12), 3);
+    }
+
+    @Test
+    @DisplayName("Should warm lists, reference data and top coffee details, then report ready")
+    void warmUp_LoadsEveryPart() {
+        when(coffeeCardRepository.findMostReviewedIds(any(Pageable.class))).thenReturn(List.of(1L, 2L, 3L));
+        when(referenceDataCache.current())
+                .thenReturn(new ReferenceDataSnapshot(1, "v1", List.of(), List.of(), List.of()));
+        CatalogWarmUp warmUp = warmUp(Duration.ofSeconds(10));
+        CatalogWarmUpHealthIndicator health = new CatalogWarmUpHealthIndicator(warmUp);
+
+        assertEquals(Status.OUT_OF_SERVICE, health.health().getStatus());
+        warmUp.warmUp();
+
+        verify(coffeeQueryService).getPopularCoffees(8);
+        verify(coffeeQueryService).getPopularCoffees(12);
+        verify(coffeeQueryService).getRecentCoffees(8);
+        verify(coffeeQueryService).getRecentCoffees(12);
+        verify(coffeeQueryService, times(3)).getCoffeeById(any());
+        assertEquals(CatalogWarmUp.State.DONE, warmUp.getState());
+        assertEquals("3 entries", warmUp.getReport().get("coffeeDetails"));
+        assertEquals(Status.UP, health.health().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should report ready when the budget runs out")
+    void warmUp_StopsAtBudget() {
+        when(coffeeCardRepository.findMostReviewedIds(any(Pageable.class))).thenReturn(List.of());
+        when(coffeeQueryService.getPopularCoffees(anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return List.of();
+        });
+        CatalogWarmUp warmUp = warmUp(Duration.ofMillis(100));
+
+        warmUp.warmUp();
+
+        assertEquals(CatalogWarmUp.State.TIMED_OUT, warmUp.getState());
+        assertTrue(warmUp.getReport().get("popularCoffees").startsWith("timed out"));
+        assertEquals(Status.UP, new CatalogWarmUpHealthIndicator(warmUp).health().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should report a failed part without blocking readiness")
+    void warmUp_FailedPartReported() {
+        when(coffeeCardRepository.findMostReviewedIds(any(Pageable.class))).thenReturn(List.of());
+        when(referenceDataCache.current()).thenThrow(new IllegalStateException("down"));
+
+        CatalogWarmUp warmUp = warmUp(Duration.ofSeconds(10));
+        warmUp.warmUp();
+
+        assertEquals(CatalogWarmUp.State.DONE, warmUp.getState());
+        assertTrue(warmUp.getReport().get("referenceData").startsWith("failed"));
+    }
+}
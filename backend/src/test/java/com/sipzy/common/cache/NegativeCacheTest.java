@@ -0,0 +1,66 @@
+package com.sipzy.common.cache;
+
+import com.sipzy.common.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for NegativeCache
+ */
+@DisplayName("NegativeCache Unit Tests")
+class NegativeCacheTest {
+
+    private NegativeCache negativeCache;
+    private AtomicInteger lookups;
+
+    @BeforeEach
+    void setUp() {
+        negativeCache = new NegativeCache(new SimpleMeterRegistry(), Duration.ofMinutes(10), 100);
+        lookups = new AtomicInteger();
+    }
+
+    private Optional<String> lookup(Optional<String> result) {
+        lookups.incrementAndGet();
+        return result;
+    }
+
+    @Test
+    @DisplayName("Should answer a known missing id without running the finder")
+    void missingId_NotLookedUpTwice() {
+        assertTrue(negativeCache.find(NegativeCache.COFFEE, 42L, () -> lookup(Optional.empty())).isEmpty());
+        assertTrue(negativeCache.find(NegativeCache.COFFEE, 42L, () -> lookup(Optional.of("found"))).isEmpty());
+
+        assertEquals(1, lookups.get());
+        assertTrue(negativeCache.isMissing(NegativeCache.COFFEE, 42L));
+        assertFalse(negativeCache.isMissing(NegativeCache.USER, 42L));
+    }
+
+    @Test
+    @DisplayName("Should look up again once the id is forgotten")
+    void forget_LooksUpAgain() {
+        negativeCache.find(NegativeCache.USER, 7L, () -> lookup(Optional.empty()));
+        negativeCache.forget(NegativeCache.USER, 7L);
+
+        assertEquals(Optional.of("found"), negativeCache.find(NegativeCache.USER, 7L, () -> lookup(Optional.of("found"))));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    @DisplayName("Should throw the usual not found message for a missing id")
+    void require_Missing_Throws() {
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> negativeCache.require(NegativeCache.USER, 9L, Optional::empty));
+
+        assertEquals("User not found with id: 9", exception.getMessage());
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals("value", negativeCache.require(NegativeCache.COFFEE, 1L, () -> Optional.of("value")));
+    }
+}
@@ -0,0 +1,121 @@
+package com.sipzy.common.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for SingleFlight
+ */
+@DisplayName("SingleFlight Unit Tests")
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    private double calls(String outcome) {
+        var counter = meterRegistry.find("single.flight.calls").tag("outcome", outcome).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @Test
+    @DisplayName("Should run one load for concurrent calls of the same key")
+    void concurrentCalls_ShareOneLoad() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, Duration.ofSeconds(5));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("test", 1, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "value";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        Future<String> follower = executor.submit(() -> singleFlight.execute("test", 1, () -> {
+            loads.incrementAndGet();
+            return "other";
+        }));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("value", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(1, calls("leader"));
+        assertEquals(1, calls("coalesced"));
+    }
+
+    @Test
+    @DisplayName("Should load separately after the timeout")
+    void slowLeader_FollowerFallsBack() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, Duration.ofMillis(50));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("test", 1, () -> {
+            loading.countDown();
+            await(release);
+            return "slow";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        assertEquals("fallback", singleFlight.execute("test", 1, () -> "fallback"));
+        assertEquals(1, calls("timeout"));
+
+        release.countDown();
+        assertEquals("slow", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should share the leader's exception and forget failed loads")
+    void failedLoad_PropagatesAndIsNotKept() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, Duration.ofSeconds(5));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.<String>execute("test", 1, () -> {
+            loading.countDown();
+            await(release);
+            throw new IllegalArgumentException("boom");
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<String> follower = executor.submit(() -> singleFlight.execute("test", 1, () -> "unused"));
+        Thread.sleep(100);
+        release.countDown();
+
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, leaderError.getCause());
+        assertInstanceOf(IllegalArgumentException.class, followerError.getCause());
+
+        assertEquals("retried", singleFlight.execute("test", 1, () -> "retried"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.sipzy.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.sipzy.common.cache.CacheReloader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit Tests for CacheConfig
+ */
+@DisplayName("CacheConfig Unit Tests")
+class CacheConfigTest {
+
+    private CacheConfig.CacheProperties properties;
+    private ObjectProvider<CacheReloader> reloaders;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        properties = new CacheConfig.CacheProperties();
+        properties.setDefaults(new CacheConfig.CacheSpec(100L, Duration.ofMinutes(5), null));
+        reloaders = mock(ObjectProvider.class);
+    }
+
+    private Cache<Object, Object> nativeCache(CacheManager cacheManager, String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+
+    @Test
+    @DisplayName("Should apply the spec of a configured cache over the defaults")
+    void configuredCache_UsesSpec() {
+        properties.getSpecs().put("coffees", new CacheConfig.CacheSpec(5000L, null, null));
+        when(reloaders.orderedStream()).thenReturn(Stream.empty());
+
+        CacheManager cacheManager = new CacheConfig().cacheManager(properties, reloaders);
+        Cache<Object, Object> coffees = nativeCache(cacheManager, "coffees");
+
+        assertEquals(5000L, coffees.policy().eviction().orElseThrow().getMaximum());
+        assertEquals(Duration.ofMinutes(5), coffees.policy().expireAfterWrite().orElseThrow().getExpiresAfter());
+        assertTrue(coffees.policy().isRecordingStats());
+    }
+
+    @Test
+    @DisplayName("Should create unlisted caches with the defaults")
+    void unlistedCache_UsesDefaults() {
+        when(reloaders.orderedStream()).thenReturn(Stream.empty());
+
+        CacheManager cacheManager = new CacheConfig().cacheManager(properties, reloaders);
+        Cache<Object, Object> other = nativeCache(cacheManager, "other");
+
+        assertEquals(100L, other.policy().eviction().orElseThrow().getMaximum());
+        assertTrue(other.policy().isRecordingStats());
+    }
+
+    @Test
+    @DisplayName("Should load and refresh through the reloader of the cache")
+    void refreshAfterWrite_UsesReloader() {
+        properties.getSpecs().put("popularCoffees", new CacheConfig.CacheSpec(null, null, Duration.ofMinutes(1)));
+        when(reloaders.orderedStream()).thenReturn(Stream.of(new CacheReloader("popularCoffees", key -> "top " + key)));
+
+        CacheManager cacheManager = new CacheConfig().cacheManager(properties, reloaders);
+
+        assertTrue(nativeCache(cacheManager, "popularCoffees").policy().refreshAfterWrite().isPresent());
+        assertEquals("top 8", cacheManager.getCache("popularCoffees").get(8).get());
+    }
+
+    @Test
+    @DisplayName("Should disable refresh when the cache has no reloader")
+    void refreshAfterWrite_WithoutReloader_Disabled() {
+        properties.getSpecs().put("recentCoffees", new CacheConfig.CacheSpec(null, null, Duration.ofMinutes(1)));
+        when(reloaders.orderedStream()).thenReturn(Stream.empty());
+
+        CacheManager cacheManager = new CacheConfig().cacheManager(properties, reloaders);
+
+        assertFalse(nativeCache(cacheManager, "recentCoffees").policy().refreshAfterWrite().isPresent());
+        assertNull(cacheManager.getCache("recentCoffees").get(8));
+    }
+}
@@ -0,0 +1,71 @@
+package com.sipzy.review.repository;
+
+import com.sipzy.common.util.CursorCodec;
+import com.sipzy.review.domain.Review;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ReviewSort Unit Tests")
+class ReviewSortTest {
+
+    @Test
+    @DisplayName("Should map sortBy parameters and aliases, helpful by default")
+    void shouldMapSortParams() {
+        assertEquals(ReviewSort.NEWEST, ReviewSort.fromParam("newest"));
+        assertEquals(ReviewSort.NEWEST, ReviewSort.fromParam("recent"));
+        assertEquals(ReviewSort.OLDEST, ReviewSort.fromParam("OLDEST"));
+        assertEquals(ReviewSort.HIGHEST, ReviewSort.fromParam("rating"));
+        assertEquals(ReviewSort.LOWEST, ReviewSort.fromParam("lowest"));
+        assertEquals(ReviewSort.HELPFUL, ReviewSort.fromParam(null));
+        assertEquals(ReviewSort.HELPFUL, ReviewSort.fromParam("unknown"));
+    }
+
+    @Test
+    @DisplayName("Should round-trip the keyset position of every sort through its cursor")
+    void shouldRoundTripCursors() {
+        Instant createdAt = Instant.parse("2025-10-25T10:00:00.123456Z");
+        Review review = Review.builder()
+                .id(42L)
+                .rating((short) 4)
+                .helpfulCount(7)
+                .createdAt(createdAt)
+                .build();
+
+        for (ReviewSort sort : ReviewSort.values()) {
+            String cursor = CursorCodec.encode(sort.cursorOf(review));
+            ReviewPosition position = sort.positionOf(CursorCodec.decode(cursor, sort.cursorTag(), sort.cursorParts()));
+
+            assertEquals(42L, position.id(), sort.name());
+            switch (sort) {
+                case NEWEST, OLDEST -> assertEquals(new ReviewPosition(null, createdAt, null, 42L), position);
+                case HIGHEST, LOWEST -> assertEquals(new ReviewPosition((short) 4, createdAt, null, 42L), position);
+                case HELPFUL -> assertEquals(new ReviewPosition(null, null, 7, 42L), position);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the cursor tags issued before the other sorts existed")
+    void shouldKeepExistingCursorTags() {
+        assertEquals("reviews-helpful", ReviewSort.HELPFUL.cursorTag());
+        assertEquals("reviews-newest", ReviewSort.NEWEST.cursorTag());
+    }
+
+    @Test
+    @DisplayName("Should only write the rating filter and seek condition when in use")
+    void shouldCompileOnlyUsedPredicates() {
+        String firstPage = ReviewRepositoryImpl.jpql(false, ReviewSort.HIGHEST, null);
+        assertEquals("SELECT r FROM Review r WHERE r.coffee.id = :coffeeId "
+                + "ORDER BY r.rating DESC, r.createdAt DESC, r.id DESC", firstPage);
+
+        String filtered = ReviewRepositoryImpl.jpql(true, ReviewSort.HELPFUL,
+                new ReviewPosition(null, null, 3, 10L));
+        assertTrue(filtered.contains("AND r.rating = :rating AND (r.helpfulCount < :afterHelpfulCount"));
+        assertTrue(filtered.endsWith("ORDER BY r.helpfulCount DESC, r.id DESC"));
+        assertFalse(filtered.contains("IS NULL"));
+    }
+}
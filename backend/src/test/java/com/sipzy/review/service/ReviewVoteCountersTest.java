@@ -0,0 +1,117 @@
+package com.sipzy.review.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReviewVoteCounters Unit Tests")
+class ReviewVoteCountersTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ReviewVoteCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new ReviewVoteCounters(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should accumulate deltas per review until flushed in one statement")
+    void flush_AppliesAccumulatedDeltasOnce() {
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenReturn(2);
+
+        counters.add(1L, 1, 0);
+        counters.add(1L, 1, 0);
+        counters.add(1L, -1, 1);
+        counters.add(2L, 0, 1);
+
+        assertArrayEquals(new long[] {1, 1}, counters.pending(1L));
+        assertArrayEquals(new long[] {0, 1}, counters.pending(2L));
+
+        counters.flush();
+
+        verify(jdbcTemplate, times(1)).update(anyString(), any(PreparedStatementSetter.class));
+        assertArrayEquals(new long[] {0, 0}, counters.pending(1L));
+
+        counters.flush();
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should keep the deltas of a failed flush for the next one")
+    void failedFlush_Retried() {
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(1);
+
+        counters.add(5L, 3, 0);
+        counters.flush();
+
+        assertArrayEquals(new long[] {3, 0}, counters.pending(5L));
+
+        counters.flush();
+
+        assertArrayEquals(new long[] {0, 0}, counters.pending(5L));
+        verify(jdbcTemplate, times(2)).update(anyString(), any(PreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("Should not lose votes racing flushes and retirements")
+    void concurrentVotes_NoneLost() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        AtomicLong flushedHelpful = new AtomicLong();
+        when(statement.getConnection()).thenReturn(connection);
+        // Only helpful votes here: summing every count array gives the helpful votes flushed
+        when(connection.createArrayOf(anyString(), any())).thenAnswer(invocation -> {
+            if ("integer".equals(invocation.getArgument(0))) {
+                for (Object count : (Object[]) invocation.getArgument(1)) {
+                    flushedHelpful.addAndGet((Integer) count);
+                }
+            }
+            return null;
+        });
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+            PreparedStatementSetter setter = invocation.getArgument(1);
+            setter.setValues(statement);
+            return 1;
+        });
+
+        ExecutorService voters = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            voters.submit(() -> {
+                for (int vote = 0; vote < 10_000; vote++) {
+                    counters.add(7L, 1, 0);
+                }
+            });
+        }
+        voters.shutdown();
+        while (!voters.awaitTermination(1, TimeUnit.MILLISECONDS)) {
+            counters.flush();
+        }
+        counters.flush();
+
+        assertEquals(40_000, flushedHelpful.get());
+        assertArrayEquals(new long[] {0, 0}, counters.pending(7L));
+    }
+}
@@ -0,0 +1,97 @@
+package com.sipzy.review.service;
+
+import com.sipzy.review.dto.response.VoteDriftResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReviewVoteVerifier Unit Tests")
+class ReviewVoteVerifierTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ReviewVoteCounters voteCounters;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Query selectDrifted;
+
+    @Mock
+    private Query lock;
+
+    @Mock
+    private Query selectDrift;
+
+    @Mock
+    private Query recount;
+
+    private ReviewVoteVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        verifier = new ReviewVoteVerifier(voteCounters, transactionManager, true, Duration.ZERO);
+        ReflectionTestUtils.setField(verifier, "entityManager", entityManager);
+        when(entityManager.createNativeQuery(contains("ORDER BY r.id"))).thenReturn(selectDrifted);
+        lenient().when(entityManager.createNativeQuery(contains("FOR UPDATE"))).thenReturn(lock);
+        lenient().when(entityManager.createNativeQuery(startsWith("SELECT r.helpful_count"))).thenReturn(selectDrift);
+        lenient().when(entityManager.createNativeQuery(startsWith("UPDATE"))).thenReturn(recount);
+        for (Query query : List.of(lock, selectDrift, recount)) {
+            lenient().when(query.setParameter(anyString(), any())).thenReturn(query);
+        }
+    }
+
+    @Test
+    @DisplayName("Should recount a review whose drift is stable and skip one still moving")
+    void verify_RecountsSettledDriftOnly() {
+        when(selectDrifted.getResultList()).thenReturn(List.<Object[]>of(
+                new Object[] {1L, -3, 0},
+                new Object[] {2L, 1, 0}));
+        // Review 2 moved meanwhile: another node flushed its pending delta
+        when(selectDrift.getResultList()).thenReturn(
+                List.<Object[]>of(new Object[] {-3, 0}),
+                List.<Object[]>of(new Object[] {0, 0}));
+
+        VoteDriftResponse response = verifier.verify();
+
+        assertEquals(2, response.driftedReviews());
+        assertEquals(List.of(1L, 2L), response.reviewIds());
+        assertEquals(1, response.repairedReviews());
+        verify(recount).setParameter("id", 1L);
+        verify(recount, never()).setParameter("id", 2L);
+        verify(recount, times(1)).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("Should flush this node's deltas before comparing")
+    void verify_FlushesLocalDeltasFirst() {
+        when(selectDrifted.getResultList()).thenReturn(List.of());
+
+        VoteDriftResponse response = verifier.verify();
+
+        InOrder inOrder = inOrder(voteCounters, selectDrifted);
+        inOrder.verify(voteCounters).flush();
+        inOrder.verify(selectDrifted).getResultList();
+        assertEquals(0, response.driftedReviews());
+        verifyNoInteractions(lock, recount);
+    }
+}
@@ -0,0 +1,87 @@
+package com.sipzy.search.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SuggestionTrie Unit Tests")
+class SuggestionTrieTest {
+
+    private SuggestionTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new SuggestionTrie(3);
+        trie.put(coffee(1L, "Éthiopie Yirgacheffe", 40));
+        trie.put(coffee(2L, "Ethiopia Sidamo", 10));
+        trie.put(new Suggestion(Suggestion.Type.ROASTER, 1L, "Café Lomi", 120));
+        trie.put(new Suggestion(Suggestion.Type.NOTE, 1L, "Crème brûlée", 5));
+    }
+
+    @Test
+    @DisplayName("Should match prefixes regardless of accents and case")
+    void shouldFoldAccents() {
+        assertEquals(List.of(1L, 2L), ids(trie.suggest("ETHIO", 10)));
+        assertEquals(List.of(1L), ids(trie.suggest("creme br", 10)));
+        assertEquals(List.of(1L), ids(trie.suggest("cafe", 10)));
+    }
+
+    @Test
+    @DisplayName("Should match any word of a name, not only the first")
+    void shouldMatchInnerWords() {
+        assertEquals(List.of(1L), ids(trie.suggest("yirga", 10)));
+        assertEquals(List.of(1L), ids(trie.suggest("lomi", 10)));
+    }
+
+    @Test
+    @DisplayName("Should rank mixed suggestions by weight and honour the limit")
+    void shouldRankByWeight() {
+        trie.put(coffee(3L, "Lomi Espresso", 200));
+
+        List<Suggestion> suggestions = trie.suggest("lo", 10);
+
+        assertEquals(Suggestion.Type.COFFEE, suggestions.get(0).type());
+        assertEquals(Suggestion.Type.ROASTER, suggestions.get(1).type());
+        assertEquals(1, trie.suggest("lo", 1).size());
+    }
+
+    @Test
+    @DisplayName("Should re-rank an entry whose weight changes")
+    void shouldReweigh() {
+        trie.put(coffee(2L, "Ethiopia Sidamo", 90));
+
+        assertEquals(List.of(2L, 1L), ids(trie.suggest("eth", 10)));
+    }
+
+    @Test
+    @DisplayName("Should promote the next best entry when a listed one is removed")
+    void shouldRecomputeOnRemove() {
+        trie.put(coffee(3L, "Ethiopia Guji", 30));
+        trie.put(coffee(4L, "Ethiopia Limu", 20));
+        assertEquals(List.of(1L, 3L, 4L), ids(trie.suggest("eth", 10)));
+
+        trie.remove(Suggestion.Type.COFFEE, 1L);
+
+        assertEquals(List.of(3L, 4L, 2L), ids(trie.suggest("eth", 10)));
+        assertTrue(trie.suggest("yirga", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return nothing for a blank or unknown prefix")
+    void shouldHandleEmptyResults() {
+        assertTrue(trie.suggest("  ", 10).isEmpty());
+        assertTrue(trie.suggest("kenya", 10).isEmpty());
+    }
+
+    private static Suggestion coffee(long id, String name, long reviews) {
+        return new Suggestion(Suggestion.Type.COFFEE, id, name, reviews);
+    }
+
+    private static List<Long> ids(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::id).toList();
+    }
+}
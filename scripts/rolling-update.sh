@@ -6,7 +6,7 @@ set -e
 
 SERVICE=${1:-all}
 COMPOSE_FILE="docker-compose.prod.yml"
-HEALTH_CHECK_RETRIES=30
+HEALTH_CHECK_RETRIES=45  # startup + catalog warm-up budget (app.warm-up.budget)
 HEALTH_CHECK_INTERVAL=2
 
 log() {
@@ -78,7 +78,7 @@ log "🚀 Starting rolling update for: $SERVICE"
 
 case $SERVICE in
     backend)
-        deploy_service backend 8080 /actuator/health
+        deploy_service backend 8080 /actuator/health/readiness
         ;;
     frontend)
         deploy_service frontend 3000 /
@@ -88,7 +88,7 @@ case $SERVICE in
         ;;
     all)
         # Deploy in order: backend → frontend → backoffice
-        if deploy_service backend 8080 /actuator/health; then
+        if deploy_service backend 8080 /actuator/health/readiness; then
             deploy_service frontend 3000 /
             deploy_service backoffice 3001 /
         else